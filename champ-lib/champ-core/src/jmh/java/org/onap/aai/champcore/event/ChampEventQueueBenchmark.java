@@ -0,0 +1,178 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.onap.aai.champcore.event.ChampEvent.ChampOperation;
+import org.onap.aai.champcore.model.ChampObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput of the event queue implementations when several writer threads
+ * hand off batches of events to a pool of publisher workers.
+ * <p>
+ * The <code>array-blocking</code> queue is the ArrayBlockingQueue that the event pipeline used
+ * originally, offering one event at a time.  Run with:
+ * <pre>
+ *   mvn -P jmh test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=org.onap.aai.champcore.event.ChampEventQueueBenchmark
+ * </pre>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ChampEventQueueBenchmark {
+
+  private static final int CAPACITY = 10000;
+  private static final int PUBLISHER_BATCH_SIZE = 100;
+
+  @Param({"array-blocking", AbstractLoggingChampGraph.EVENT_QUEUE_TYPE_BLOCKING,
+      AbstractLoggingChampGraph.EVENT_QUEUE_TYPE_RING_BUFFER})
+  public String queueType;
+
+  /** Number of events produced by each committed transaction. */
+  @Param({"1", "10"})
+  public int transactionSize;
+
+  private ChampEventQueue queue;
+  private List<ChampEvent> transaction;
+
+
+  @Setup
+  public void setup() {
+    switch(queueType) {
+      case AbstractLoggingChampGraph.EVENT_QUEUE_TYPE_BLOCKING:
+        queue = new BlockingChampEventQueue(CAPACITY);
+        break;
+      case AbstractLoggingChampGraph.EVENT_QUEUE_TYPE_RING_BUFFER:
+        queue = new RingBufferChampEventQueue(CAPACITY, RingBufferChampEventQueue.WaitStrategy.SLEEPING);
+        break;
+      default:
+        queue = new ArrayBlockingEventQueue(CAPACITY);
+        break;
+    }
+
+    transaction = new ArrayList<>(transactionSize);
+    for(int i=0; i<transactionSize; i++) {
+      transaction.add(ChampEvent.builder()
+          .operation(ChampOperation.STORE)
+          .entity(ChampObject.create().ofType("pserver").withKey("key-" + i).build())
+          .build());
+    }
+  }
+
+  @Benchmark
+  @Group("handoff")
+  @GroupThreads(4)
+  public boolean commit() {
+    return queue.offerAll(transaction);
+  }
+
+  @Benchmark
+  @Group("handoff")
+  @GroupThreads(2)
+  public int publish() throws InterruptedException {
+    List<ChampEvent> batch = new ArrayList<>(PUBLISHER_BATCH_SIZE);
+    ChampEvent first = queue.poll(1, TimeUnit.MILLISECONDS);
+    if(first == null) {
+      return 0;
+    }
+    batch.add(first);
+    return 1 + queue.drainTo(batch, PUBLISHER_BATCH_SIZE - 1);
+  }
+
+  /**
+   * The original event queue, which accepts one event at a time.
+   */
+  private static class ArrayBlockingEventQueue implements ChampEventQueue {
+
+    private final ArrayBlockingQueue<ChampEvent> queue;
+
+    ArrayBlockingEventQueue(int capacity) {
+      queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public boolean offerAll(List<ChampEvent> events) {
+      boolean offered = true;
+      for(ChampEvent event : events) {
+        offered &= queue.offer(event);
+      }
+      return offered;
+    }
+
+    @Override
+    public boolean offerAll(List<ChampEvent> events, long timeout, TimeUnit unit) throws InterruptedException {
+      boolean offered = true;
+      for(ChampEvent event : events) {
+        offered &= queue.offer(event, timeout, unit);
+      }
+      return offered;
+    }
+
+    @Override
+    public ChampEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+      return queue.poll(timeout, unit);
+    }
+
+    @Override
+    public int drainTo(Collection<? super ChampEvent> target, int maxEvents) {
+      return queue.drainTo(target, maxEvents);
+    }
+
+    @Override
+    public int size() {
+      return queue.size();
+    }
+
+    @Override
+    public int remainingCapacity() {
+      return queue.remainingCapacity();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ChampEventQueueBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -23,6 +23,7 @@ package org.onap.aai.champcore;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.onap.aai.champcore.exceptions.ChampIndexNotExistsException;
@@ -32,6 +33,7 @@ import org.onap.aai.champcore.exceptions.ChampRelationshipNotExistsException;
 import org.onap.aai.champcore.exceptions.ChampSchemaViolationException;
 import org.onap.aai.champcore.exceptions.ChampTransactionException;
 import org.onap.aai.champcore.exceptions.ChampUnmarshallingException;
+import org.onap.aai.champcore.model.ChampDirection;
 import org.onap.aai.champcore.model.ChampObject;
 import org.onap.aai.champcore.model.ChampObjectConstraint;
 import org.onap.aai.champcore.model.ChampObjectIndex;
@@ -40,6 +42,7 @@ import org.onap.aai.champcore.model.ChampRelationship;
 import org.onap.aai.champcore.model.ChampRelationshipConstraint;
 import org.onap.aai.champcore.model.ChampRelationshipIndex;
 import org.onap.aai.champcore.model.ChampSchema;
+import org.onap.aai.champcore.model.ChampTraversal;
 
 public interface ChampGraph {
   
@@ -150,6 +153,56 @@ public interface ChampGraph {
     */
   public ChampObject replaceObject(ChampObject object, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampSchemaViolationException, ChampObjectNotExistsException, ChampTransactionException;
 
+  /**
+   * Patch an object.  ChampObject key is mandatory
+   * <p>
+   * Only the properties present in the supplied {@code object} are written, all other
+   * properties of the stored object are left as they are.  The type of the supplied
+   * {@code object} is ignored.
+   * <p>
+   * Each implementation has different guarantees on validation - see the specific implementation
+   * for more details on this.
+   * 
+   * @param object - The ChampObject holding the properties that you wish to update in the graph
+   *
+   * @return The ChampObject as it was stored, including the properties which were not patched
+   * 
+   * @throws ChampMarshallingException If the {@code object} is not able to be marshalled into the backend representation
+   * @throws ChampUnmarshallingException If the stored object could not be unmarshalled
+   * @throws ChampSchemaViolationException If the patched object violates the constraints specifed by {@link ChampGraph#retrieveSchema}
+   * @throws ChampObjectNotExistsException If {@link org.onap.aai.champcore.model.ChampObject#getKey} is not present or object not found in the graph
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public ChampObject patchObject(ChampObject object) throws ChampMarshallingException, ChampUnmarshallingException, ChampSchemaViolationException, ChampObjectNotExistsException, ChampTransactionException;
+
+  /**
+    * Patch an object.  ChampObject key is mandatory
+    * <p>
+    * Only the properties present in the supplied {@code object} are written, all other
+    * properties of the stored object are left as they are.  The type of the supplied
+    * {@code object} is ignored.
+    * <p>
+    * Each implementation has different guarantees on validation - see the specific implementation
+    * for more details on this.
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param object      - The ChampObject holding the properties that you wish to update in the graph
+    * @param transaction - Optional transaction context to perform the operation in.
+    *
+    * @return The ChampObject as it was stored, including the properties which were not patched
+    * 
+    * @throws ChampMarshallingException If the {@code object} is not able to be marshalled into the backend representation
+    * @throws ChampUnmarshallingException If the stored object could not be unmarshalled
+    * @throws ChampSchemaViolationException If the patched object violates the constraints specifed by {@link ChampGraph#retrieveSchema}
+    * @throws ChampObjectNotExistsException If {@link org.onap.aai.champcore.model.ChampObject#getKey} is not present or object not found in the graph
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public ChampObject patchObject(ChampObject object, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampUnmarshallingException, ChampSchemaViolationException, ChampObjectNotExistsException, ChampTransactionException;
+
   /**
    * Retrieve an object by its key.
    * 
@@ -180,6 +233,42 @@ public interface ChampGraph {
     * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
     */
   public Optional<ChampObject> retrieveObject(Object key, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampTransactionException;
+
+  /**
+   * Retrieve the first object whose property {@code propertyName} has the given {@code value}.
+   * <p>
+   * This is intended for lookups against a uniquely indexed property (such as the
+   * aai-uuid composite index), and stops evaluating the query as soon as the first
+   * match has been found.
+   * 
+   * @param propertyName - The name of the (indexed) property to match on
+   * @param value        - The value of the property
+   *  
+   * @return The matching {@link org.onap.aai.champcore.model.ChampObject} if one was present, otherwise {@link Optional#empty()}
+   * 
+   * @throws ChampUnmarshallingException If the object was found, but could not be unmarshalled
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public Optional<ChampObject> retrieveObjectByProperty(String propertyName, Object value) throws ChampUnmarshallingException, ChampTransactionException;
+
+  /**
+    * Retrieve the first object whose property {@code propertyName} has the given {@code value}.
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param propertyName - The name of the (indexed) property to match on
+    * @param value        - The value of the property
+    * @param transaction  - Optional transaction context to perform the operation in.
+    *  
+    * @return The matching {@link org.onap.aai.champcore.model.ChampObject} if one was present, otherwise {@link Optional#empty()}
+    * 
+    * @throws ChampUnmarshallingException If the object was found, but could not be unmarshalled
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public Optional<ChampObject> retrieveObjectByProperty(String propertyName, Object value, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampTransactionException;
     
   /**
    * Delete an object by its key.
@@ -236,6 +325,111 @@ public interface ChampGraph {
     */
   public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException;
 
+  /**
+   * Retrieve a window of the objects whose properties match the given {@code queryParams}
+   * <p>
+   * The window is applied by the underlying graph query, so only the requested page of
+   * results is read from the backend.  Callers can page through a large result set by
+   * advancing {@code offset} by {@code limit} on each call.
+   * 
+   * @param queryParams - The key/value pairs which are found in {@link ChampObject#getProperties}
+   * @param offset      - The number of matching objects to skip
+   * @param limit       - The maximum number of objects to return, or a negative value for no limit
+   * 
+   * @return - A {@link Stream} of at most {@code limit} objects where each {@link ChampObject#getProperties} contains the {@code queryParams}
+   *
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, long offset, long limit) throws ChampTransactionException;
+
+  /**
+    * Retrieve a window of the objects whose properties match the given {@code queryParams}
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param queryParams - The key/value pairs which are found in {@link ChampObject#getProperties}
+    * @param offset      - The number of matching objects to skip
+    * @param limit       - The maximum number of objects to return, or a negative value for no limit
+    * @param transaction - Optional transaction context to perform the operation in.
+    * 
+    * @return - A {@link Stream} of at most {@code limit} objects where each {@link ChampObject#getProperties} contains the {@code queryParams}
+    * 
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+
+  /**
+   * Retrieve a window of the objects whose properties match the given {@code queryParams},
+   * populating only the properties named in {@code propertyKeys}.
+   * <p>
+   * The projection is applied while reading from the backend, so properties which were not
+   * requested are never fetched.
+   * 
+   * @param queryParams  - The key/value pairs which are found in {@link ChampObject#getProperties}
+   * @param propertyKeys - The names of the properties to populate on the returned objects
+   * @param offset       - The number of matching objects to skip
+   * @param limit        - The maximum number of objects to return, or a negative value for no limit
+   * 
+   * @return - A {@link Stream} of at most {@code limit} objects, each holding only the requested properties
+   *
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, Set<String> propertyKeys, long offset, long limit) throws ChampTransactionException;
+
+  /**
+    * Retrieve a window of the objects whose properties match the given {@code queryParams},
+    * populating only the properties named in {@code propertyKeys}.
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param queryParams  - The key/value pairs which are found in {@link ChampObject#getProperties}
+    * @param propertyKeys - The names of the properties to populate on the returned objects
+    * @param offset       - The number of matching objects to skip
+    * @param limit        - The maximum number of objects to return, or a negative value for no limit
+    * @param transaction  - Optional transaction context to perform the operation in.
+    * 
+    * @return - A {@link Stream} of at most {@code limit} objects, each holding only the requested properties
+    * 
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, Set<String> propertyKeys, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+
+  /**
+   * Count the objects whose properties match the given {@code queryParams}, without
+   * retrieving the objects themselves.
+   * 
+   * @param queryParams - The key/value pairs which are found in {@link ChampObject#getProperties}
+   * 
+   * @return - The number of objects where {@link ChampObject#getProperties} contains the {@code queryParams}
+   *
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public long countObjects(Map<String, Object> queryParams) throws ChampTransactionException;
+
+  /**
+    * Count the objects whose properties match the given {@code queryParams}, without
+    * retrieving the objects themselves.
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param queryParams - The key/value pairs which are found in {@link ChampObject#getProperties}
+    * @param transaction - Optional transaction context to perform the operation in.
+    * 
+    * @return - The number of objects where {@link ChampObject#getProperties} contains the {@code queryParams}
+    * 
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public long countObjects(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+
   /**
    * Create/Update a relationship.  
    * <p>
@@ -329,7 +523,59 @@ public interface ChampGraph {
     * @throws ChampUnmarshallingException If the edge which was created could not be unmarshalled into a ChampRelationship
     * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
     */
-  public ChampRelationship replaceRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampSchemaViolationException, ChampRelationshipNotExistsException, ChampUnmarshallingException, ChampTransactionException;	
+  public ChampRelationship replaceRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampSchemaViolationException, ChampRelationshipNotExistsException, ChampUnmarshallingException, ChampTransactionException;
+
+  /**
+   * Patch a relationship. 
+   * <p>
+   * ChampRelationship key is mandatory.  Only the properties present in the supplied
+   * {@code relationship} are written, all other properties of the stored relationship are
+   * left as they are.  The type, source and target of the supplied {@code relationship}
+   * are ignored.
+   * <p>
+   * Each implementation has different guarantees on validation - see the specific implementation 
+   * for more details on this.
+   * 
+   * @param relationship - The ChampRelationship holding the properties that you wish to update in the graph
+   * 
+   * @return The ChampRelationship as it was stored, including the properties which were not patched
+   * 
+   * @throws ChampMarshallingException If the {@code relationship} is not able to be marshalled into the backend representation
+   * @throws ChampSchemaViolationException If the patched relationship violates the constraints specifed by {@link ChampGraph#retrieveSchema}
+   * @throws ChampRelationshipNotExistsException If {@link org.onap.aai.champcore.model.ChampRelationship#getKey} is not present or object not found in the graph
+   * @throws ChampUnmarshallingException If the stored relationship could not be unmarshalled
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed. 
+   */
+  public ChampRelationship patchRelationship(ChampRelationship relationship) throws ChampMarshallingException, ChampSchemaViolationException, ChampRelationshipNotExistsException, ChampUnmarshallingException, ChampTransactionException;
+
+  /**
+    * Patch a relationship. 
+    * <p>
+    * ChampRelationship key is mandatory.  Only the properties present in the supplied
+    * {@code relationship} are written, all other properties of the stored relationship are
+    * left as they are.  The type, source and target of the supplied {@code relationship}
+    * are ignored.
+    * <p>
+    * Each implementation has different guarantees on validation - see the specific implementation 
+    * for more details on this.
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param relationship - The ChampRelationship holding the properties that you wish to update in the graph
+    * @param transaction  - Optional transaction context to perform the operation in.
+    * 
+    * @return The ChampRelationship as it was stored, including the properties which were not patched
+    * 
+    * @throws ChampMarshallingException If the {@code relationship} is not able to be marshalled into the backend representation
+    * @throws ChampSchemaViolationException If the patched relationship violates the constraints specifed by {@link ChampGraph#retrieveSchema}
+    * @throws ChampRelationshipNotExistsException If {@link org.onap.aai.champcore.model.ChampRelationship#getKey} is not present or object not found in the graph
+    * @throws ChampUnmarshallingException If the stored relationship could not be unmarshalled
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public ChampRelationship patchRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampSchemaViolationException, ChampRelationshipNotExistsException, ChampUnmarshallingException, ChampTransactionException;	
 
   /**
    * Retrieve a relationship by its key.
@@ -364,6 +610,42 @@ public interface ChampGraph {
     */
   public Optional<ChampRelationship> retrieveRelationship(Object key, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampTransactionException;
 
+  /**
+   * Retrieve the first relationship whose property {@code propertyName} has the given {@code value}.
+   * <p>
+   * This is intended for lookups against a uniquely indexed property (such as the
+   * aai-uuid composite index), and stops evaluating the query as soon as the first
+   * match has been found.
+   * 
+   * @param propertyName - The name of the (indexed) property to match on
+   * @param value        - The value of the property
+   * 
+   * @return The matching {@link org.onap.aai.champcore.model.ChampRelationship} if one was present, otherwise {@link Optional#empty()}
+   * 
+   * @throws ChampUnmarshallingException If the relationship was found, but could not be unmarshalled
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public Optional<ChampRelationship> retrieveRelationshipByProperty(String propertyName, Object value) throws ChampUnmarshallingException, ChampTransactionException;
+
+  /**
+    * Retrieve the first relationship whose property {@code propertyName} has the given {@code value}.
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param propertyName - The name of the (indexed) property to match on
+    * @param value        - The value of the property
+    * @param transaction  - Optional transaction context to perform the operation in.
+    * 
+    * @return The matching {@link org.onap.aai.champcore.model.ChampRelationship} if one was present, otherwise {@link Optional#empty()}
+    * 
+    * @throws ChampUnmarshallingException If the relationship was found, but could not be unmarshalled
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public Optional<ChampRelationship> retrieveRelationshipByProperty(String propertyName, Object value, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampTransactionException;
+
   /**
    * Delete a relationship by its key.
    * 
@@ -423,6 +705,90 @@ public interface ChampGraph {
     */
   public Stream<ChampRelationship> retrieveRelationships(ChampObject object, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException;
 
+  /**
+   * Retrieve the relationships which are incident to the {@code object}, populating only the
+   * properties named in {@code endpointPropertyKeys} on each relationship's source and target.
+   * <p>
+   * Endpoint properties which were not requested are never read from the backend, so an empty
+   * set yields endpoints carrying only their key and type.
+   * 
+   * @param object               - The object you wish to find incident relationships for
+   * @param endpointPropertyKeys - The names of the properties to populate on the source and target objects
+   * 
+   * @return A {@link Stream} where each {@link ChampRelationship} has this {@code object} as either a source or target object
+   * 
+   * @throws ChampUnmarshallingException If any of the ChampRelationship objects could not be unmarshalled
+   * @throws ChampObjectNotExistsException If the {@code object} does not exist in this graph
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public Stream<ChampRelationship> retrieveRelationships(ChampObject object, Set<String> endpointPropertyKeys) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException;
+
+  /**
+    * Retrieve the relationships which are incident to the {@code object}, populating only the
+    * properties named in {@code endpointPropertyKeys} on each relationship's source and target.
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param object               - The object you wish to find incident relationships for
+    * @param endpointPropertyKeys - The names of the properties to populate on the source and target objects
+    * @param transaction          - Optional transaction context to perform the operation in.
+    * 
+    * @return A {@link Stream} where each {@link ChampRelationship} has this {@code object} as either a source or target object
+    * 
+    * @throws ChampUnmarshallingException If any of the ChampRelationship objects could not be unmarshalled
+    * @throws ChampObjectNotExistsException If the {@code object} does not exist in this graph
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public Stream<ChampRelationship> retrieveRelationships(ChampObject object, Set<String> endpointPropertyKeys, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException;
+
+  /**
+   * Retrieve the relationships which are incident to the {@code object} in the given
+   * {@code direction}, of one of the given {@code types}, and whose properties match the
+   * given {@code queryParams}.
+   * <p>
+   * All of the criteria are applied by the underlying edge lookup on the object, so
+   * relationships which do not match are never read.
+   * 
+   * @param object      - The object you wish to find incident relationships for
+   * @param direction   - The direction of the relationships relative to the {@code object}
+   * @param types       - The relationship types to include, or an empty set for all types
+   * @param queryParams - The key/value pairs to search for in the {@link ChampRelationship#getProperties}
+   * 
+   * @return A {@link Stream} of the matching {@link ChampRelationship}s incident to this {@code object}
+   * 
+   * @throws ChampUnmarshallingException If any of the ChampRelationship objects could not be unmarshalled
+   * @throws ChampObjectNotExistsException If the {@code object} does not exist in this graph
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public Stream<ChampRelationship> retrieveRelationships(ChampObject object, ChampDirection direction, Set<String> types, Map<String, Object> queryParams) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException;
+
+  /**
+    * Retrieve the relationships which are incident to the {@code object} in the given
+    * {@code direction}, of one of the given {@code types}, and whose properties match the
+    * given {@code queryParams}.
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param object      - The object you wish to find incident relationships for
+    * @param direction   - The direction of the relationships relative to the {@code object}
+    * @param types       - The relationship types to include, or an empty set for all types
+    * @param queryParams - The key/value pairs to search for in the {@link ChampRelationship#getProperties}
+    * @param transaction - Optional transaction context to perform the operation in.
+    * 
+    * @return A {@link Stream} of the matching {@link ChampRelationship}s incident to this {@code object}
+    * 
+    * @throws ChampUnmarshallingException If any of the ChampRelationship objects could not be unmarshalled
+    * @throws ChampObjectNotExistsException If the {@code object} does not exist in this graph
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public Stream<ChampRelationship> retrieveRelationships(ChampObject object, ChampDirection direction, Set<String> types, Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException;
+
   /**
    * Retrieve the relationships whose properties match the given {@code queryParams}
    * 
@@ -451,6 +817,147 @@ public interface ChampGraph {
     */
   public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException;
 
+  /**
+   * Retrieve a window of the relationships whose properties match the given {@code queryParams}
+   * <p>
+   * The window is applied by the underlying graph query, so only the requested page of
+   * results is read from the backend.
+   * 
+   * @param queryParams - The key/value pairs to search for in the {@link ChampRelationship#getProperties}
+   * @param offset      - The number of matching relationships to skip
+   * @param limit       - The maximum number of relationships to return, or a negative value for no limit
+   * 
+   * @return - A {@link Stream} of at most {@code limit} relationships where each {@link ChampRelationship#getProperties} contains the {@code queryParams}
+   *
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, long offset, long limit) throws ChampTransactionException;
+
+  /**
+    * Retrieve a window of the relationships whose properties match the given {@code queryParams}
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param queryParams - The key/value pairs to search for in the {@link ChampRelationship#getProperties}
+    * @param offset      - The number of matching relationships to skip
+    * @param limit       - The maximum number of relationships to return, or a negative value for no limit
+    * @param transaction - Optional transaction context to perform the operation in.
+    * 
+    * @return - A {@link Stream} of at most {@code limit} relationships where each {@link ChampRelationship#getProperties} contains the {@code queryParams}
+    * 
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+
+  /**
+   * Retrieve a window of the relationships whose properties match the given {@code queryParams},
+   * populating only the properties named in {@code endpointPropertyKeys} on each relationship's
+   * source and target.
+   * 
+   * @param queryParams          - The key/value pairs to search for in the {@link ChampRelationship#getProperties}
+   * @param endpointPropertyKeys - The names of the properties to populate on the source and target objects
+   * @param offset               - The number of matching relationships to skip
+   * @param limit                - The maximum number of relationships to return, or a negative value for no limit
+   * 
+   * @return - A {@link Stream} of at most {@code limit} relationships where each {@link ChampRelationship#getProperties} contains the {@code queryParams}
+   *
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, Set<String> endpointPropertyKeys, long offset, long limit) throws ChampTransactionException;
+
+  /**
+    * Retrieve a window of the relationships whose properties match the given {@code queryParams},
+    * populating only the properties named in {@code endpointPropertyKeys} on each relationship's
+    * source and target.
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param queryParams          - The key/value pairs to search for in the {@link ChampRelationship#getProperties}
+    * @param endpointPropertyKeys - The names of the properties to populate on the source and target objects
+    * @param offset               - The number of matching relationships to skip
+    * @param limit                - The maximum number of relationships to return, or a negative value for no limit
+    * @param transaction          - Optional transaction context to perform the operation in.
+    * 
+    * @return - A {@link Stream} of at most {@code limit} relationships where each {@link ChampRelationship#getProperties} contains the {@code queryParams}
+    * 
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, Set<String> endpointPropertyKeys, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+
+  /**
+   * Count the relationships whose properties match the given {@code queryParams}, without
+   * retrieving the relationships themselves.
+   * 
+   * @param queryParams - The key/value pairs to search for in the {@link ChampRelationship#getProperties}
+   * 
+   * @return The number of relationships where {@link ChampRelationship#getProperties} contains the {@code queryParams}
+   * 
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public long countRelationships(Map<String, Object> queryParams) throws ChampTransactionException;
+
+  /**
+    * Count the relationships whose properties match the given {@code queryParams}, without
+    * retrieving the relationships themselves.
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param queryParams - The key/value pairs to search for in the {@link ChampRelationship#getProperties}
+    * @param transaction - Optional transaction context to perform the operation in.
+    * 
+    * @return The number of relationships where {@link ChampRelationship#getProperties} contains the {@code queryParams}
+    * 
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public long countRelationships(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+
+  /**
+   * Execute a multi-hop {@link ChampTraversal}, starting at the objects which match its start
+   * query parameters and following each of its steps in turn.
+   * <p>
+   * The whole traversal is evaluated by the underlying graph as a single query, so the
+   * intermediate objects of the traversal are never retrieved.  Each object reached by the
+   * final step is returned once, up to the limit of the traversal.
+   * 
+   * @param traversal - The traversal to execute
+   * 
+   * @return A {@link Stream} of the {@link ChampObject}s reached by the final step of the {@code traversal}
+   * 
+   * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+   */
+  public Stream<ChampObject> traverse(ChampTraversal traversal) throws ChampTransactionException;
+
+  /**
+    * Execute a multi-hop {@link ChampTraversal}, starting at the objects which match its start
+    * query parameters and following each of its steps in turn.
+    * <p>
+    * The whole traversal is evaluated by the underlying graph as a single query, so the
+    * intermediate objects of the traversal are never retrieved.  Each object reached by the
+    * final step is returned once, up to the limit of the traversal.
+    * <p>
+    * If a transaction context is not provided, then a transaction will be automatically 
+    * created and committed for this operation only, otherwise, the supplied transaction
+    * will be used and it will be up to the caller to commit the transaction at its 
+    * discretion.
+    * 
+    * @param traversal   - The traversal to execute
+    * @param transaction - Optional transaction context to perform the operation in.
+    * 
+    * @return A {@link Stream} of the {@link ChampObject}s reached by the final step of the {@code traversal}
+    * 
+    * @throws ChampTransactionException If an attempt to commit or rollback the transaction failed.
+    */
+  public Stream<ChampObject> traverse(ChampTraversal traversal, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+
   /**
    * Create/Update a {@link ChampPartition}.  If any of the ChampObjects or ChampRelationships
    * present in this ChampPartition already exist, an update will be attempted, otherwise a create
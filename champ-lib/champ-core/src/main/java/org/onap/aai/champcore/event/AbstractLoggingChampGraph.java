@@ -21,11 +21,14 @@
 package org.onap.aai.champcore.event;
 
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -38,6 +41,7 @@ import org.onap.aai.champcore.ChampCoreMsgs;
 import org.onap.aai.champcore.ChampGraph;
 import org.onap.aai.champcore.ChampTransaction;
 import org.onap.aai.champcore.event.ChampEvent.ChampOperation;
+import org.onap.aai.champcore.event.envelope.ChampEventEncoding;
 import org.onap.aai.champcore.event.envelope.ChampEventEnvelope;
 import org.onap.aai.champcore.exceptions.ChampIndexNotExistsException;
 import org.onap.aai.champcore.exceptions.ChampMarshallingException;
@@ -46,6 +50,7 @@ import org.onap.aai.champcore.exceptions.ChampRelationshipNotExistsException;
 import org.onap.aai.champcore.exceptions.ChampSchemaViolationException;
 import org.onap.aai.champcore.exceptions.ChampTransactionException;
 import org.onap.aai.champcore.exceptions.ChampUnmarshallingException;
+import org.onap.aai.champcore.model.ChampDirection;
 import org.onap.aai.champcore.model.ChampObject;
 import org.onap.aai.champcore.model.ChampObjectConstraint;
 import org.onap.aai.champcore.model.ChampObjectIndex;
@@ -54,6 +59,7 @@ import org.onap.aai.champcore.model.ChampRelationship;
 import org.onap.aai.champcore.model.ChampRelationshipConstraint;
 import org.onap.aai.champcore.model.ChampRelationshipIndex;
 import org.onap.aai.champcore.model.ChampSchema;
+import org.onap.aai.champcore.model.ChampTraversal;
 import org.onap.aai.cl.api.Logger;
 import org.onap.aai.cl.eelf.LoggerFactory;
 import org.onap.aai.event.api.EventPublisher;
@@ -69,9 +75,29 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
 
   public static final String  PARAM_EVENT_QUEUE_CAPACITY = "champcore.event.stream.buffer.capacity";
   public static final Integer DEFAULT_EVENT_QUEUE_CAPACITY = 10000;
+  public static final String  PARAM_EVENT_QUEUE_TYPE = "champcore.event.stream.buffer.type";
+  public static final String  EVENT_QUEUE_TYPE_BLOCKING = "blocking";
+  public static final String  EVENT_QUEUE_TYPE_RING_BUFFER = "ring-buffer";
+  public static final String  DEFAULT_EVENT_QUEUE_TYPE = EVENT_QUEUE_TYPE_BLOCKING;
+  public static final String  PARAM_EVENT_QUEUE_WAIT_STRATEGY = "champcore.event.stream.buffer.wait-strategy";
+  public static final RingBufferChampEventQueue.WaitStrategy DEFAULT_EVENT_QUEUE_WAIT_STRATEGY =
+      RingBufferChampEventQueue.WaitStrategy.SLEEPING;
   public static final String  PARAM_EVENT_STREAM_PUBLISHER_POOL_SIZE = "champcore.event.stream.publisher-pool-size";
   public static final Integer DEFAULT_EVENT_STREAM_PUBLISHER_POOL_SIZE = 5;
+  public static final String  PARAM_EVENT_STREAM_PUBLISHER_BATCH_SIZE = "champcore.event.stream.publisher-batch-size";
+  public static final Integer DEFAULT_EVENT_STREAM_PUBLISHER_BATCH_SIZE = 100;
+  public static final String  PARAM_EVENT_STREAM_PUBLISHER_LINGER_MS = "champcore.event.stream.publisher-linger-ms";
+  public static final Long    DEFAULT_EVENT_STREAM_PUBLISHER_LINGER_MS = 0L;
   public static final String PARAM_EVENT_STREAM_PRODUCER = "champcore.event.stream.publisher";
+  public static final String  PARAM_EVENT_STREAM_ENCODING = "champcore.event.stream.encoding";
+  public static final ChampEventEncoding DEFAULT_EVENT_STREAM_ENCODING = ChampEventEncoding.JSON;
+  public static final String  PARAM_EVENT_QUEUE_FULL_POLICY = "champcore.event.stream.buffer.full-policy";
+  public static final ChampEventQueueFullPolicy DEFAULT_EVENT_QUEUE_FULL_POLICY = ChampEventQueueFullPolicy.DROP;
+  public static final String  PARAM_EVENT_QUEUE_FULL_TIMEOUT_MS = "champcore.event.stream.buffer.full-timeout-ms";
+  public static final Long    DEFAULT_EVENT_QUEUE_FULL_TIMEOUT_MS = 5000L;
+  public static final String  PARAM_EVENT_SPILL_DIRECTORY = "champcore.event.stream.spill.directory";
+  public static final String  PARAM_EVENT_SPILL_SEGMENT_SIZE = "champcore.event.stream.spill.segment-size";
+  public static final Integer DEFAULT_EVENT_SPILL_SEGMENT_SIZE = ChampEventSpillLog.DEFAULT_SEGMENT_SIZE;
   protected static final String KEY_PROPERTY_NAME = "aai-uuid";
   protected static final String NODE_TYPE_PROPERTY_NAME = "aai-node-type";
 
@@ -83,15 +109,46 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
 
   /** Internal queue where outgoing events will be buffered until they can be serviced by
    *  the event publisher worker threads. */
-  protected BlockingQueue<ChampEvent> eventQueue;
+  protected ChampEventQueue eventQueue;
 
-  /** Number of events that can be queued up for publication before we begin dropping
-   *  events. */
+  /** Events that did not fit in the event queue when the SPILL policy is configured. */
+  protected ChampEventSpillLog spillLog;
+
+  /** Number of events that can be queued up for publication before the queue full
+   *  policy is applied. */
   private Integer eventQueueCapacity;
 
+  /** Which event queue implementation to use, or a ready made queue instance. */
+  private Object eventQueueType;
+
+  /** How threads wait on the ring buffer event queue. */
+  private RingBufferChampEventQueue.WaitStrategy eventQueueWaitStrategy;
+
+  /** What to do with events that do not fit in the event queue. */
+  private ChampEventQueueFullPolicy eventQueueFullPolicy;
+
+  /** How long the BLOCK and REJECT policies wait for room in the event queue. */
+  private Long eventQueueFullTimeoutMs;
+
+  /** Directory to spill to.  Required by the SPILL policy, so that spilled events that have
+   *  not been published are replayed after a restart. */
+  private String spillDirectory;
+
+  /** Size of each spill log segment file, in bytes. */
+  private Integer spillSegmentSize;
+
   /** Number of event publisher worker threads. */
   private Integer eventStreamPublisherPoolSize;
 
+  /** Maximum number of events that a publisher worker sends to the event bus at once. */
+  private Integer eventStreamPublisherBatchSize;
+
+  /** How long a publisher worker waits for a batch to fill up before sending it. */
+  private Long eventStreamPublisherLingerMs;
+
+  /** Wire encoding of the event envelopes sent to the event stream. */
+  private ChampEventEncoding eventStreamEncoding;
+
   private static final Logger logger = LoggerFactory.getInstance().getLogger(AbstractLoggingChampGraph.class);
 
 
@@ -115,9 +172,18 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
       return;
     }
 
-    // Create the blocking queue that we will use to buffer events that we want
+    // Create the queue that we will use to buffer events that we want
     // published to the event bus.
-    eventQueue = new ArrayBlockingQueue<ChampEvent>(eventQueueCapacity);
+    eventQueue = createEventQueue();
+
+    if(eventQueueFullPolicy == ChampEventQueueFullPolicy.SPILL) {
+      try {
+        spillLog = new ChampEventSpillLog(new File(spillDirectory), spillSegmentSize);
+      } catch (IOException e) {
+        logger.error(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_ERROR,
+            "Failed to open event spill file, events that do not fit in the queue will be dropped: " + e.getMessage());
+      }
+    }
 
     // Create the executor pool that will do the work of publishing events to the event bus.
     publisherPool =
@@ -145,17 +211,39 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
 
   public abstract Optional<ChampObject>       retrieveObject(Object key) throws ChampUnmarshallingException, ChampTransactionException;
   public abstract Optional<ChampObject>       retrieveObject(Object key, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampTransactionException;
+  public abstract Optional<ChampObject>       retrieveObjectByProperty(String propertyName, Object value) throws ChampUnmarshallingException, ChampTransactionException;
+  public abstract Optional<ChampObject>       retrieveObjectByProperty(String propertyName, Object value, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampTransactionException;
   public abstract Stream<ChampObject>         queryObjects(Map<String, Object> queryParams) throws ChampTransactionException;
   public abstract Stream<ChampObject>         queryObjects(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+  public abstract Stream<ChampObject>         queryObjects(Map<String, Object> queryParams, long offset, long limit) throws ChampTransactionException;
+  public abstract Stream<ChampObject>         queryObjects(Map<String, Object> queryParams, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+  public abstract Stream<ChampObject>         queryObjects(Map<String, Object> queryParams, Set<String> propertyKeys, long offset, long limit) throws ChampTransactionException;
+  public abstract Stream<ChampObject>         queryObjects(Map<String, Object> queryParams, Set<String> propertyKeys, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+  public abstract long                        countObjects(Map<String, Object> queryParams) throws ChampTransactionException;
+  public abstract long                        countObjects(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException;
   @Override
   public abstract Optional<ChampRelationship> retrieveRelationship(Object key) throws ChampUnmarshallingException, ChampTransactionException;
   @Override
   public abstract Optional<ChampRelationship> retrieveRelationship(Object key, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampTransactionException;
+  public abstract Optional<ChampRelationship> retrieveRelationshipByProperty(String propertyName, Object value) throws ChampUnmarshallingException, ChampTransactionException;
+  public abstract Optional<ChampRelationship> retrieveRelationshipByProperty(String propertyName, Object value, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampTransactionException;
   public abstract Stream<ChampRelationship>   retrieveRelationships(ChampObject object) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException;
   public abstract Stream<ChampRelationship>   retrieveRelationships(ChampObject object, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException;
+  public abstract Stream<ChampRelationship>   retrieveRelationships(ChampObject object, Set<String> endpointPropertyKeys) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException;
+  public abstract Stream<ChampRelationship>   retrieveRelationships(ChampObject object, Set<String> endpointPropertyKeys, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException;
+  public abstract Stream<ChampRelationship>   retrieveRelationships(ChampObject object, ChampDirection direction, Set<String> types, Map<String, Object> queryParams) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException;
+  public abstract Stream<ChampRelationship>   retrieveRelationships(ChampObject object, ChampDirection direction, Set<String> types, Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException;
   public abstract Stream<ChampRelationship>   queryRelationships(Map<String, Object> queryParams) throws ChampTransactionException;
 
   public abstract Stream<ChampRelationship>   queryRelationships(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+  public abstract Stream<ChampRelationship>   queryRelationships(Map<String, Object> queryParams, long offset, long limit) throws ChampTransactionException;
+  public abstract Stream<ChampRelationship>   queryRelationships(Map<String, Object> queryParams, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+  public abstract Stream<ChampRelationship>   queryRelationships(Map<String, Object> queryParams, Set<String> endpointPropertyKeys, long offset, long limit) throws ChampTransactionException;
+  public abstract Stream<ChampRelationship>   queryRelationships(Map<String, Object> queryParams, Set<String> endpointPropertyKeys, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+  public abstract long                        countRelationships(Map<String, Object> queryParams) throws ChampTransactionException;
+  public abstract long                        countRelationships(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException;
+  public abstract Stream<ChampObject>         traverse(ChampTraversal traversal) throws ChampTransactionException;
+  public abstract Stream<ChampObject>         traverse(ChampTraversal traversal, Optional<ChampTransaction> transaction) throws ChampTransactionException;
 
   /**
     * Creates or updates a vertex in the graph data store.
@@ -203,6 +291,31 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
    */
   public abstract ChampObject executeReplaceObject(ChampObject object, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampSchemaViolationException, ChampObjectNotExistsException, ChampTransactionException;
 
+  /**
+   * Updates the supplied properties of an existing vertex in the graph store, leaving its
+   * other properties untouched.
+   * <p>
+   * If a transaction context is not provided, then a transaction will be automatically
+   * created and committed for this operation only, otherwise, the supplied transaction
+   * will be used and it will be up to the caller to commit the transaction at its
+   * discretion.
+   *
+   * @param object      - The vertex properties to be updated.
+   * @param transaction - Optional transaction context to perform the operation in.
+   *
+   * @return - The patched vertex, marshaled as a {@link ChampObject}
+   *
+   * @throws ChampMarshallingException     - If the {@code object} is not able to be marshalled into
+   *                                         the backend representation
+   * @throws ChampUnmarshallingException   - If the stored vertex could not be unmarshalled
+   * @throws ChampSchemaViolationException - If the patched vertex violates the constraints specifed
+   *                                         by {@link ChampGraph#retrieveSchema}
+   * @throws ChampObjectNotExistsException - If {@link org.onap.aai.champcore.model.ChampObject#getKey}
+   *                                         is not present or object not found in the graph
+   * @throws ChampTransactionException     - If an attempt to commit or rollback the transaction failed.
+   */
+  public abstract ChampObject executePatchObject(ChampObject object, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampUnmarshallingException, ChampSchemaViolationException, ChampObjectNotExistsException, ChampTransactionException;
+
   /**
    * Deletes an existing vertex from the graph store.
    * <p>
@@ -272,6 +385,32 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
    */
   public abstract ChampRelationship executeReplaceRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampMarshallingException, ChampSchemaViolationException, ChampRelationshipNotExistsException, ChampTransactionException;
 
+  /**
+   * Updates the supplied properties of an existing edge in the graph data store, leaving its
+   * other properties untouched.
+   * <p>
+   * If a transaction context is not provided, then a transaction will be automatically
+   * created and committed for this operation only, otherwise, the supplied transaction
+   * will be used and it will be up to the caller to commit the transaction at its
+   * discretion.
+   *
+   * @param relationship  - The ChampRelationship holding the properties that you wish to update
+   * @param transaction   - Optional transaction context to perform the operation in.
+   *
+   * @return - The {@link ChampRelationship} as it was stored.
+   *
+   * @throws ChampUnmarshallingException         - If the patched edge could not be
+   *                                               unmarshalled into a ChampRelationship
+   * @throws ChampMarshallingException           - If the {@code relationship} is not able to be
+   *                                               marshalled into the backend representation
+   * @throws ChampSchemaViolationException       - If the patched edge violates the constraints
+   *                                               specifed by {@link ChampGraph#retrieveSchema}
+   * @throws ChampRelationshipNotExistsException - If {@link org.onap.aai.champcore.model.ChampRelationship#getKey}
+   *                                               is not present or the edge cannot be found in the graph
+   * @throws ChampTransactionException           - If an attempt to commit or rollback the transaction failed.
+   */
+  public abstract ChampRelationship executePatchRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampMarshallingException, ChampSchemaViolationException, ChampRelationshipNotExistsException, ChampTransactionException;
+
   /**
    * Removes an edge from the graph data store.
    * <p>
@@ -376,6 +515,48 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
         (Integer) getProperty(properties, PARAM_EVENT_QUEUE_CAPACITY, DEFAULT_EVENT_QUEUE_CAPACITY);
     eventStreamPublisherPoolSize =
         (Integer) getProperty(properties, PARAM_EVENT_STREAM_PUBLISHER_POOL_SIZE, DEFAULT_EVENT_STREAM_PUBLISHER_POOL_SIZE);
+    eventQueueType = getProperty(properties, PARAM_EVENT_QUEUE_TYPE, DEFAULT_EVENT_QUEUE_TYPE);
+    eventQueueWaitStrategy = RingBufferChampEventQueue.WaitStrategy.valueOf(
+        getProperty(properties, PARAM_EVENT_QUEUE_WAIT_STRATEGY, DEFAULT_EVENT_QUEUE_WAIT_STRATEGY).toString()
+            .toUpperCase().replace('-', '_'));
+    eventStreamPublisherBatchSize = Math.max(1, Integer.parseInt(
+        getProperty(properties, PARAM_EVENT_STREAM_PUBLISHER_BATCH_SIZE, DEFAULT_EVENT_STREAM_PUBLISHER_BATCH_SIZE).toString()));
+    eventStreamPublisherLingerMs = Long.parseLong(
+        getProperty(properties, PARAM_EVENT_STREAM_PUBLISHER_LINGER_MS, DEFAULT_EVENT_STREAM_PUBLISHER_LINGER_MS).toString());
+    eventStreamEncoding = ChampEventEncoding.fromName(
+        getProperty(properties, PARAM_EVENT_STREAM_ENCODING, DEFAULT_EVENT_STREAM_ENCODING.getName()).toString());
+    eventQueueFullPolicy = ChampEventQueueFullPolicy.valueOf(
+        getProperty(properties, PARAM_EVENT_QUEUE_FULL_POLICY, DEFAULT_EVENT_QUEUE_FULL_POLICY).toString().toUpperCase());
+    eventQueueFullTimeoutMs =
+        Long.parseLong(getProperty(properties, PARAM_EVENT_QUEUE_FULL_TIMEOUT_MS, DEFAULT_EVENT_QUEUE_FULL_TIMEOUT_MS).toString());
+    spillDirectory = (String) properties.get(PARAM_EVENT_SPILL_DIRECTORY);
+    if(eventQueueFullPolicy == ChampEventQueueFullPolicy.SPILL && spillDirectory == null) {
+      throw new IllegalArgumentException(PARAM_EVENT_SPILL_DIRECTORY + " is required when "
+          + PARAM_EVENT_QUEUE_FULL_POLICY + " is " + ChampEventQueueFullPolicy.SPILL);
+    }
+    spillSegmentSize = Integer.parseInt(
+        getProperty(properties, PARAM_EVENT_SPILL_SEGMENT_SIZE, DEFAULT_EVENT_SPILL_SEGMENT_SIZE).toString());
+  }
+
+
+  /**
+   * Creates the queue that buffers events for the publisher workers.  The queue type may be
+   * one of the built in implementations, or a {@link ChampEventQueue} instance.
+   */
+  private ChampEventQueue createEventQueue() {
+
+    if(eventQueueType instanceof ChampEventQueue) {
+      return (ChampEventQueue) eventQueueType;
+    }
+
+    switch(eventQueueType.toString()) {
+      case EVENT_QUEUE_TYPE_BLOCKING:
+        return new BlockingChampEventQueue(eventQueueCapacity);
+      case EVENT_QUEUE_TYPE_RING_BUFFER:
+        return new RingBufferChampEventQueue(eventQueueCapacity, eventQueueWaitStrategy);
+      default:
+        throw new IllegalArgumentException("Unknown " + PARAM_EVENT_QUEUE_TYPE + ": " + eventQueueType);
+    }
   }
 
 
@@ -408,6 +589,15 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
       }
     }
 
+    if(spillLog != null) {
+      try {
+        spillLog.close();
+      } catch (IOException e) {
+        logger.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_WARN,
+            "Failed to close event spill file: " + e.getMessage());
+      }
+    }
+
     if(producer != null) {
 
       try {
@@ -423,30 +613,54 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
   @Override
   public void commitTransaction(ChampTransaction transaction) throws ChampTransactionException {
 
+    List<ChampEvent> enqueuedEvents;
+    synchronized(transaction.getEnqueuedEvents()) {
+      enqueuedEvents = new ArrayList<>(transaction.getEnqueuedEvents());
+    }
+
+    // With the REJECT policy, refuse to commit a transaction whose events cannot be published.
+    // Room for the events is claimed before committing, so that concurrent commits cannot all
+    // pass the check and then overflow the queue.
+    ChampEventQueue.Claim claim = null;
+    if(eventQueue != null && eventQueueFullPolicy == ChampEventQueueFullPolicy.REJECT && !enqueuedEvents.isEmpty()) {
+      claim = eventQueue.tryClaim(enqueuedEvents.size());
+      if(claim == null) {
+        throw new ChampTransactionException("Transaction " + transaction.id() + " not committed: event queue is full");
+      }
+    }
+
+    boolean committed = false;
     try {
 
       // Commit the transaction.
       transaction.commit();
+      committed = true;
 
     } catch (ChampTransactionException e) {
 
       logger.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_WARN, 
           "Events associated with transaction " + transaction.id() + " not generated due to transaction commit failure.");
 
-      List<ChampEvent> enqueuedEvents = transaction.getEnqueuedEvents();
       for(ChampEvent event : enqueuedEvents) {
 
         logger.debug("Graph event " + event.toString() + " not published.");
       }
       throw e;
+
+    } finally {
+      if(!committed && claim != null) {
+        claim.release();
+      }
     }
 
     // Now that the transaction has been successfully committed, we need
     // to log the events that were produced within that transaction's
-    // context.
-    List<ChampEvent> enqueuedEvents = transaction.getEnqueuedEvents();
-    for(ChampEvent event : enqueuedEvents) {
-      logEvent(event);
+    // context.  They are handed off to the publisher as a single batch.
+    if(claim != null) {
+      traceEvents(enqueuedEvents);
+      claim.offerAll(enqueuedEvents);
+    } else {
+      logEvents(enqueuedEvents);
     }
   }
 
@@ -504,6 +718,33 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
     return replacedObject;
   }
 
+  @Override
+  public ChampObject patchObject(ChampObject object)
+      throws ChampMarshallingException, ChampUnmarshallingException, ChampSchemaViolationException, ChampObjectNotExistsException, ChampTransactionException {
+
+    return patchObject(object, Optional.empty());
+  }
+
+  @Override
+  public ChampObject patchObject(ChampObject object, Optional<ChampTransaction> transaction)
+      throws ChampMarshallingException, ChampUnmarshallingException, ChampSchemaViolationException, ChampObjectNotExistsException, ChampTransactionException {
+
+    ChampObject patchedObject = executePatchObject(object, transaction);
+
+    if(patchedObject != null) {
+
+      // The event carries the whole patched object, so consumers see the same
+      // thing as they would for a replace.
+      logOrEnqueueEvent(ChampEvent.builder()
+                                  .operation(ChampOperation.REPLACE)
+                                  .entity(patchedObject)
+                                  .build(),
+                        transaction);
+    }
+
+    return patchedObject;
+  }
+
   @Override
   public void deleteObject(Object key) throws ChampObjectNotExistsException, ChampTransactionException {
     deleteObject(key, Optional.empty());
@@ -599,6 +840,37 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
     return replacedRelationship;
   }
 
+  @Override
+  public ChampRelationship patchRelationship(ChampRelationship relationship)
+      throws ChampUnmarshallingException,
+             ChampMarshallingException,
+             ChampSchemaViolationException,
+             ChampRelationshipNotExistsException, ChampTransactionException {
+    return patchRelationship(relationship, Optional.empty());
+  }
+
+  @Override
+  public ChampRelationship patchRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction)
+      throws ChampUnmarshallingException,
+             ChampMarshallingException,
+             ChampSchemaViolationException,
+             ChampRelationshipNotExistsException, ChampTransactionException {
+
+    ChampRelationship patchedRelationship = executePatchRelationship(relationship, transaction);
+
+    if(patchedRelationship != null) {
+
+      // Update the event stream with the whole patched relationship.
+      logOrEnqueueEvent(ChampEvent.builder()
+                                  .operation(ChampOperation.REPLACE)
+                                  .entity(patchedRelationship)
+                                  .build(),
+                        transaction);
+    }
+
+    return patchedRelationship;
+  }
+
   @Override
   public void deleteRelationship(ChampRelationship relationship) throws ChampRelationshipNotExistsException, ChampTransactionException {
     deleteRelationship(relationship, Optional.empty());
@@ -737,32 +1009,105 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
    * @param anEvent - The event to be published.
    */
   public void logEvent(ChampEvent anEvent) {
+    logEvents(Collections.singletonList(anEvent));
+  }
 
-    if(eventQueue == null) {
+  /**
+   * Submits a batch of events to be published to the event stream.  Either all of the events
+   * are placed on the event queue or, if there is no room for them, the queue full policy is
+   * applied to all of them.
+   *
+   * @param events - The events to be published, in publication order.
+   */
+  public void logEvents(List<ChampEvent> events) {
+
+    if(eventQueue == null || events.isEmpty()) {
       return;
     }
 
-    logger.info(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_INFO, 
-        "Log champcore event with transaction id: " + anEvent.getTransactionId() + " to event bus");
-    if(logger.isDebugEnabled()) {
-      logger.debug("Event payload: " + anEvent.toString());
+    traceEvents(events);
+
+    // Try to submit the events to be published to the event bus.
+    try {
+      boolean queued;
+      switch(eventQueueFullPolicy) {
+        case SPILL:
+          if(spillLog != null) {
+            enqueueOrSpill(events);
+            return;
+          }
+          queued = eventQueue.offerAll(events);
+          break;
+        case BLOCK:
+        case REJECT:
+          queued = eventQueue.offerAll(events, eventQueueFullTimeoutMs, TimeUnit.MILLISECONDS);
+          break;
+        default:
+          queued = eventQueue.offerAll(events);
+          break;
+      }
+      if(queued) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     }
 
-    // Try to submit the event to be published to the event bus.
-    if(!eventQueue.offer(anEvent)) {
-      logger.error(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_ERROR, 
-          "Event could not be published to the event bus due to: Internal buffer capacity exceeded.");
+    logger.error(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_ERROR, 
+        events.size() + " event(s) could not be published to the event bus due to: Internal buffer capacity exceeded.");
+  }
+
+  private void traceEvents(List<ChampEvent> events) {
+    for(ChampEvent anEvent : events) {
+      logger.info(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_INFO, 
+          "Log champcore event with transaction id: " + anEvent.getTransactionId() + " to event bus");
+      if(logger.isDebugEnabled()) {
+        logger.debug("Event payload: " + anEvent.toString());
+      }
+    }
+  }
+
+  /**
+   * Places the events on the event queue, or appends them to the spill log if the queue is
+   * full.  Once anything has been spilled, later events are spilled too until the spill log
+   * has been replayed, so that events are published in order.
+   */
+  private void enqueueOrSpill(List<ChampEvent> events) {
+
+    synchronized(spillLog) {
+      if(spillLog.isEmpty() && eventQueue.offerAll(events)) {
+        return;
+      }
+
+      List<String> messages = new ArrayList<>(events.size());
+      for(ChampEvent event : events) {
+        messages.add(new ChampEventEnvelope(event).encode(eventStreamEncoding));
+      }
+
+      try {
+        spillLog.append(messages);
+      } catch (IOException e) {
+        logger.error(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_ERROR, 
+            events.size() + " event(s) could not be spilled to " + spillLog.getDirectory() + ": " + e.getMessage());
+      }
     }
   }
 
 
   /**
    * This class implements the worker threads for our thread pool which are responsible for
-   * pulling the next outgoing event from the internal buffer and forwarding them to the event
-   * bus client.
+   * pulling outgoing events from the internal buffer and forwarding them to the event bus
+   * client.  Once the internal buffer is empty, any events that were spilled to disk are
+   * replayed, one batch after another without waiting between them.  Spilled events are only
+   * removed from the spill log once they have been published, so a batch that fails to publish
+   * is retried after the poll interval.
    * <p>
-   * Each publish operation is performed synchronously, so that the thread will only move on
-   * to the next available event once it has actually published the current event to the bus.
+   * Events are published in batches of up to the configured publisher batch size.  A worker
+   * takes every event that is available when it starts a batch and, if a linger time is
+   * configured, waits up to that long for the batch to fill before sending it.  Each batch is
+   * sent synchronously, so that the thread will only move on to the next batch once the
+   * current one has actually been published to the bus.  Once the publisher pool has been
+   * shut down, the workers exit as soon as there is nothing left to publish.
    */
   private class EventPublisherWorker implements Runnable {
 
@@ -770,35 +1115,133 @@ public abstract class AbstractLoggingChampGraph implements ChampGraph {
      *  to go to a single partition, so we are just using a hard-coded key for every event. */
     private static final String EVENTS_PARTITION_KEY = "champEventKey";
 
+    /** How long to wait for an event before checking the spill log and for shutdown. */
+    private static final long POLL_INTERVAL_MS = 100;
+
 
     @Override
     public void run() {
 
+      List<ChampEvent> events = new ArrayList<>(eventStreamPublisherBatchSize);
+      boolean replaying = false;
       while(true) {
-        ChampEvent event = null;
+        events.clear();
         try {
 
-          // Get the next event to be published from the queue.
-          event = eventQueue.take();
+          // Get the next batch of events to be published from the queue.  While spilled
+          // events are being replayed, don't wait for new events between batches.
+          ChampEvent first = eventQueue.poll(replaying ? 0 : POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+          if(first != null) {
+            events.add(first);
+            fillBatch(events);
+          }
 
         } catch (InterruptedException e) {
 
           // Restore the interrupted status.
           Thread.currentThread().interrupt();
+          return;
         }
 
-        // Create new envelope containing an event header and ChampEvent
-        ChampEventEnvelope eventEnvelope = new ChampEventEnvelope(event);
+        if(!events.isEmpty()) {
 
-        // Try publishing the event to the event bus.  This call will block until
-        try {
-          producer.sendSync(EVENTS_PARTITION_KEY, eventEnvelope.toJson());
+          // Create new envelopes containing an event header and ChampEvent
+          List<String> messages = new ArrayList<>(events.size());
+          for(ChampEvent event : events) {
+            messages.add(new ChampEventEnvelope(event).encode(eventStreamEncoding));
+          }
+          publish(messages);
+
+        } else {
+          replaying = replaySpilledEvents();
+          if(!replaying && publisherPool.isShutdown()) {
+            return;
+          }
+        }
+      }
+    }
 
-        } catch (Exception e) {
+    /**
+     * Adds events from the queue to the batch until it is full, or until the linger time has
+     * elapsed and no more events are immediately available.
+     */
+    private void fillBatch(List<ChampEvent> events) throws InterruptedException {
+
+      eventQueue.drainTo(events, eventStreamPublisherBatchSize - events.size());
+
+      long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(eventStreamPublisherLingerMs);
+      while(events.size() < eventStreamPublisherBatchSize) {
+        long remaining = deadline - System.nanoTime();
+        if(remaining <= 0) {
+          break;
+        }
 
-          logger.error(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_ERROR, 
-              "Failed to publish event to event bus: " + e.getMessage());
+        ChampEvent next = eventQueue.poll(remaining, TimeUnit.NANOSECONDS);
+        if(next == null) {
+          break;
         }
+        events.add(next);
+        eventQueue.drainTo(events, eventStreamPublisherBatchSize - events.size());
+      }
+    }
+
+    /**
+     * Publishes the next batch of spilled events, if there are any.
+     *
+     * @return - true if any events were replayed.
+     */
+    private boolean replaySpilledEvents() {
+
+      if(spillLog == null) {
+        return false;
+      }
+
+      List<String> messages;
+      try {
+        messages = spillLog.peek(eventStreamPublisherBatchSize);
+      } catch (IOException e) {
+        logger.error(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_ERROR, 
+            "Failed to read spilled events from " + spillLog.getDirectory() + ": " + e.getMessage());
+        return false;
+      }
+
+      if(messages.isEmpty()) {
+        return false;
+      }
+
+      // Only consume the events once they have been published, otherwise leave them at the
+      // head of the log to be retried.
+      if(!publish(messages)) {
+        spillLog.release();
+        return false;
+      }
+
+      try {
+        spillLog.acknowledge();
+      } catch (IOException e) {
+        logger.error(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_ERROR, 
+            "Failed to consume spilled events from " + spillLog.getDirectory() + ": " + e.getMessage());
+      }
+      return true;
+    }
+
+    private boolean publish(List<String> messages) {
+
+      // Try publishing the events to the event bus.  This call will block until
+      // the events have been sent.
+      try {
+        if(messages.size() == 1) {
+          producer.sendSync(EVENTS_PARTITION_KEY, messages.get(0));
+        } else {
+          producer.sendSync(EVENTS_PARTITION_KEY, messages);
+        }
+        return true;
+
+      } catch (Exception e) {
+
+        logger.error(ChampCoreMsgs.CHAMPCORE_ABSTRACT_LOGGING_CHAMP_GRAPH_ERROR, 
+            "Failed to publish " + messages.size() + " event(s) to event bus: " + e.getMessage());
+        return false;
       }
     }
   }
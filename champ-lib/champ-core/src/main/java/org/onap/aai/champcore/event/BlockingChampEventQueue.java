@@ -0,0 +1,216 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.event;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock based {@link ChampEventQueue}, backed by an array deque.
+ * <p>
+ * A batch is accepted when it fits in the remaining capacity.  A batch that is larger than
+ * the whole queue is accepted once the queue is empty, so that very large transactions are
+ * delayed rather than never published.  Room that has been claimed counts as used.
+ */
+public class BlockingChampEventQueue implements ChampEventQueue {
+
+  private final int capacity;
+  private final ArrayDeque<ChampEvent> events;
+
+  /** Room claimed for batches that have not been added yet. */
+  private int claimed = 0;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+
+
+  public BlockingChampEventQueue(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Event queue capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.events = new ArrayDeque<>(capacity);
+  }
+
+  @Override
+  public boolean offerAll(List<ChampEvent> batch) {
+    lock.lock();
+    try {
+      if (!fits(batch.size())) {
+        return false;
+      }
+      enqueue(batch);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean offerAll(List<ChampEvent> batch, long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (!fits(batch.size())) {
+        if (nanos <= 0) {
+          return false;
+        }
+        nanos = notFull.awaitNanos(nanos);
+      }
+      enqueue(batch);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Claim tryClaim(int count) {
+    lock.lock();
+    try {
+      if (!fits(count)) {
+        return null;
+      }
+      claimed += count;
+      return new BatchClaim(count);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public ChampEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (events.isEmpty()) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      ChampEvent event = events.poll();
+      notFull.signalAll();
+      return event;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int drainTo(Collection<? super ChampEvent> target, int maxEvents) {
+    lock.lock();
+    try {
+      int drained = 0;
+      while (drained < maxEvents && !events.isEmpty()) {
+        target.add(events.poll());
+        drained++;
+      }
+      if (drained > 0) {
+        notFull.signalAll();
+      }
+      return drained;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return events.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int remainingCapacity() {
+    lock.lock();
+    try {
+      return Math.max(0, capacity - events.size() - claimed);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean fits(int batchSize) {
+    return events.size() + claimed + batchSize <= capacity || (events.isEmpty() && claimed == 0);
+  }
+
+  private void enqueue(List<ChampEvent> batch) {
+    events.addAll(batch);
+    notEmpty.signalAll();
+  }
+
+
+  /**
+   * Room claimed for a batch, held as part of the claimed count until it is used or released.
+   */
+  private class BatchClaim implements Claim {
+
+    private final int count;
+    private boolean done = false;
+
+    BatchClaim(int count) {
+      this.count = count;
+    }
+
+    @Override
+    public void offerAll(List<ChampEvent> batch) {
+      if (batch.size() != count) {
+        throw new IllegalArgumentException("Claimed room for " + count + " events, not " + batch.size());
+      }
+      lock.lock();
+      try {
+        finish();
+        enqueue(batch);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void release() {
+      lock.lock();
+      try {
+        finish();
+        notFull.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void finish() {
+      if (done) {
+        throw new IllegalStateException("Event queue claim has already been used or released");
+      }
+      done = true;
+      claimed -= count;
+    }
+  }
+}
@@ -33,6 +33,8 @@ import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 
 public class ChampEvent {
@@ -41,7 +43,11 @@ public class ChampEvent {
         STORE, REPLACE, DELETE
     }
 
-    private static ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(Include.NON_NULL);
+
+    /** Readers and writers are immutable and thread safe, so they are configured once and shared. */
+    private static final ObjectWriter writer = mapper.writer();
+    private static final ObjectReader reader = mapper.readerFor(ChampEvent.class);
 
     private ChampOperation operation;
     private long timestamp;
@@ -133,19 +139,15 @@ public class ChampEvent {
     }
 
     public String toJson() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setSerializationInclusion(Include.NON_NULL);
-
         try {
-            return mapper.writeValueAsString(this);
+            return writer.writeValueAsString(this);
         } catch (JsonProcessingException e) {
             return "Unmarshallable: " + e.getMessage();
         }
     }
 
     public static ChampEvent fromJson(String json) throws JsonParseException, JsonMappingException, IOException {
-        mapper.setSerializationInclusion(Include.NON_NULL);
-        return mapper.readValue(json, ChampEvent.class);
+        return reader.readValue(json);
     }
 
     @Override
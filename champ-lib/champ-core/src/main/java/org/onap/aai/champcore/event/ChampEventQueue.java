@@ -0,0 +1,106 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded buffer between the threads that produce {@link ChampEvent}s and the workers that
+ * publish them to the event bus.
+ * <p>
+ * Events produced by a single transaction are handed off as one batch: either the whole batch
+ * is accepted or none of it is.
+ */
+public interface ChampEventQueue {
+
+  /**
+   * Adds all of the supplied events if there is room for them, without waiting.
+   *
+   * @param events - The events to add, in publication order.
+   * @return - true if the events were added, false if the queue did not have room for all of them.
+   */
+  boolean offerAll(List<ChampEvent> events);
+
+  /**
+   * Adds all of the supplied events, waiting up to the specified time for room to become available.
+   *
+   * @param events - The events to add, in publication order.
+   * @param timeout - How long to wait before giving up.
+   * @param unit - The unit of the timeout.
+   * @return - true if the events were added, false if the timeout elapsed first.
+   */
+  boolean offerAll(List<ChampEvent> events, long timeout, TimeUnit unit) throws InterruptedException;
+
+  /**
+   * Reserves room for a batch of the specified size, without waiting, so that the batch can
+   * be added later without any chance of it being refused.  Reserved room counts against the
+   * capacity of the queue until the claim is used or released.
+   *
+   * @param count - The size of the batch.
+   * @return - A claim on the room, or null if the queue does not have room for the batch.
+   */
+  Claim tryClaim(int count);
+
+  /**
+   * Removes the next event, waiting up to the specified time for one to become available.
+   *
+   * @return - The next event, or null if the timeout elapsed first.
+   */
+  ChampEvent poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+  /**
+   * Removes up to maxEvents available events, without waiting, and adds them to the target.
+   *
+   * @return - The number of events transferred.
+   */
+  int drainTo(Collection<? super ChampEvent> target, int maxEvents);
+
+  /**
+   * @return - The number of events currently buffered.
+   */
+  int size();
+
+  /**
+   * @return - The number of events that can be added without waiting.
+   */
+  int remainingCapacity();
+
+  /**
+   * Room reserved in the queue by {@link ChampEventQueue#tryClaim(int)}.  A claim must be
+   * either used or released, exactly once.
+   */
+  interface Claim {
+
+    /**
+     * Adds a batch to the reserved room.  Always succeeds.
+     *
+     * @param events - The events to add, in publication order.  Must be the size that was claimed.
+     */
+    void offerAll(List<ChampEvent> events);
+
+    /**
+     * Gives the reserved room back without adding anything.
+     */
+    void release();
+  }
+}
@@ -0,0 +1,46 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.event;
+
+/**
+ * What to do with the events of a committed transaction when the event queue
+ * does not have room for them.
+ */
+public enum ChampEventQueueFullPolicy {
+
+  /** Discard the events and log an error. */
+  DROP,
+
+  /** Wait up to the configured timeout for room in the queue, then discard the events. */
+  BLOCK,
+
+  /** Append the events to a memory mapped spill log on disk, from which they are published once the queue drains. */
+  SPILL,
+
+  /**
+   * Fail the commit of an explicit transaction if its events do not fit in the queue, so that
+   * the caller can retry or roll back.  Room for the events is claimed before the commit, so
+   * the events of a transaction that was committed are always accepted.  Writes made outside
+   * of an explicit transaction have already been committed when their event is produced, so
+   * they cannot be refused: their events are handled as for {@link #BLOCK}.
+   */
+  REJECT
+}
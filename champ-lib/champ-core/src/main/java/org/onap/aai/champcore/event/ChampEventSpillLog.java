@@ -0,0 +1,363 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.event;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Append only, memory mapped log of serialized event envelopes that could not be placed on the
+ * event queue.
+ * <p>
+ * The log is a directory of fixed size segment files, <code>spill-&lt;n&gt;.log</code>.  Each
+ * record is a 4 byte length followed by the UTF-8 encoded message, and a length of -1 marks the
+ * end of a segment.  Segments are memory mapped, so spilled events are held in the page cache
+ * rather than on the heap, and a segment is deleted as soon as every record in it has been read.
+ * <p>
+ * Records are consumed in two steps: {@link #peek(int)} returns a batch from the head of the log
+ * without consuming it, and {@link #acknowledge()} consumes that batch once it has been
+ * delivered.  A batch that could not be delivered is handed back with {@link #release()} and is
+ * returned again by the next peek.  Only one batch may be outstanding at a time.
+ * <p>
+ * The position of the next unacknowledged record is kept in a memory mapped
+ * <code>spill.offset</code> file, so the log survives a restart of the process: records that
+ * were spilled but not acknowledged, including a batch that was being published when the process
+ * died, are replayed once the log is reopened.  Only one log may be open on a directory at a
+ * time.
+ */
+public class ChampEventSpillLog implements Closeable {
+
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private static final String SEGMENT_PREFIX = "spill-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String OFFSET_FILE = "spill.offset";
+  private static final int END_OF_SEGMENT = -1;
+  private static final int OFFSET_FILE_SIZE = Long.BYTES + Integer.BYTES;
+
+  private final File directory;
+  private final int segmentSize;
+
+  private final FileChannel offsetChannel;
+  private final FileLock lock;
+  private final MappedByteBuffer offset;
+
+  private long writeSegment;
+  private MappedByteBuffer writeBuffer;
+
+  private long readSegment;
+  private ByteBuffer readBuffer;
+  private int readPosition;
+
+  /** Whether a peeked batch is waiting to be acknowledged or released, and where it ends. */
+  private boolean batchOutstanding;
+  private long batchEndSegment;
+  private int batchEndPosition;
+
+
+  /**
+   * Opens the spill log in the specified directory, recovering any records that were spilled
+   * but not read before it was last closed.
+   *
+   * @param directory - The directory holding the segment files.  Created if it does not exist.
+   * @param segmentSize - The size of each segment file, in bytes.
+   */
+  public ChampEventSpillLog(File directory, int segmentSize) throws IOException {
+    if(segmentSize <= 2 * Integer.BYTES) {
+      throw new IllegalArgumentException("Invalid spill segment size: " + segmentSize);
+    }
+    if(!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Unable to create spill directory " + directory);
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+
+    offsetChannel = FileChannel.open(new File(directory, OFFSET_FILE).toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    lock = tryLock(offsetChannel);
+    if(lock == null) {
+      offsetChannel.close();
+      throw new IOException("Spill directory " + directory + " is in use");
+    }
+    offset = offsetChannel.map(FileChannel.MapMode.READ_WRITE, 0, OFFSET_FILE_SIZE);
+
+    recover();
+  }
+
+  private static FileLock tryLock(FileChannel channel) throws IOException {
+    try {
+      return channel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      // Already locked by this process.
+      return null;
+    }
+  }
+
+  public File getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Appends a batch of messages to the end of the log.
+   */
+  public synchronized void append(List<String> messages) throws IOException {
+    for(String message : messages) {
+      byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+      if(bytes.length == 0) {
+        continue;
+      }
+
+      int recordSize = Integer.BYTES + bytes.length;
+      if(writeBuffer.remaining() < recordSize) {
+        rollWriteSegment(recordSize);
+      }
+
+      // Write the body before the length, so that a partially written record is never read.
+      int position = writeBuffer.position();
+      ByteBuffer body = writeBuffer.duplicate();
+      body.position(position + Integer.BYTES);
+      body.put(bytes);
+      writeBuffer.putInt(position, bytes.length);
+      writeBuffer.position(position + recordSize);
+    }
+  }
+
+  /**
+   * Removes up to maxMessages messages from the head of the log.
+   *
+   * @return - The messages read, oldest first.  Empty if the log is empty or a peeked batch is
+   *           outstanding.
+   */
+  public synchronized List<String> read(int maxMessages) throws IOException {
+    List<String> messages = peek(maxMessages);
+    acknowledge();
+    return messages;
+  }
+
+  /**
+   * Returns up to maxMessages messages from the head of the log without consuming them.  The
+   * batch must be followed by a call to {@link #acknowledge()} or {@link #release()}.
+   *
+   * @return - The messages, oldest first.  Empty if the log is empty or the previous batch has
+   *           not been acknowledged or released yet.
+   */
+  public synchronized List<String> peek(int maxMessages) throws IOException {
+    List<String> messages = new ArrayList<>();
+    if(batchOutstanding) {
+      return messages;
+    }
+
+    long segment = readSegment;
+    ByteBuffer buffer = readBuffer;
+    int position = readPosition;
+    while(messages.size() < maxMessages) {
+      if(segment == writeSegment) {
+        if(position >= writeBuffer.position()) {
+          break;
+        }
+      } else if(position + Integer.BYTES > buffer.limit() || buffer.getInt(position) <= 0) {
+        segment++;
+        position = 0;
+        buffer = (segment == writeSegment) ? writeBuffer.duplicate() : map(segment, 0);
+        continue;
+      }
+
+      int length = buffer.getInt(position);
+      byte[] bytes = new byte[length];
+      ByteBuffer body = buffer.duplicate();
+      body.position(position + Integer.BYTES);
+      body.get(bytes);
+      messages.add(new String(bytes, StandardCharsets.UTF_8));
+      position += Integer.BYTES + length;
+    }
+
+    if(!messages.isEmpty()) {
+      batchOutstanding = true;
+      batchEndSegment = segment;
+      batchEndPosition = position;
+    }
+    return messages;
+  }
+
+  /**
+   * Consumes the batch returned by the last peek, deleting any segments it emptied.
+   */
+  public synchronized void acknowledge() throws IOException {
+    if(!batchOutstanding) {
+      return;
+    }
+    batchOutstanding = false;
+
+    while(readSegment < batchEndSegment) {
+      openReadSegment(readSegment + 1, true);
+    }
+    readPosition = batchEndPosition;
+
+    // Start a fresh segment once everything has been read, so that the old one can be deleted.
+    if(readSegment == writeSegment && readPosition == writeBuffer.position() && readPosition > 0) {
+      rollWriteSegment(0);
+      openReadSegment(writeSegment, true);
+    }
+
+    saveOffset();
+  }
+
+  /**
+   * Hands back the batch returned by the last peek, so that it is returned again by the next.
+   */
+  public synchronized void release() {
+    batchOutstanding = false;
+  }
+
+  public synchronized boolean isEmpty() {
+    return readSegment == writeSegment && readPosition == writeBuffer.position();
+  }
+
+  /**
+   * Reopens the log where it left off: reading resumes at the saved offset and writing resumes
+   * after the last complete record of the newest segment.
+   */
+  private void recover() throws IOException {
+    TreeSet<Long> segments = new TreeSet<>();
+    File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+    for(File file : files == null ? new File[0] : files) {
+      String name = file.getName();
+      try {
+        segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+      } catch (NumberFormatException e) {
+        // Not one of ours.
+      }
+    }
+
+    if(segments.isEmpty()) {
+      writeSegment = offset.getLong(0);
+      writeBuffer = map(writeSegment, segmentSize);
+      openReadSegment(writeSegment, false);
+      saveOffset();
+      return;
+    }
+
+    // Resume writing after the last complete record of the newest segment.
+    writeSegment = segments.last();
+    writeBuffer = map(writeSegment, 0);
+    int position = 0;
+    boolean sealed = false;
+    while(position + Integer.BYTES <= writeBuffer.limit()) {
+      int length = writeBuffer.getInt(position);
+      if(length == END_OF_SEGMENT) {
+        sealed = true;
+        break;
+      }
+      if(length <= 0 || position + Integer.BYTES + length > writeBuffer.limit()) {
+        break;
+      }
+      position += Integer.BYTES + length;
+    }
+    writeBuffer.position(position);
+
+    // Resume reading at the saved offset.
+    long savedSegment = offset.getLong(0);
+    if(segments.contains(savedSegment)) {
+      openReadSegment(savedSegment, false);
+      readPosition = offset.getInt(Long.BYTES);
+    } else {
+      openReadSegment(segments.first(), false);
+    }
+    if(readSegment == writeSegment) {
+      readPosition = Math.min(readPosition, writeBuffer.position());
+    }
+
+    if(sealed) {
+      rollWriteSegment(0);
+    }
+  }
+
+  /**
+   * Marks the end of the current write segment and starts writing to a new one, large enough
+   * for at least the specified record.
+   */
+  private void rollWriteSegment(int recordSize) throws IOException {
+    if(writeBuffer.remaining() >= Integer.BYTES) {
+      writeBuffer.putInt(writeBuffer.position(), END_OF_SEGMENT);
+    }
+    writeBuffer.force();
+
+    writeSegment++;
+    writeBuffer = map(writeSegment, Math.max(segmentSize, recordSize + Integer.BYTES));
+  }
+
+  /**
+   * Starts reading from the beginning of a segment, optionally deleting the previous one.
+   */
+  private void openReadSegment(long segment, boolean deletePrevious) throws IOException {
+    if(deletePrevious && segment != readSegment) {
+      readBuffer = null;
+      File previous = segmentFile(readSegment);
+      if(!previous.delete()) {
+        throw new IOException("Unable to delete spill segment " + previous);
+      }
+    }
+    readSegment = segment;
+    readPosition = 0;
+    readBuffer = (segment == writeSegment) ? writeBuffer.duplicate() : map(segment, 0);
+  }
+
+  private void saveOffset() {
+    offset.putLong(0, readSegment);
+    offset.putInt(Long.BYTES, readPosition);
+  }
+
+  /**
+   * Maps a segment file, creating it with the specified size if it does not exist yet.
+   */
+  private MappedByteBuffer map(long segment, int size) throws IOException {
+    File file = segmentFile(segment);
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      long length = Math.max(channel.size(), size);
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+    }
+  }
+
+  private File segmentFile(long segment) {
+    return new File(directory, SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    saveOffset();
+    writeBuffer.force();
+    offset.force();
+    lock.release();
+    offsetChannel.close();
+  }
+}
@@ -0,0 +1,339 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock free {@link ChampEventQueue}, backed by a pre-allocated multi-producer, multi-consumer
+ * ring buffer.
+ * <p>
+ * Every slot carries a sequence number that tells producers when the slot is free and consumers
+ * when it has been published.  A producer claims a contiguous range of slots for a whole batch
+ * with a single compare-and-set, and consumers claim every published slot at the head of the
+ * ring with a single compare-and-set in {@link #drainTo}.  Threads that have to wait, for room
+ * or for events, do so according to the configured {@link WaitStrategy}.
+ * <p>
+ * The capacity is rounded up to the next power of two.  As with {@link BlockingChampEventQueue},
+ * a batch that is larger than the whole ring is accepted once the ring is empty; its producer
+ * then publishes it as fast as the consumers free up slots.
+ * <p>
+ * A claim made by {@link #tryClaim(int)} only reserves room in the ring, as a count that
+ * producers take into account alongside the claimed positions.  Its positions are claimed when
+ * the events are offered, so an outstanding claim never holds up the consumers.  Since the
+ * count and the positions are not updated atomically, concurrent producers may occasionally
+ * claim a little more than the ring holds; they then wait for the consumers to free slots, just
+ * as for an oversized batch.
+ */
+public class RingBufferChampEventQueue implements ChampEventQueue {
+
+  /**
+   * How a thread waits for a slot to be freed or published.
+   */
+  public enum WaitStrategy {
+
+    /** Spin continuously.  Lowest latency, but keeps a core busy for every waiting thread. */
+    BUSY_SPIN {
+      @Override
+      void idle(int attempt) {
+        // Keep spinning.
+      }
+    },
+
+    /** Yield the processor between attempts. */
+    YIELDING {
+      @Override
+      void idle(int attempt) {
+        Thread.yield();
+      }
+    },
+
+    /** Yield for a while, then park for short intervals.  Uses little CPU when idle. */
+    SLEEPING {
+      @Override
+      void idle(int attempt) {
+        if(attempt < YIELD_ATTEMPTS) {
+          Thread.yield();
+        } else {
+          LockSupport.parkNanos(PARK_NANOS);
+        }
+      }
+    };
+
+    private static final int YIELD_ATTEMPTS = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    abstract void idle(int attempt);
+  }
+
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<ChampEvent> slots;
+
+  /** Slot i holds sequence p when it is free for position p, and p + 1 once position p has
+   *  been published to it. */
+  private final AtomicLongArray sequences;
+
+  /** Next position to be consumed. */
+  private final AtomicLong head = new AtomicLong();
+
+  /** Next position to be claimed by a producer. */
+  private final AtomicLong tail = new AtomicLong();
+
+  /** Room reserved by claims whose events have not been offered yet. */
+  private final AtomicLong reserved = new AtomicLong();
+
+  private final WaitStrategy waitStrategy;
+
+
+  public RingBufferChampEventQueue(int capacity, WaitStrategy waitStrategy) {
+    if(capacity <= 0 || capacity > (1 << 30)) {
+      throw new IllegalArgumentException("Invalid ring buffer capacity: " + capacity);
+    }
+    this.capacity = nextPowerOfTwo(capacity);
+    this.mask = this.capacity - 1;
+    this.slots = new AtomicReferenceArray<>(this.capacity);
+    this.sequences = new AtomicLongArray(this.capacity);
+    for(int i=0; i<this.capacity; i++) {
+      sequences.set(i, i);
+    }
+    this.waitStrategy = waitStrategy;
+  }
+
+  private static int nextPowerOfTwo(int value) {
+    int highest = Integer.highestOneBit(value);
+    return highest == value ? value : highest << 1;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public boolean offerAll(List<ChampEvent> events) {
+    long position = claim(events.size());
+    if(position < 0) {
+      return false;
+    }
+    publish(position, events);
+    return true;
+  }
+
+  @Override
+  public boolean offerAll(List<ChampEvent> events, long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for(int attempt=0; ; attempt++) {
+      long position = claim(events.size());
+      if(position >= 0) {
+        publish(position, events);
+        return true;
+      }
+      if(Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      if(deadline - System.nanoTime() <= 0) {
+        return false;
+      }
+      waitStrategy.idle(attempt);
+    }
+  }
+
+  @Override
+  public Claim tryClaim(int count) {
+    while(true) {
+      long claimed = reserved.get();
+      if(!fits(tail.get() - head.get() + claimed, claimed, count)) {
+        return null;
+      }
+      if(reserved.compareAndSet(claimed, claimed + count)) {
+        break;
+      }
+    }
+    return new Claim() {
+
+      private boolean done = false;
+
+      @Override
+      public void offerAll(List<ChampEvent> events) {
+        if(events.size() != count) {
+          throw new IllegalArgumentException("Claimed room for " + count + " events, not " + events.size());
+        }
+        finish();
+
+        // Take the positions before giving up the reserved room, so that no other producer can
+        // claim it in between.
+        long position = tail.getAndAdd(count);
+        reserved.addAndGet(-count);
+        publish(position, events);
+      }
+
+      @Override
+      public void release() {
+        finish();
+        reserved.addAndGet(-count);
+      }
+
+      private synchronized void finish() {
+        if(done) {
+          throw new IllegalStateException("Event queue claim has already been used or released");
+        }
+        done = true;
+      }
+    };
+  }
+
+  @Override
+  public ChampEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for(int attempt=0; ; attempt++) {
+      ChampEvent event = take();
+      if(event != null) {
+        return event;
+      }
+      if(Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      if(deadline - System.nanoTime() <= 0) {
+        return null;
+      }
+      waitStrategy.idle(attempt);
+    }
+  }
+
+  @Override
+  public int drainTo(Collection<? super ChampEvent> target, int maxEvents) {
+    int limit = Math.min(maxEvents, capacity);
+    while(true) {
+      long position = head.get();
+
+      // Count the published events at the head of the ring.
+      int available = 0;
+      while(available < limit && sequences.get(index(position + available)) == position + available + 1) {
+        available++;
+      }
+
+      if(available == 0) {
+        if(sequences.get(index(position)) > position + 1) {
+          continue;   // Another consumer moved the head, try again.
+        }
+        return 0;
+      }
+
+      if(head.compareAndSet(position, position + available)) {
+        for(int i=0; i<available; i++) {
+          target.add(consume(position + i));
+        }
+        return available;
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    long size = tail.get() - head.get();
+    return (int) Math.max(0, Math.min(size, Integer.MAX_VALUE));
+  }
+
+  @Override
+  public int remainingCapacity() {
+    long remaining = capacity - size() - reserved.get();
+    return (int) Math.max(0, remaining);
+  }
+
+  /**
+   * Claims positions for a batch of events.
+   *
+   * @return - The first claimed position, or -1 if the ring does not have room for the batch.
+   */
+  private long claim(int count) {
+    while(true) {
+      long position = tail.get();
+      long claimed = reserved.get();
+      if(!fits(position - head.get() + claimed, claimed, count)) {
+        return -1;
+      }
+      if(tail.compareAndSet(position, position + count)) {
+        return position;
+      }
+    }
+  }
+
+  /**
+   * A batch fits if there is room for it, or if it is larger than the whole ring and the ring
+   * is empty and unreserved.
+   */
+  private boolean fits(long used, long claimed, int count) {
+    return used + count <= capacity || (used == 0 && claimed == 0 && count > capacity);
+  }
+
+  /**
+   * Publishes a batch to claimed positions, waiting for each slot to be freed by the consumers.
+   */
+  private void publish(long first, List<ChampEvent> events) {
+    long position = first;
+    for(ChampEvent event : events) {
+      int index = index(position);
+      for(int attempt=0; sequences.get(index) != position; attempt++) {
+        waitStrategy.idle(attempt);
+      }
+      slots.lazySet(index, event);
+      sequences.lazySet(index, position + 1);
+      position++;
+    }
+  }
+
+  /**
+   * Removes the event at the head of the ring, if one has been published.
+   */
+  private ChampEvent take() {
+    while(true) {
+      long position = head.get();
+      long sequence = sequences.get(index(position));
+      if(sequence < position + 1) {
+        return null;
+      }
+      if(sequence == position + 1 && head.compareAndSet(position, position + 1)) {
+        return consume(position);
+      }
+    }
+  }
+
+  /**
+   * Reads the event at a position claimed by a consumer and frees its slot for the next lap.
+   */
+  private ChampEvent consume(long position) {
+    int index = index(position);
+    ChampEvent event = slots.get(index);
+    slots.lazySet(index, null);
+    sequences.lazySet(index, position + capacity);
+    return event;
+  }
+
+  private int index(long position) {
+    return (int) position & mask;
+  }
+}
@@ -0,0 +1,75 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ * ECOMP is a trademark and service mark of AT&T Intellectual Property.
+ */
+package org.onap.aai.champcore.event.envelope;
+
+/**
+ * Wire encodings for event envelopes.  JSON envelopes are sent as is, while SMILE envelopes
+ * are binary JSON encoded as base64 text, since the event bus clients only send strings.  A
+ * binary envelope names its encoding in the content-encoding field of its header.
+ */
+public enum ChampEventEncoding {
+
+    JSON("json"),
+    SMILE("smile");
+
+    /** Base64 form of the ":)\n" signature that starts every Smile document. */
+    private static final String SMILE_SIGNATURE_BASE64 = "OikK";
+
+    private final String name;
+
+    ChampEventEncoding(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Looks up an encoding by name, ignoring case.  A null or empty name means JSON.
+     *
+     * @param name the encoding name, as found in an envelope header.
+     * @return the named encoding.
+     * @throws IllegalArgumentException if the encoding is not supported.
+     */
+    public static ChampEventEncoding fromName(String name) {
+        if (name == null || name.isEmpty()) {
+            return JSON;
+        }
+        for (ChampEventEncoding encoding : values()) {
+            if (encoding.name.equalsIgnoreCase(name)) {
+                return encoding;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported event encoding: " + name);
+    }
+
+    /**
+     * Works out how a message read from the event bus is encoded.
+     *
+     * @param message an encoded envelope.
+     * @return SMILE if the message is a base64 encoded Smile document, otherwise JSON.
+     */
+    public static ChampEventEncoding detect(String message) {
+        return message != null && message.startsWith(SMILE_SIGNATURE_BASE64) ? SMILE : JSON;
+    }
+}
@@ -21,13 +21,23 @@
  */
 package org.onap.aai.champcore.event.envelope;
 
+import java.util.Base64;
 import org.onap.aai.champcore.event.ChampEvent;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 public class ChampEventEnvelope {
 
+    /** Writers are immutable and thread safe, so one pre-configured instance is shared. */
+    private static final ObjectWriter writer =
+            new ObjectMapper().setSerializationInclusion(Include.NON_NULL).writer();
+
+    private static final ObjectWriter smileWriter =
+            new ObjectMapper(new SmileFactory()).setSerializationInclusion(Include.NON_NULL).writer();
+
     private ChampEventHeader header;
     private ChampEvent body;
 
@@ -64,11 +74,29 @@ public class ChampEventEnvelope {
      * @return - A JSON format string representation of this Vertex.
      */
     public String toJson() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setSerializationInclusion(Include.NON_NULL);
+        try {
+            return writer.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            return "Unmarshallable: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Serializes this envelope for the event bus using the given encoding.  A binary encoding
+     * is recorded in the content-encoding field of the header so that consumers know how to
+     * read the body.
+     *
+     * @param encoding the wire encoding to use.
+     * @return the encoded envelope.
+     */
+    public String encode(ChampEventEncoding encoding) {
+        if (encoding != ChampEventEncoding.SMILE) {
+            return toJson();
+        }
 
+        header.setContentEncoding(encoding.getName());
         try {
-            return mapper.writeValueAsString(this);
+            return Base64.getEncoder().encodeToString(smileWriter.writeValueAsBytes(this));
         } catch (JsonProcessingException e) {
             return "Unmarshallable: " + e.getMessage();
         }
@@ -31,11 +31,15 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 public class ChampEventHeader {
 
     private static final String SOURCE_NAME = "CHAMP";
 
+    private static final ObjectWriter writer =
+            new ObjectMapper().setSerializationInclusion(Include.NON_NULL).writer();
+
     public enum EventType {
         UPDATE_RESULT("update-result"),
         UPDATE_NOTIFICATION("update-notification-raw");
@@ -71,6 +75,9 @@ public class ChampEventHeader {
     @JsonProperty("entity-link")
     private String entityLink;
 
+    @JsonProperty("content-encoding")
+    private String contentEncoding;
+
     public static class Builder {
 
         private final EventType eventType;
@@ -79,6 +86,7 @@ public class ChampEventHeader {
         private String validationEntityType;
         private String validationTopEntityType;
         private String entityLink;
+        private String contentEncoding;
 
         public Builder(EventType eventType) {
             this.eventType = eventType;
@@ -104,6 +112,11 @@ public class ChampEventHeader {
             return this;
         }
 
+        public Builder contentEncoding(String val) {
+            contentEncoding = val;
+            return this;
+        }
+
         public ChampEventHeader build() {
             return new ChampEventHeader(this);
         }
@@ -118,6 +131,7 @@ public class ChampEventHeader {
         validationEntityType = builder.validationEntityType;
         validationTopEntityType = builder.validationTopEntityType;
         entityLink = builder.entityLink;
+        contentEncoding = builder.contentEncoding;
     }
 
     /**
@@ -126,11 +140,8 @@ public class ChampEventHeader {
      * @return a JSON format string representation of this object.
      */
     public String toJson() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setSerializationInclusion(Include.NON_NULL);
-
         try {
-            return mapper.writeValueAsString(this);
+            return writer.writeValueAsString(this);
         } catch (JsonProcessingException e) {
             return "Unmarshallable: " + e.getMessage();
         }
@@ -196,6 +207,14 @@ public class ChampEventHeader {
         this.entityLink = entityLink;
     }
 
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public void setContentEncoding(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // OVERRIDES
     ///////////////////////////////////////////////////////////////////////////
@@ -208,7 +227,7 @@ public class ChampEventHeader {
     @Override
     public int hashCode() {
         return Objects.hash(this.requestId, this.timestamp, this.sourceName, this.eventType, this.validationEntityType,
-                this.validationTopEntityType, this.entityLink);
+                this.validationTopEntityType, this.entityLink, this.contentEncoding);
     }
 
     /*
@@ -233,6 +252,7 @@ public class ChampEventHeader {
                   .append(validationEntityType, rhs.validationEntityType)
                   .append(validationTopEntityType, rhs.validationTopEntityType)
                   .append(entityLink, rhs.entityLink)
+                  .append(contentEncoding, rhs.contentEncoding)
                   .isEquals();
      // @formatter:on
     }
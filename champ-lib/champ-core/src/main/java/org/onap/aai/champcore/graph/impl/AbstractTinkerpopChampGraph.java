@@ -21,7 +21,10 @@
 package org.onap.aai.champcore.graph.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -50,10 +53,12 @@ import org.onap.aai.champcore.exceptions.ChampRelationshipNotExistsException;
 import org.onap.aai.champcore.exceptions.ChampSchemaViolationException;
 import org.onap.aai.champcore.exceptions.ChampTransactionException;
 import org.onap.aai.champcore.exceptions.ChampUnmarshallingException;
+import org.onap.aai.champcore.model.ChampDirection;
 import org.onap.aai.champcore.model.ChampObject;
 import org.onap.aai.champcore.model.ChampPartition;
 import org.onap.aai.champcore.model.ChampRelationship;
 import org.onap.aai.champcore.model.ChampSchema;
+import org.onap.aai.champcore.model.ChampTraversal;
 import org.onap.aai.champcore.model.fluent.partition.CreateChampPartitionable;
 import org.onap.aai.champcore.transform.TinkerpopChampformer;
 import org.onap.aai.cl.api.Logger;
@@ -68,15 +73,61 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	private static final TinkerpopChampformer TINKERPOP_CHAMPFORMER = new TinkerpopChampformer();
 	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+	/**
+	 * When set to true, storing a relationship also rewrites every property of its (already
+	 * existing) source and target objects, as older releases did.  By default the endpoints
+	 * are only looked up by key.
+	 */
+	public static final String  PARAM_UPSERT_RELATIONSHIP_ENDPOINTS = "champcore.relationship.upsert-endpoints";
+	public static final Boolean DEFAULT_UPSERT_RELATIONSHIP_ENDPOINTS = false;
+
+	/**
+	 * When set to true, the transactions automatically opened for non-transactional writes
+	 * are coalesced into shared backend commits.  See {@link GroupCommitCoordinator}.
+	 */
+	public static final String  PARAM_GROUP_COMMIT_ENABLED = "champcore.transaction.group-commit.enabled";
+	public static final Boolean DEFAULT_GROUP_COMMIT_ENABLED = false;
+	public static final String  PARAM_GROUP_COMMIT_WINDOW_MS = "champcore.transaction.group-commit.window-ms";
+	public static final Long    DEFAULT_GROUP_COMMIT_WINDOW_MS = 5L;
+	public static final String  PARAM_GROUP_COMMIT_MAX_SIZE = "champcore.transaction.group-commit.max-size";
+	public static final Integer DEFAULT_GROUP_COMMIT_MAX_SIZE = 64;
+	public static final String  PARAM_GROUP_COMMIT_MAX_WAIT_MS = "champcore.transaction.group-commit.max-wait-ms";
+	public static final Long    DEFAULT_GROUP_COMMIT_MAX_WAIT_MS = 30000L;
+
+	/**
+	 * A {@link CommitRetryPolicy} instance to use for this graph's transactions.  If not
+	 * supplied, one is built from the {@code champcore.transaction.retry.*} properties.
+	 */
+	public static final String  PARAM_COMMIT_RETRY_POLICY = "champcore.transaction.retry-policy";
+
 	private volatile AtomicBoolean isShutdown;
+	private final CommitRetryPolicy commitRetryPolicy;
+	private final boolean upsertRelationshipEndpoints;
+	private final boolean groupCommitEnabled;
+	private final long groupCommitWindowMs;
+	private final int groupCommitMaxSize;
+	private final long groupCommitMaxWaitMs;
+	private volatile GroupCommitCoordinator groupCommit;
 
 	protected AbstractTinkerpopChampGraph(Map<String, Object> properties) {
 	  super(properties);
 	  
 	  isShutdown = new AtomicBoolean(false);
+	  upsertRelationshipEndpoints = Boolean.parseBoolean(getProperty(properties, PARAM_UPSERT_RELATIONSHIP_ENDPOINTS, DEFAULT_UPSERT_RELATIONSHIP_ENDPOINTS).toString());
+	  commitRetryPolicy = properties.get(PARAM_COMMIT_RETRY_POLICY) instanceof CommitRetryPolicy
+	      ? (CommitRetryPolicy) properties.get(PARAM_COMMIT_RETRY_POLICY)
+	      : CommitRetryPolicy.fromProperties(properties);
+	  groupCommitEnabled = Boolean.parseBoolean(getProperty(properties, PARAM_GROUP_COMMIT_ENABLED, DEFAULT_GROUP_COMMIT_ENABLED).toString());
+	  groupCommitWindowMs = Long.parseLong(getProperty(properties, PARAM_GROUP_COMMIT_WINDOW_MS, DEFAULT_GROUP_COMMIT_WINDOW_MS).toString());
+	  groupCommitMaxSize = Integer.parseInt(getProperty(properties, PARAM_GROUP_COMMIT_MAX_SIZE, DEFAULT_GROUP_COMMIT_MAX_SIZE).toString());
+	  groupCommitMaxWaitMs = Long.parseLong(getProperty(properties, PARAM_GROUP_COMMIT_MAX_WAIT_MS, DEFAULT_GROUP_COMMIT_MAX_WAIT_MS).toString());
       Runtime.getRuntime().addShutdownHook(shutdownHook);
 	}
 	
+	private static Object getProperty(Map<String, Object> properties, String property, Object defaultValue) {
+		return properties.containsKey(property) ? properties.get(property) : defaultValue;
+	}
+
 	private static final TinkerpopChampformer getChampformer() {
 		return TINKERPOP_CHAMPFORMER;
 	}
@@ -89,7 +140,7 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	
 	public ChampTransaction openTransaction() {
 	  
-	  return new TinkerpopTransaction(getGraph());
+	  return new TinkerpopTransaction(getGraph(), commitRetryPolicy);
 	}	  
 	
 	private Vertex writeVertex(ChampObject object, ChampTransaction transaction) throws ChampObjectNotExistsException, ChampMarshallingException {
@@ -108,18 +159,7 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 		}
 
 		for (Entry<String, Object> property : object.getProperties().entrySet()) {
-
-			if (property.getValue() instanceof List) {
-				for (Object subPropertyValue : (List<?>) property.getValue()) {
-					vertex.property(VertexProperty.Cardinality.list, property.getKey(), subPropertyValue);
-				}
-			} else if (property.getValue() instanceof Set) {
-				for (Object subPropertyValue : (Set<?>) property.getValue()) {
-					vertex.property(VertexProperty.Cardinality.set, property.getKey(), subPropertyValue);
-				}
-			} else {
-				vertex.property(property.getKey(), property.getValue());
-			}
+			writeVertexProperty(vertex, property.getKey(), property.getValue());
 		}
 
 		return vertex;
@@ -140,34 +180,113 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 			throw new ChampObjectNotExistsException();
 		}
 
-		//clear all the existing properties
-		Iterator<VertexProperty<Object>> it = vertex.properties();
+		// Only touch the properties which were added, changed or removed, rather than
+		// rewriting every property (and every index entry) of the vertex.
+		final Map<String, List<VertexProperty<Object>>> existingProperties = new HashMap<>();
+		final Iterator<VertexProperty<Object>> it = vertex.properties();
 		while (it.hasNext()) {
-			it.next().remove();
+			final VertexProperty<Object> existing = it.next();
+			existingProperties.computeIfAbsent(existing.key(), k -> new ArrayList<>()).add(existing);
 		}
-		
+
 		for (Entry<String, Object> property : object.getProperties().entrySet()) {
+			final List<VertexProperty<Object>> existing = existingProperties.remove(property.getKey());
 
-			if (property.getValue() instanceof List) {
-				for (Object subPropertyValue : (List<?>) property.getValue()) {
-					vertex.property(VertexProperty.Cardinality.list, property.getKey(), subPropertyValue);
-				}
-			} else if (property.getValue() instanceof Set) {
-				for (Object subPropertyValue : (Set<?>) property.getValue()) {
-					vertex.property(VertexProperty.Cardinality.set, property.getKey(), subPropertyValue);
+			if (existing != null) {
+				if (isUnchanged(existing, property.getValue())) {
+					continue;
 				}
-			} else {
-				vertex.property(property.getKey(), property.getValue());				
+
+				existing.forEach(VertexProperty::remove);
 			}
+
+			writeVertexProperty(vertex, property.getKey(), property.getValue());
+		}
+
+		// Whatever is left over was not supplied in the replacement object.
+		for (List<VertexProperty<Object>> removed : existingProperties.values()) {
+			removed.forEach(VertexProperty::remove);
 		}
 
 		return vertex;
 	}
 
+	private ChampObject patchVertex(ChampObject object, ChampTransaction transaction) throws ChampObjectNotExistsException, ChampMarshallingException, ChampUnmarshallingException, ChampSchemaViolationException {
+		final Vertex vertex;
+		
+		Graph graphInstance = ((TinkerpopTransaction)transaction).getGraphInstance();
+		
+		if (object.getKey().isPresent()) {
+			final Iterator<Vertex> vertexIter = graphInstance.vertices(object.getKey().get());
+
+			if (vertexIter.hasNext()) {
+				vertex = vertexIter.next();
+			} else throw new ChampObjectNotExistsException();
+		} else {
+			throw new ChampObjectNotExistsException();
+		}
+
+		// Validate the object as it will look once patched, before anything is written.
+		final ChampObject patched = new ChampObject.Builder(getChampformer().unmarshallObject(vertex))
+											.properties(object.getProperties())
+											.build();
+		validate(patched);
+
+		for (Entry<String, Object> property : object.getProperties().entrySet()) {
+			final List<VertexProperty<Object>> existing = new ArrayList<>();
+			vertex.<Object>properties(property.getKey()).forEachRemaining(existing::add);
+
+			if (!existing.isEmpty()) {
+				if (isUnchanged(existing, property.getValue())) {
+					continue;
+				}
+
+				existing.forEach(VertexProperty::remove);
+			}
+
+			writeVertexProperty(vertex, property.getKey(), property.getValue());
+		}
+
+		return patched;
+	}
+
+	private void writeVertexProperty(Vertex vertex, String key, Object value) {
+		if (value instanceof List) {
+			for (Object subPropertyValue : (List<?>) value) {
+				vertex.property(VertexProperty.Cardinality.list, key, subPropertyValue);
+			}
+		} else if (value instanceof Set) {
+			for (Object subPropertyValue : (Set<?>) value) {
+				vertex.property(VertexProperty.Cardinality.set, key, subPropertyValue);
+			}
+		} else {
+			vertex.property(key, value);
+		}
+	}
+
+	/**
+	 * Checks whether the values currently stored for a vertex property key are the same as
+	 * the value supplied for that key, in which case the property does not need rewriting.
+	 */
+	private boolean isUnchanged(List<VertexProperty<Object>> existing, Object value) {
+		final List<Object> existingValues = new ArrayList<>(existing.size());
+		for (VertexProperty<Object> property : existing) {
+			existingValues.add(property.value());
+		}
+
+		if (value instanceof List) {
+			return existingValues.equals(value);
+		} else if (value instanceof Set) {
+			return existingValues.size() == ((Set<?>) value).size() && new HashSet<>(existingValues).equals(value);
+		} else {
+			return existingValues.size() == 1 && existingValues.get(0).equals(value);
+		}
+	}
+
 	private Edge writeEdge(ChampRelationship relationship, ChampTransaction transaction) throws ChampObjectNotExistsException, ChampRelationshipNotExistsException, ChampMarshallingException {
 
-		final Vertex source = writeVertex(relationship.getSource(), transaction);
-		final Vertex target = writeVertex(relationship.getTarget(), transaction);
+		final Vertex source = resolveEndpoint(relationship.getSource(), transaction);
+		final Vertex target = resolveEndpoint(relationship.getTarget(), transaction);
 		final Edge edge;
 
 		Graph graphInstance = ((TinkerpopTransaction)transaction).getGraphInstance();
@@ -189,6 +308,25 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 		return edge;
 	}
 	
+	/**
+	 * Finds the vertex for one end of a relationship.  Endpoints which already have a key are
+	 * only looked up, so creating an edge does not rewrite the properties (and index entries)
+	 * of both of its vertices, unless {@link #PARAM_UPSERT_RELATIONSHIP_ENDPOINTS} is set.
+	 * Endpoints without a key are created.
+	 */
+	private Vertex resolveEndpoint(ChampObject endpoint, ChampTransaction transaction) throws ChampObjectNotExistsException, ChampMarshallingException {
+		if (upsertRelationshipEndpoints || !endpoint.getKey().isPresent()) {
+			return writeVertex(endpoint, transaction);
+		}
+
+		Graph graphInstance = ((TinkerpopTransaction)transaction).getGraphInstance();
+		final Iterator<Vertex> vertexIter = graphInstance.vertices(endpoint.getKey().get());
+
+		if (vertexIter.hasNext()) {
+			return vertexIter.next();
+		} else throw new ChampObjectNotExistsException();
+	}
+
 	private Edge replaceEdge(ChampRelationship relationship, ChampTransaction tx) throws  ChampRelationshipNotExistsException, ChampMarshallingException {
 		final Edge edge;
 		Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
@@ -214,20 +352,67 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 			throw new ChampRelationshipNotExistsException();
 		}
 		
-		// clear all the existing properties
-		Iterator<Property<Object>> it = edge.properties();
+		// Only touch the properties which were added, changed or removed, rather than
+		// rewriting every property of the edge.
+		final Map<String, Property<Object>> existingProperties = new HashMap<>();
+		final Iterator<Property<Object>> it = edge.properties();
 		while (it.hasNext()) {
-			it.next().remove();
+			final Property<Object> existing = it.next();
+			existingProperties.put(existing.key(), existing);
 		}
-				
+
 		for (Entry<String, Object> property : relationship.getProperties().entrySet()) {
-			edge.property(property.getKey(), property.getValue());
+			final Property<Object> existing = existingProperties.remove(property.getKey());
+
+			if (existing == null || !existing.value().equals(property.getValue())) {
+				edge.property(property.getKey(), property.getValue());
+			}
+		}
+
+		// Whatever is left over was not supplied in the replacement relationship.
+		for (Property<Object> removed : existingProperties.values()) {
+			removed.remove();
 		}
 
 		return edge;
 	}
 
 
+	private ChampRelationship patchEdge(ChampRelationship relationship, ChampTransaction tx) throws ChampRelationshipNotExistsException, ChampUnmarshallingException, ChampSchemaViolationException {
+		final Edge edge;
+		Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
+
+		if (relationship.getKey().isPresent()) {
+			final Iterator<Edge> edgeIter = graphInstance.edges(relationship.getKey().get());
+
+			if (edgeIter.hasNext()) {
+				edge = edgeIter.next();
+			} else throw new ChampRelationshipNotExistsException();
+		} else {
+			throw new ChampRelationshipNotExistsException();
+		}
+
+		// Validate the relationship as it will look once patched, before anything is written.
+		// A patch never changes the endpoints, so they are not validated again and are read
+		// with only their keys and types.
+		final ChampRelationship patched = new ChampRelationship.Builder(getChampformer().unmarshallRelationship(edge, Collections.emptySet()))
+													.key(edge.id())
+													.properties(relationship.getProperties())
+													.build();
+		validateWithoutEndpoints(patched);
+
+		for (Entry<String, Object> property : relationship.getProperties().entrySet()) {
+			final Property<Object> existing = edge.property(property.getKey());
+
+			if (!existing.isPresent() || !existing.value().equals(property.getValue())) {
+				edge.property(property.getKey(), property.getValue());
+			}
+		}
+
+		// Callers get the relationship with its full endpoints, as for every other write.
+		return getChampformer().unmarshallRelationship(edge);
+	}
+
 	protected abstract Graph getGraph();
 
 	
@@ -243,6 +428,14 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 		}
 	};
 
+	/**
+	 * @return - The policy deciding whether failed commits and rollbacks of this graph's
+	 *           transactions are retried.
+	 */
+	protected CommitRetryPolicy getCommitRetryPolicy() {
+		return commitRetryPolicy;
+	}
+
 	protected boolean isShutdown() {
 		return isShutdown.get();
 	}
@@ -255,18 +448,35 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	
 	@Override
 	public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException {
+	  return queryObjects(queryParams, 0, -1, transaction);
+	}
+
+	@Override
+	public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, long offset, long limit) throws ChampTransactionException {
+	  return queryObjects(queryParams, offset, limit, Optional.empty());
+	}
+
+	@Override
+	public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException {
+	  return queryObjects(queryParams, Optional.empty(), offset, limit, transaction);
+	}
+
+	@Override
+	public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, Set<String> propertyKeys, long offset, long limit) throws ChampTransactionException {
+	  return queryObjects(queryParams, propertyKeys, offset, limit, Optional.empty());
+	}
+
+	@Override
+	public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, Set<String> propertyKeys, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException {
+	  return queryObjects(queryParams, Optional.of(propertyKeys), offset, limit, transaction);
+	}
+
+	private Stream<ChampObject> queryObjects(Map<String, Object> queryParams, Optional<Set<String>> propertyKeys, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException {
 	  
 	  if (isShutdown()) {
 	    throw new IllegalStateException("Cannot use ChampAPI after calling shutdown()");
 	  }
 	
-	  // If we were not provided a transaction object then automatically open a transaction
-      // now.
-      final ChampTransaction tx = getOrCreateTransactionInstance(transaction);
-      
-      // Use the graph instance associated with our transaction.
-      Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
-      
       //If they provided the object key, do this the quick way rather than creating a traversal
       if (queryParams.containsKey(ChampObject.ReservedPropertyKeys.CHAMP_OBJECT_KEY.toString())) {
         
@@ -276,7 +486,10 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
                              transaction);
 			
           if (object.isPresent()) {
-            return Stream.of(object.get());
+            if (propertyKeys.isPresent()) {
+              object.get().dropProperties(new HashSet<>(propertyKeys.get()));
+            }
+            return Stream.of(object.get()).skip(offset).limit(limit < 0 ? Long.MAX_VALUE : limit);
           } else {
             return Stream.empty();
           }
@@ -287,19 +500,18 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
         }
       }
 
-      final GraphTraversal<Vertex, Vertex> query = graphInstance.traversal().V();
+      // If we were not provided a transaction object then automatically open a transaction
+      // now.
+      final ChampTransaction tx = getOrCreateReadTransactionInstance(transaction);
+      
+      // Use the graph instance associated with our transaction.
+      Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
 
-      for (Entry<String, Object> filter : queryParams.entrySet()) {      
-        if (filter.getKey().equals(ChampObject.ReservedPropertyKeys.CHAMP_OBJECT_TYPE.toString())) {
-          continue; //For performance reasons, the label is the last thing to be added
-        } else {
-          query.has(filter.getKey(), filter.getValue());
-        }
-      }
+      final GraphTraversal<Vertex, Vertex> query = buildObjectQuery(graphInstance, queryParams);
 
-      if (queryParams.containsKey(ChampObject.ReservedPropertyKeys.CHAMP_OBJECT_TYPE.toString())) {
-    	  hasLabel(query, queryParams.get(ChampObject.ReservedPropertyKeys.CHAMP_OBJECT_TYPE.toString()));
-      }
+      // Push paging down into the traversal so that only the requested window is ever
+      // pulled from the backend.
+      applyRange(query, offset, limit);
 
       final Iterator<ChampObject> objIter = new Iterator<ChampObject> () {
 	
@@ -310,7 +522,13 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
           public boolean hasNext() {
             while (query.hasNext()) {
               try {
-                next = getChampformer().unmarshallObject(query.next());
+                // Only read the requested properties from the backend when a projection
+                // was supplied, rather than copying every property of a wide vertex.
+                if (propertyKeys.isPresent()) {
+                  next = getChampformer().unmarshallObject(query.next(), propertyKeys.get());
+                } else {
+                  next = getChampformer().unmarshallObject(query.next());
+                }
                 return true;
               } catch (ChampUnmarshallingException e) {
                 LOGGER.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_TINKERPOP_CHAMP_GRAPH_WARN, 
@@ -322,8 +540,8 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
             // caller to decide when and if to do the commit.
             if(!transaction.isPresent()) {
               try {
-                tx.commit(); //Danger ahead if this iterator is not completely consumed
-                             //then the transaction cache will hold stale values
+                tx.commit(); //Releases our read-only transaction.  If the stream is
+                             //abandoned before this point, closing it does so instead.
               } catch (ChampTransactionException e) {
                 LOGGER.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_TINKERPOP_CHAMP_GRAPH_WARN, 
                     "Failed transaction commit due to: " + e.getMessage());
@@ -347,9 +565,47 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 
       return StreamSupport.stream(Spliterators.spliteratorUnknownSize(objIter, 
                                                                       Spliterator.ORDERED | Spliterator.NONNULL), 
-                                                                      false);
+                                                                      false)
+                          .onClose(() -> closeStream(query, tx, transaction));
     }
 
+    @Override
+    public long countObjects(Map<String, Object> queryParams) throws ChampTransactionException {
+      return countObjects(queryParams, Optional.empty());
+    }
+
+	@Override
+	public long countObjects(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException {
+
+	  if (isShutdown()) {
+	    throw new IllegalStateException("Cannot use ChampAPI after calling shutdown()");
+	  }
+
+	  // If we were not provided a transaction object then automatically open a transaction
+	  // now.
+	  final ChampTransaction tx = getOrCreateReadTransactionInstance(transaction);
+
+	  // Use the graph instance associated with our transaction.
+	  Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
+
+	  final long count;
+
+	  if (queryParams.containsKey(ChampObject.ReservedPropertyKeys.CHAMP_OBJECT_KEY.toString())) {
+	    count = graphInstance.vertices(queryParams.get(ChampObject.ReservedPropertyKeys.CHAMP_OBJECT_KEY.toString())).hasNext() ? 1 : 0;
+	  } else {
+	    // The count is evaluated by the backend, so no vertices are unmarshalled.
+	    count = buildObjectQuery(graphInstance, queryParams).count().next();
+	  }
+
+	  // If we auto-created the transaction, then commit it now, otherwise it is up to the
+	  // caller to decide when and if to do the commit.
+	  if(!transaction.isPresent()) {
+	    tx.commit();
+	  }
+
+	  return count;
+	}
+
     @Override
     public Optional<ChampObject> retrieveObject(Object key) throws ChampUnmarshallingException, ChampTransactionException {
       return retrieveObject(key, Optional.empty());
@@ -364,7 +620,7 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	  
 	  // If we were not provided a transaction object then automatically open a transaction
       // now.
-      ChampTransaction tx = getOrCreateTransactionInstance(transaction);
+      ChampTransaction tx = getOrCreateReadTransactionInstance(transaction);
 	  
 	  // Use the graph instance associated with our transaction.
 	  Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
@@ -388,6 +644,45 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	  return optionalObject;
 	}
 
+    @Override
+    public Optional<ChampObject> retrieveObjectByProperty(String propertyName, Object value) throws ChampUnmarshallingException, ChampTransactionException {
+      return retrieveObjectByProperty(propertyName, value, Optional.empty());
+    }
+
+	@Override
+	public Optional<ChampObject> retrieveObjectByProperty(String propertyName, Object value, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampTransactionException {
+
+	  if (isShutdown()) {
+	    throw new IllegalStateException("Cannot use ChampAPI after calling shutdown()");
+	  }
+
+	  // If we were not provided a transaction object then automatically open a transaction
+	  // now.
+	  ChampTransaction tx = getOrCreateReadTransactionInstance(transaction);
+
+	  // Use the graph instance associated with our transaction.
+	  Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
+
+	  // A single has() step lets the backend answer this from its composite index, and
+	  // limit(1) stops the traversal as soon as the first match is found.
+	  final GraphTraversal<Vertex, Vertex> query = graphInstance.traversal().V().has(propertyName, value).limit(1);
+	  final Optional<ChampObject> optionalObject;
+
+	  if (!query.hasNext()) {
+	    optionalObject = Optional.empty();
+	  } else {
+	    optionalObject = Optional.of(getChampformer().unmarshallObject(query.next()));
+	  }
+
+	  // If we auto-created the transaction, then commit it now, otherwise it is up to the
+	  // caller to decide when and if to do the commit.
+	  if(!transaction.isPresent()) {
+	    tx.commit();
+	  }
+
+	  return optionalObject;
+	}
+
     @Override
     public Stream<ChampRelationship> retrieveRelationships(ChampObject source) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException {
       return retrieveRelationships(source, Optional.empty());
@@ -395,6 +690,30 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
     
 	@Override
 	public Stream<ChampRelationship> retrieveRelationships(ChampObject source, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException {
+	  return retrieveRelationships(source, ChampDirection.BOTH, Collections.emptySet(), Collections.emptyMap(), Optional.empty(), transaction);
+	}
+
+	@Override
+	public Stream<ChampRelationship> retrieveRelationships(ChampObject source, ChampDirection direction, Set<String> types, Map<String, Object> queryParams) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException {
+	  return retrieveRelationships(source, direction, types, queryParams, Optional.empty());
+	}
+
+	@Override
+	public Stream<ChampRelationship> retrieveRelationships(ChampObject source, ChampDirection direction, Set<String> types, Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException {
+	  return retrieveRelationships(source, direction, types, queryParams, Optional.empty(), transaction);
+	}
+
+	@Override
+	public Stream<ChampRelationship> retrieveRelationships(ChampObject source, Set<String> endpointPropertyKeys) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException {
+	  return retrieveRelationships(source, endpointPropertyKeys, Optional.empty());
+	}
+
+	@Override
+	public Stream<ChampRelationship> retrieveRelationships(ChampObject source, Set<String> endpointPropertyKeys, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException {
+	  return retrieveRelationships(source, ChampDirection.BOTH, Collections.emptySet(), Collections.emptyMap(), Optional.of(endpointPropertyKeys), transaction);
+	}
+
+	private Stream<ChampRelationship> retrieveRelationships(ChampObject source, ChampDirection direction, Set<String> types, Map<String, Object> queryParams, Optional<Set<String>> endpointPropertyKeys, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampObjectNotExistsException, ChampTransactionException {
 	    
 	  if (isShutdown()) {
 	    throw new IllegalStateException("Cannot use ChampAPI after calling shutdown()");
@@ -402,7 +721,7 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 		
 	  // If we were not provided a transaction object then automatically open a transaction
       // now.
-      final ChampTransaction tx = getOrCreateTransactionInstance(transaction);
+      final ChampTransaction tx = getOrCreateReadTransactionInstance(transaction);
       
       // Use the graph instance associated with our transaction.
       Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
@@ -423,16 +742,33 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 		throw new ChampObjectNotExistsException();
       }
 
-	  final Iterator<Edge> edges = sourceVertex.edges(Direction.BOTH);
+	  final Direction edgeDirection = Direction.valueOf(direction.name());
+	  final String[] labels = types.toArray(new String[types.size()]);
+	  final Iterator<Edge> edges;
+
+	  // Direction and labels are resolved by the vertex-centric edge lookup itself, and any
+	  // property filters are added to the same traversal rather than applied in memory.
+	  if (queryParams.isEmpty()) {
+	    edges = sourceVertex.edges(edgeDirection, labels);
+	  } else {
+	    final GraphTraversal<Vertex, Edge> query = graphInstance.traversal().V(sourceVertex).toE(edgeDirection, labels);
+
+	    for (Entry<String, Object> filter : queryParams.entrySet()) {
+	      query.has(filter.getKey(), filter.getValue());
+	    }
+	    edges = query;
+	  }
+
 	  final Iterator<ChampRelationship> relIter = new Iterator<ChampRelationship> () {
 
 	    private ChampRelationship next;
+	    private final Map<Object, ChampObject> endpointMemo = TinkerpopChampformer.newEndpointMemo();
 
 	    @Override
 	    public boolean hasNext() {
 	      while (edges.hasNext()) {
 	        try {
-	          next = getChampformer().unmarshallRelationship(edges.next());
+	          next = unmarshallRelationship(edges.next(), endpointPropertyKeys, endpointMemo);
 	          return true;
 	        } catch (ChampUnmarshallingException e) {
 	          LOGGER.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_TINKERPOP_CHAMP_GRAPH_WARN, 
@@ -444,8 +780,8 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	      // caller to decide when and if to do the commit.
 	      if(!transaction.isPresent()) {
 	        try {
-            tx.commit();   //Danger ahead if this iterator is not completely
-                           //consumed, then the transaction cache will be stale
+            tx.commit();   //Releases our read-only transaction.  If the stream is
+                           //abandoned before this point, closing it does so instead.
             
           } catch (ChampTransactionException e) {
             LOGGER.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_TINKERPOP_CHAMP_GRAPH_WARN, 
@@ -468,89 +804,116 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	  };
 
 	  return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
-                relIter, Spliterator.ORDERED | Spliterator.NONNULL), false);
+                relIter, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                  .onClose(() -> closeStream(edges, tx, transaction));
 	}
 
 	
 	@Override
     public ChampObject doStoreObject(ChampObject object, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampObjectNotExistsException, ChampTransactionException {
-	      	
-	  ChampTransaction tx = null;
-	  
+
 	  try {
-	    
+
 	    // If we were not provided a transaction object then automatically open a transaction
 	    // now.
-	    tx = getOrCreateTransactionInstance(transaction);
-	    
+	    return storeObject(object, getOrCreateWriteTransactionInstance(transaction), transaction);
+
+	  } catch (GroupCommitCoordinator.WindowAbortedException e) {
+
+	    // Our write was discarded along with the rest of its group commit window, so redo it
+	    // in a transaction of its own.
+	    return storeObject(object, getOrCreateTransactionInstance(transaction), transaction);
+	  }
+	}
+
+	private ChampObject storeObject(ChampObject object, ChampTransaction tx, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampObjectNotExistsException, ChampTransactionException {
+
+	  final Vertex vertex;
+	  try {
+
 	    // Now, store the object that we were supplied.
-	    final Vertex vertex = writeVertex(object, tx);
-	    
-	    // Only auto-commit this operation if we were NOT provided a transaction context, 
-	    // otherwise it is the caller's responsibility to commit the transaction when it
-	    // is appropriate to do so.
-	    if(!transaction.isPresent()) {
-	      tx.commit();
-	    }
-	       
-	    // Marshal the resulting vertex into a ChampObject and return it to the caller.
-	    return ChampObject.create()
-	                           .from(object)
-	                           .withKey(vertex.id())
-	                           .build();
-
-	  } catch (ChampObjectNotExistsException e) {
-	
-        // Something went wrong.  If we auto-created the transaction, then try to roll it back
-	    // now. If we were supplied a transaction context then it is the caller's responsibility 
-	    // to decide whether or not to roll it back.
-	    if(!transaction.isPresent()) {
-	      tx.rollback();
-	    }
-	        
-	    // Rethrow the exception.
+	    vertex = writeVertex(object, tx);
+
+	  } catch (Exception e) {
+	    rollbackIfAutoCreated(tx, transaction);
 	    throw e;
 	  }
+
+	  commitIfAutoCreated(tx, transaction);
+
+	  // Marshal the resulting vertex into a ChampObject and return it to the caller.
+	  return ChampObject.create()
+	                         .from(object)
+	                         .withKey(vertex.id())
+	                         .build();
 	}
-	
+
 	@Override
 	public ChampObject doReplaceObject(ChampObject object, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampObjectNotExistsException, ChampTransactionException {
 
-	  ChampTransaction tx = null;
-	  
 	  try {
-		  
+
 	    // If we were not provided a transaction object then automatically open a transaction
 	    // now.
-	    tx = getOrCreateTransactionInstance(transaction);
-	        
-	    final Vertex vertex = replaceVertex(object, tx);
+	    return replaceObject(object, getOrCreateWriteTransactionInstance(transaction), transaction);
 
-        // Only auto-commit this operation if we were NOT provided a transaction context, 
-        // otherwise it is the caller's responsibility to commit the transaction when it
-        // is appropriate to do so.
-        if(!transaction.isPresent()) {
-          tx.commit();
-        }
-			
-        // Marshal the resulting vertex into a ChampObject and return it to the caller.
-        return ChampObject.create()
-                               .from(object)
-                               .withKey(vertex.id())
-                               .build();
-			
-		} catch (ChampObjectNotExistsException e) {
-		  
-		  // Something went wrong.  If we auto-created the transaction, then try to roll it back
-	      // now. If we were supplied a transaction context then it is the caller's responsibility 
-	      // to decide whether or not to roll it back.
-	      if(!transaction.isPresent()) {
-	        tx.rollback();
-	      }
+	  } catch (GroupCommitCoordinator.WindowAbortedException e) {
 
-	      // Rethrow the exception.
-	      throw e;
-		}
+	    // Our write was discarded along with the rest of its group commit window, so redo it
+	    // in a transaction of its own.
+	    return replaceObject(object, getOrCreateTransactionInstance(transaction), transaction);
+	  }
+	}
+
+	private ChampObject replaceObject(ChampObject object, ChampTransaction tx, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampObjectNotExistsException, ChampTransactionException {
+
+	  final Vertex vertex;
+	  try {
+	    vertex = replaceVertex(object, tx);
+	  } catch (Exception e) {
+	    rollbackIfAutoCreated(tx, transaction);
+	    throw e;
+	  }
+
+	  commitIfAutoCreated(tx, transaction);
+
+	  // Marshal the resulting vertex into a ChampObject and return it to the caller.
+	  return ChampObject.create()
+	                         .from(object)
+	                         .withKey(vertex.id())
+	                         .build();
+	}
+
+	@Override
+	public ChampObject doPatchObject(ChampObject object, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampUnmarshallingException, ChampSchemaViolationException, ChampObjectNotExistsException, ChampTransactionException {
+
+	  try {
+
+	    // If we were not provided a transaction object then automatically open a transaction
+	    // now.
+	    return patchObject(object, getOrCreateWriteTransactionInstance(transaction), transaction);
+
+	  } catch (GroupCommitCoordinator.WindowAbortedException e) {
+
+	    // Our write was discarded along with the rest of its group commit window, so redo it
+	    // in a transaction of its own.
+	    return patchObject(object, getOrCreateTransactionInstance(transaction), transaction);
+	  }
+	}
+
+	private ChampObject patchObject(ChampObject object, ChampTransaction tx, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampUnmarshallingException, ChampSchemaViolationException, ChampObjectNotExistsException, ChampTransactionException {
+
+	  final ChampObject patchedObject;
+	  try {
+	    patchedObject = patchVertex(object, tx);
+	  } catch (Exception e) {
+	    rollbackIfAutoCreated(tx, transaction);
+	    throw e;
+	  }
+
+	  commitIfAutoCreated(tx, transaction);
+
+	  return patchedObject;
 	}
 
 	@Override
@@ -597,40 +960,46 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
                ChampRelationshipNotExistsException, 
                ChampMarshallingException, 
                ChampTransactionException  {
-      
-      // If we were not provided a transaction object then automatically open a transaction
-      // now.
-      ChampTransaction tx = getOrCreateTransactionInstance(transaction);
-      
+
       try {
-        
+
+        // If we were not provided a transaction object then automatically open a transaction
+        // now.
+        return storeRelationship(relationship, getOrCreateWriteTransactionInstance(transaction), transaction);
+
+      } catch (GroupCommitCoordinator.WindowAbortedException e) {
+
+        // Our write was discarded along with the rest of its group commit window, so redo it
+        // in a transaction of its own.
+        return storeRelationship(relationship, getOrCreateTransactionInstance(transaction), transaction);
+      }
+    }
+
+    private ChampRelationship storeRelationship(ChampRelationship relationship, ChampTransaction tx, Optional<ChampTransaction> transaction) 
+        throws ChampUnmarshallingException, 
+               ChampObjectNotExistsException, 
+               ChampRelationshipNotExistsException, 
+               ChampMarshallingException, 
+               ChampTransactionException  {
+
+      final ChampRelationship storedRelationship;
+      try {
+
         // Store the edge in the graph.
         final Edge edge = writeEdge(relationship, tx);
-        
+
         // Unmarshal the stored edge into a ChampRelationship object
-        ChampRelationship storedRelationship = getChampformer().unmarshallRelationship(edge);
-        
-        // If we auto-created the transaction, then commit it now, otherwise it
-        // is up to the caller to decide if and when to commit.
-        if(!transaction.isPresent()) {
-          tx.commit();
-        }
-        
-        // Finally, return the result to the caller.
-        return storedRelationship;
-        
-      } catch (ChampObjectNotExistsException | 
-               ChampRelationshipNotExistsException | 
-               ChampUnmarshallingException | 
-               ChampMarshallingException e) {
-        
-        // If we auto-create the transaction, then try to roll it back, otherwise
-        // it is up to the caller to decide when and if to do so.
-        if(!transaction.isPresent()) {
-          tx.rollback();
-        }
+        storedRelationship = getChampformer().unmarshallRelationship(edge);
+
+      } catch (Exception e) {
+        rollbackIfAutoCreated(tx, transaction);
         throw e;
-      }   
+      }
+
+      commitIfAutoCreated(tx, transaction);
+
+      // Finally, return the result to the caller.
+      return storedRelationship;
     }
     
 	
@@ -641,33 +1010,84 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 			       ChampMarshallingException, 
 			       ChampTransactionException  {
 
-      // If we were not provided a transaction object then automatically open a transaction
-      // now.
-      ChampTransaction tx = getOrCreateTransactionInstance(transaction);
-      
+      try {
+
+        // If we were not provided a transaction object then automatically open a transaction
+        // now.
+        return replaceRelationship(relationship, getOrCreateWriteTransactionInstance(transaction), transaction);
+
+      } catch (GroupCommitCoordinator.WindowAbortedException e) {
+
+        // Our write was discarded along with the rest of its group commit window, so redo it
+        // in a transaction of its own.
+        return replaceRelationship(relationship, getOrCreateTransactionInstance(transaction), transaction);
+      }
+	}
+
+	private ChampRelationship replaceRelationship(ChampRelationship relationship, ChampTransaction tx, Optional<ChampTransaction> transaction)
+			throws ChampUnmarshallingException, 
+			       ChampRelationshipNotExistsException, 
+			       ChampMarshallingException, 
+			       ChampTransactionException  {
+
+      final ChampRelationship unmarshalledRelationship;
       try {
         final Edge edge = replaceEdge(relationship, tx);
 
-		  ChampRelationship unmarshalledRelationship = getChampformer().unmarshallRelationship(edge);
+        unmarshalledRelationship = getChampformer().unmarshallRelationship(edge);
 
-		  // If we auto-created the transaction, then commit it now, otherwise it
-		  // is up to the caller to decide if and when to commit.
-		  if(!transaction.isPresent()) {
-			  tx.commit();
-		  }
+      } catch (Exception e) {
+        rollbackIfAutoCreated(tx, transaction);
+        throw e;
+      }
 
-		  return unmarshalledRelationship;
-			
-      } catch ( ChampRelationshipNotExistsException | ChampUnmarshallingException | ChampMarshallingException e) {
-        
-        // it is up to the caller to decide when and if to do so.
-        if(!transaction.isPresent()) {
-          tx.rollback();
-        }
+      commitIfAutoCreated(tx, transaction);
+
+      return unmarshalledRelationship;
+	}
+
+	@Override
+	public ChampRelationship doPatchRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction)
+			throws ChampUnmarshallingException, 
+			       ChampSchemaViolationException, 
+			       ChampRelationshipNotExistsException, 
+			       ChampMarshallingException, 
+			       ChampTransactionException  {
+
+      try {
+
+        // If we were not provided a transaction object then automatically open a transaction
+        // now.
+        return patchRelationship(relationship, getOrCreateWriteTransactionInstance(transaction), transaction);
+
+      } catch (GroupCommitCoordinator.WindowAbortedException e) {
+
+        // Our write was discarded along with the rest of its group commit window, so redo it
+        // in a transaction of its own.
+        return patchRelationship(relationship, getOrCreateTransactionInstance(transaction), transaction);
+      }
+	}
+
+	private ChampRelationship patchRelationship(ChampRelationship relationship, ChampTransaction tx, Optional<ChampTransaction> transaction)
+			throws ChampUnmarshallingException, 
+			       ChampSchemaViolationException, 
+			       ChampRelationshipNotExistsException, 
+			       ChampMarshallingException, 
+			       ChampTransactionException  {
 
+      final ChampRelationship patchedRelationship;
+      try {
+        patchedRelationship = patchEdge(relationship, tx);
+      } catch (Exception e) {
+        rollbackIfAutoCreated(tx, transaction);
         throw e;
       }
-	}  
+
+      commitIfAutoCreated(tx, transaction);
+
+      return patchedRelationship;
+	}
+
 
 	@Override
     public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams) throws ChampTransactionException {
@@ -676,6 +1096,30 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	   
 	@Override
 	public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException {
+	  return queryRelationships(queryParams, 0, -1, transaction);
+	}
+
+	@Override
+	public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, long offset, long limit) throws ChampTransactionException {
+	  return queryRelationships(queryParams, offset, limit, Optional.empty());
+	}
+
+	@Override
+	public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException {
+	  return queryRelationships(queryParams, Optional.empty(), offset, limit, transaction);
+	}
+
+	@Override
+	public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, Set<String> endpointPropertyKeys, long offset, long limit) throws ChampTransactionException {
+	  return queryRelationships(queryParams, endpointPropertyKeys, offset, limit, Optional.empty());
+	}
+
+	@Override
+	public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, Set<String> endpointPropertyKeys, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException {
+	  return queryRelationships(queryParams, Optional.of(endpointPropertyKeys), offset, limit, transaction);
+	}
+
+	private Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, Optional<Set<String>> endpointPropertyKeys, long offset, long limit, Optional<ChampTransaction> transaction) throws ChampTransactionException {
 	  
 	  if (isShutdown()) {
 	    throw new IllegalStateException("Cannot use ChampAPI after calling shutdown()");
@@ -683,7 +1127,7 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 
       // If we were not provided a transaction object then automatically open a transaction
       // now.
-      final ChampTransaction tx = getOrCreateTransactionInstance(transaction);
+      final ChampTransaction tx = getOrCreateReadTransactionInstance(transaction);
       
       // Use the graph instance associated with our transaction.
       Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
@@ -695,7 +1139,11 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	                                                                            Optional.of(tx));
 			
 	      if (relationship.isPresent()) {
-	        return Stream.of(relationship.get());
+	        if (endpointPropertyKeys.isPresent()) {
+	          relationship.get().getSource().dropProperties(new HashSet<>(endpointPropertyKeys.get()));
+	          relationship.get().getTarget().dropProperties(new HashSet<>(endpointPropertyKeys.get()));
+	        }
+	        return Stream.of(relationship.get()).skip(offset).limit(limit < 0 ? Long.MAX_VALUE : limit);
 	      
 	      } else {
 	        return Stream.empty();
@@ -705,32 +1153,25 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	      LOGGER.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_TINKERPOP_CHAMP_GRAPH_WARN, 
 	          "Failed to unmarshall relationship" + e.getMessage());
 	      return Stream.empty();
+	    } finally {
+	      releaseReadTransaction(tx, transaction);
 	    }
 	  }
 	 
-	  final GraphTraversal<Edge, Edge> query = graphInstance.traversal().E();
-
-	  for (Entry<String, Object> filter : queryParams.entrySet()) {
-	    if (filter.getKey().equals(ChampRelationship.ReservedPropertyKeys.CHAMP_RELATIONSHIP_TYPE.toString())) {
-	      continue; //Add the label last for performance reasons
-	    } else {
-	      query.has(filter.getKey(), filter.getValue());
-	    }
-	  }
+	  final GraphTraversal<Edge, Edge> query = buildRelationshipQuery(graphInstance, queryParams);
 
-	  if (queryParams.containsKey(ChampRelationship.ReservedPropertyKeys.CHAMP_RELATIONSHIP_TYPE.toString())) {
-		  hasLabel(query, queryParams.get(ChampRelationship.ReservedPropertyKeys.CHAMP_RELATIONSHIP_TYPE.toString()));
-	  }
+	  applyRange(query, offset, limit);
 
 	  final Iterator<ChampRelationship> objIter = new Iterator<ChampRelationship> () {
 	
 	    private ChampRelationship next;
+	    private final Map<Object, ChampObject> endpointMemo = TinkerpopChampformer.newEndpointMemo();
 
 	    @Override
 	    public boolean hasNext() {
 	      while (query.hasNext()) {
 	        try {
-	          next = getChampformer().unmarshallRelationship(query.next());
+	          next = unmarshallRelationship(query.next(), endpointPropertyKeys, endpointMemo);
 	          return true;
 	        } catch (ChampUnmarshallingException e) {
 	          LOGGER.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_TINKERPOP_CHAMP_GRAPH_WARN,
@@ -742,8 +1183,8 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	      // is up to the caller to decide if and when to commit.
 	      if(!transaction.isPresent()) {
 	        try { 
-            tx.commit();  //Danger ahead if this iterator is not completely
-                          //consumed, then the transaction cache will be stale
+            tx.commit();  //Releases our read-only transaction.  If the stream is
+                          //abandoned before this point, closing it does so instead.
             
           } catch (ChampTransactionException e) {
             LOGGER.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_TINKERPOP_CHAMP_GRAPH_WARN,
@@ -767,9 +1208,143 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	  };
 
 	  return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
-	            objIter, Spliterator.ORDERED | Spliterator.NONNULL), false);
+	            objIter, Spliterator.ORDERED | Spliterator.NONNULL), false)
+	              .onClose(() -> closeStream(query, tx, transaction));
 	}
 
+    @Override
+    public long countRelationships(Map<String, Object> queryParams) throws ChampTransactionException {
+      return countRelationships(queryParams, Optional.empty());
+    }
+
+    @Override
+    public long countRelationships(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) throws ChampTransactionException {
+
+      if (isShutdown()) {
+        throw new IllegalStateException("Cannot use ChampAPI after calling shutdown()");
+      }
+
+      // If we were not provided a transaction object then automatically open a transaction
+      // now.
+      final ChampTransaction tx = getOrCreateReadTransactionInstance(transaction);
+
+      // Use the graph instance associated with our transaction.
+      Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
+
+      final long count;
+
+      if (queryParams.containsKey(ChampRelationship.ReservedPropertyKeys.CHAMP_RELATIONSHIP_KEY.toString())) {
+        count = graphInstance.edges(queryParams.get(ChampRelationship.ReservedPropertyKeys.CHAMP_RELATIONSHIP_KEY.toString())).hasNext() ? 1 : 0;
+      } else {
+        count = buildRelationshipQuery(graphInstance, queryParams).count().next();
+      }
+
+      // If we auto-created the transaction, then commit it now, otherwise it
+      // is up to the caller to decide if and when to commit.
+      if(!transaction.isPresent()) {
+        tx.commit();
+      }
+
+      return count;
+    }
+
+    @Override
+    public Stream<ChampObject> traverse(ChampTraversal traversal) throws ChampTransactionException {
+      return traverse(traversal, Optional.empty());
+    }
+
+    @Override
+    public Stream<ChampObject> traverse(ChampTraversal traversal, Optional<ChampTransaction> transaction) throws ChampTransactionException {
+
+      if (isShutdown()) {
+        throw new IllegalStateException("Cannot use ChampAPI after calling shutdown()");
+      }
+
+      // If we were not provided a transaction object then automatically open a transaction
+      // now.
+      final ChampTransaction tx = getOrCreateReadTransactionInstance(transaction);
+
+      // Use the graph instance associated with our transaction.
+      Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
+
+      final Map<String, Object> startQueryParams = new HashMap<>(traversal.getStartQueryParams());
+      final Object startKey = startQueryParams.remove(ChampObject.ReservedPropertyKeys.CHAMP_OBJECT_KEY.toString());
+
+      // Build every hop into one traversal so that the backend evaluates the whole path and
+      // only the objects reached by the final step are unmarshalled.
+      final GraphTraversal<Vertex, Vertex> query = filterObjects(startKey == null ? graphInstance.traversal().V()
+                                                                                  : graphInstance.traversal().V(startKey),
+                                                                 startQueryParams);
+
+      for (ChampTraversal.Step step : traversal.getSteps()) {
+        final String[] labels = step.getRelationshipTypes().toArray(new String[0]);
+
+        switch (step.getDirection()) {
+        case OUT:
+          query.out(labels);
+          break;
+        case IN:
+          query.in(labels);
+          break;
+        default:
+          query.both(labels);
+          break;
+        }
+
+        filterObjects(query, step.getQueryParams());
+      }
+
+      query.dedup();
+      applyRange(query, 0, traversal.getLimit());
+
+      final Iterator<ChampObject> objIter = new Iterator<ChampObject> () {
+
+        private ChampObject next;
+
+        @Override
+        public boolean hasNext() {
+          while (query.hasNext()) {
+            try {
+              next = getChampformer().unmarshallObject(query.next());
+              return true;
+            } catch (ChampUnmarshallingException e) {
+              LOGGER.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_TINKERPOP_CHAMP_GRAPH_WARN, 
+                  "Failed to unmarshall tinkerpop vertex during traversal, returning partial results" + e.getMessage());
+            }
+          }
+
+          // If we auto-created the transaction, then commit it now, otherwise it is up to the
+          // caller to decide when and if to do the commit.
+          if(!transaction.isPresent()) {
+            try {
+              tx.commit(); //Releases our read-only transaction.  If the stream is
+                           //abandoned before this point, closing it does so instead.
+            } catch (ChampTransactionException e) {
+              LOGGER.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_TINKERPOP_CHAMP_GRAPH_WARN, 
+                  "Failed transaction commit due to: " + e.getMessage());
+            }
+          }
+
+          next = null;
+          return false;
+        }
+
+        @Override
+        public ChampObject next() {
+          if (next == null) {
+            throw new NoSuchElementException();
+          }
+
+          return next;
+        }
+      };
+
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(objIter, 
+                                                                      Spliterator.ORDERED | Spliterator.NONNULL), 
+                                                                      false)
+                          .onClose(() -> closeStream(query, tx, transaction));
+    }
+
     @Override
     public Optional<ChampRelationship> retrieveRelationship(Object key)
             throws ChampUnmarshallingException, ChampTransactionException {
@@ -786,7 +1361,7 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 
       // If we were not provided a transaction object then automatically open a transaction
       // now.
-      ChampTransaction tx = getOrCreateTransactionInstance(transaction);
+      ChampTransaction tx = getOrCreateReadTransactionInstance(transaction);
       
       // Use the graph instance associated with our transaction.
       Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
@@ -809,6 +1384,45 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
       return optionalRelationship;
 	}
 
+    @Override
+    public Optional<ChampRelationship> retrieveRelationshipByProperty(String propertyName, Object value)
+            throws ChampUnmarshallingException, ChampTransactionException {
+      return retrieveRelationshipByProperty(propertyName, value, Optional.empty());
+    }
+
+    @Override
+    public Optional<ChampRelationship> retrieveRelationshipByProperty(String propertyName, Object value, Optional<ChampTransaction> transaction)
+            throws ChampUnmarshallingException, ChampTransactionException {
+
+      if (isShutdown()) {
+        throw new IllegalStateException("Cannot use ChampAPI after calling shutdown()");
+      }
+
+      // If we were not provided a transaction object then automatically open a transaction
+      // now.
+      ChampTransaction tx = getOrCreateReadTransactionInstance(transaction);
+
+      // Use the graph instance associated with our transaction.
+      Graph graphInstance = ((TinkerpopTransaction)tx).getGraphInstance();
+
+      final GraphTraversal<Edge, Edge> query = graphInstance.traversal().E().has(propertyName, value).limit(1);
+      final Optional<ChampRelationship> optionalRelationship;
+
+      if (!query.hasNext()) {
+        optionalRelationship = Optional.empty();
+      } else {
+        optionalRelationship = Optional.of(getChampformer().unmarshallRelationship(query.next()));
+      }
+
+      // If we auto-created the transaction, then commit it now, otherwise it
+      // is up to the caller to decide if and when to commit.
+      if(!transaction.isPresent()) {
+        tx.commit();
+      }
+
+      return optionalRelationship;
+    }
+
     @Override
 	public void executeDeleteRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction) throws ChampRelationshipNotExistsException, ChampTransactionException {
 
@@ -999,6 +1613,9 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
 	public void shutdown() {
 
 		if (isShutdown.compareAndSet(false, true)) {
+		  if (groupCommit != null) {
+		    groupCommit.shutdown();
+		  }
 		  super.shutdown();
 			try {
 				getGraph().close();
@@ -1064,7 +1681,7 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
       // now.
       if(!transaction.isPresent()) {
         
-          tx = new TinkerpopTransaction(getGraph());
+          tx = new TinkerpopTransaction(getGraph(), commitRetryPolicy);
           
       } else {
         tx = transaction.get();
@@ -1072,4 +1689,187 @@ public abstract class AbstractTinkerpopChampGraph extends AbstractValidatingCham
       
       return tx;
 	}
+
+	/**
+	 * Returns the supplied transaction if there is one, otherwise opens a
+	 * {@link ReadOnlyTinkerpopTransaction}, which is released rather than committed once the
+	 * read is done.  Graphs without transaction support fall back to
+	 * {@link #getOrCreateTransactionInstance(Optional)}.
+	 */
+	protected ChampTransaction getOrCreateReadTransactionInstance(Optional<ChampTransaction> transaction) {
+	  if (transaction.isPresent() || !getGraph().features().graph().supportsTransactions()) {
+	    return getOrCreateTransactionInstance(transaction);
+	  }
+
+	  return new ReadOnlyTinkerpopTransaction(openReadOnlyGraphInstance());
+	}
+
+	/**
+	 * Opens the threaded transaction used by {@link ReadOnlyTinkerpopTransaction}.  Backends
+	 * with read-optimised transactions should override this to use them.
+	 */
+	protected Graph openReadOnlyGraphInstance() {
+	  return getGraph().tx().createThreadedTx();
+	}
+
+	/**
+	 * Called when a stream returned by a read operation is closed.  Closes the traversal
+	 * behind the stream, and finishes the transaction if we opened it ourselves.
+	 */
+	private void closeStream(Iterator<?> source, ChampTransaction tx, Optional<ChampTransaction> transaction) {
+	  if (source instanceof AutoCloseable) {
+	    try {
+	      ((AutoCloseable) source).close();
+	    } catch (Exception e) {
+	      LOGGER.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_TINKERPOP_CHAMP_GRAPH_WARN, 
+	          "Failed to close traversal due to: " + e.getMessage());
+	    }
+	  }
+
+	  if (!transaction.isPresent()) {
+	    try {
+	      tx.commit();
+	    } catch (ChampTransactionException e) {
+	      LOGGER.warn(ChampCoreMsgs.CHAMPCORE_ABSTRACT_TINKERPOP_CHAMP_GRAPH_WARN, 
+	          "Failed transaction commit due to: " + e.getMessage());
+	    }
+	  }
+	}
+
+	/**
+	 * Releases a read-only transaction which we opened ourselves.  Transactions supplied by
+	 * the caller are left for the caller to finish.
+	 */
+	private void releaseReadTransaction(ChampTransaction tx, Optional<ChampTransaction> transaction) {
+	  if (!transaction.isPresent() && tx instanceof ReadOnlyTinkerpopTransaction) {
+	    ((ReadOnlyTinkerpopTransaction) tx).close();
+	  }
+	}
+
+	/**
+	 * Commits a transaction that was automatically opened for a single write.  Transactions
+	 * supplied by the caller are left for the caller to commit.
+	 */
+	private void commitIfAutoCreated(ChampTransaction tx, Optional<ChampTransaction> transaction) throws ChampTransactionException {
+	  if(!transaction.isPresent()) {
+	    tx.commit();
+	  }
+	}
+
+	/**
+	 * Rolls back a transaction that was automatically opened for a single write which failed,
+	 * whatever the failure was, so that a shared group commit window is never left waiting
+	 * for it.  If we were supplied a transaction context then it is the caller's
+	 * responsibility to decide whether or not to roll it back.
+	 */
+	private void rollbackIfAutoCreated(ChampTransaction tx, Optional<ChampTransaction> transaction) throws ChampTransactionException {
+	  if(!transaction.isPresent()) {
+	    tx.rollback();
+	  }
+	}
+
+	/**
+	 * Same as {@link #getOrCreateTransactionInstance(Optional)}, except that when group commit
+	 * is enabled an automatically created transaction shares its backend commit with those of
+	 * other concurrent writers.  Only used by single element writes, which always finish their
+	 * transaction before returning.
+	 */
+	protected ChampTransaction getOrCreateWriteTransactionInstance(Optional<ChampTransaction> transaction) {
+	  if (transaction.isPresent() || !groupCommitEnabled) {
+	    return getOrCreateTransactionInstance(transaction);
+	  }
+
+	  if (groupCommit == null) {
+	    synchronized (this) {
+	      if (groupCommit == null) {
+	        if (!getGraph().features().graph().supportsTransactions()) {
+	          return getOrCreateTransactionInstance(transaction);
+	        }
+	        groupCommit = new GroupCommitCoordinator(getGraph(), commitRetryPolicy, groupCommitWindowMs, groupCommitMaxSize, groupCommitMaxWaitMs);
+	      }
+	    }
+	  }
+
+	  return groupCommit.join();
+	}
+
+	/**
+	 * Unmarshalls an edge from a stream of edges, restricting the properties read from its
+	 * endpoints when a set of endpoint property keys was supplied.  Endpoints already built
+	 * for an earlier edge of the same stream are taken from {@code endpointMemo}.
+	 */
+	private ChampRelationship unmarshallRelationship(Edge edge, Optional<Set<String>> endpointPropertyKeys, Map<Object, ChampObject> endpointMemo) throws ChampUnmarshallingException {
+	  if (endpointPropertyKeys.isPresent()) {
+	    return getChampformer().unmarshallRelationship(edge, endpointPropertyKeys.get(), endpointMemo);
+	  }
+
+	  return getChampformer().unmarshallRelationship(edge, endpointMemo);
+	}
+
+	/**
+	 * Builds a vertex traversal matching all of the supplied query parameters.
+	 */
+	private GraphTraversal<Vertex, Vertex> buildObjectQuery(Graph graphInstance, Map<String, Object> queryParams) {
+	  return filterObjects(graphInstance.traversal().V(), queryParams);
+	}
+
+	/**
+	 * Restricts the vertices emitted by a traversal to those matching all of the supplied
+	 * query parameters.
+	 */
+	private <S> GraphTraversal<S, Vertex> filterObjects(GraphTraversal<S, Vertex> query, Map<String, Object> queryParams) {
+	  for (Entry<String, Object> filter : queryParams.entrySet()) {      
+	    if (filter.getKey().equals(ChampObject.ReservedPropertyKeys.CHAMP_OBJECT_TYPE.toString())) {
+	      continue; //For performance reasons, the label is the last thing to be added
+	    } else {
+	      query.has(filter.getKey(), filter.getValue());
+	    }
+	  }
+
+	  if (queryParams.containsKey(ChampObject.ReservedPropertyKeys.CHAMP_OBJECT_TYPE.toString())) {
+	    hasLabel(query, queryParams.get(ChampObject.ReservedPropertyKeys.CHAMP_OBJECT_TYPE.toString()));
+	  }
+
+	  return query;
+	}
+
+	/**
+	 * Builds an edge traversal matching all of the supplied query parameters.
+	 */
+	private GraphTraversal<Edge, Edge> buildRelationshipQuery(Graph graphInstance, Map<String, Object> queryParams) {
+	  final GraphTraversal<Edge, Edge> query = graphInstance.traversal().E();
+
+	  for (Entry<String, Object> filter : queryParams.entrySet()) {
+	    if (filter.getKey().equals(ChampRelationship.ReservedPropertyKeys.CHAMP_RELATIONSHIP_TYPE.toString())) {
+	      continue; //Add the label last for performance reasons
+	    } else {
+	      query.has(filter.getKey(), filter.getValue());
+	    }
+	  }
+
+	  if (queryParams.containsKey(ChampRelationship.ReservedPropertyKeys.CHAMP_RELATIONSHIP_TYPE.toString())) {
+	    hasLabel(query, queryParams.get(ChampRelationship.ReservedPropertyKeys.CHAMP_RELATIONSHIP_TYPE.toString()));
+	  }
+
+	  return query;
+	}
+
+	/**
+	 * Restricts a query traversal to the window described by {@code offset} and {@code limit}.
+	 * A negative {@code limit} leaves the upper end of the window unbounded.
+	 * <p>
+	 * The window is not ordered: sorting would make the backend load and sort every match
+	 * before returning the first one.  The backend may return matches in a different order
+	 * on each request, so consecutive pages are only guaranteed not to skip or repeat elements
+	 * when they are read within a single transaction.
+	 */
+	private void applyRange(GraphTraversal<?, ?> query, long offset, long limit) {
+	  if (offset < 0) {
+	    throw new IllegalArgumentException("Query offset must not be negative: " + offset);
+	  }
+
+	  if (offset > 0 || limit >= 0) {
+	    query.range(offset, limit < 0 ? -1 : offset + limit);
+	  }
+	}
 }
@@ -72,6 +72,31 @@ public abstract class AbstractValidatingChampGraph extends AbstractLoggingChampG
 	 */
 	protected abstract ChampObject doReplaceObject(ChampObject object, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampObjectNotExistsException, ChampTransactionException;
 
+	/**
+	 * Updates the supplied properties of an existing vertex in the graph data store.
+	 * <p>
+     * If a transaction context is not provided, then a transaction will be automatically
+     * created and committed for this operation only, otherwise, the supplied transaction
+     * will be used and it will be up to the caller to commit the transaction at its
+     * discretion.
+     * <p>
+     * Only the patched properties are known up front, so implementations are responsible
+     * for calling {@link #validate(ChampObject)} on the patched vertex before writing it.
+     *
+	 * @param object      - The vertex properties to be updated in the graph data store.
+	 * @param transaction - Optional transaction context to perform the operation in.
+	 *
+	 * @return - The patched vertex, marshaled as a {@link ChampObject}
+	 *
+	 * @throws ChampMarshallingException     - If the {@code object} is not able to be
+     *                                         marshalled into the backend representation
+	 * @throws ChampUnmarshallingException   - If the stored vertex could not be unmarshalled
+	 * @throws ChampSchemaViolationException - If the patched vertex violates the schema
+	 * @throws ChampObjectNotExistsException - If {@link org.onap.aai.champcore.model.ChampObject#getKey}
+     *                                         is not present or object not found in the graph
+	 */
+	protected abstract ChampObject doPatchObject(ChampObject object, Optional<ChampTransaction> transaction) throws ChampMarshallingException, ChampUnmarshallingException, ChampSchemaViolationException, ChampObjectNotExistsException, ChampTransactionException;
+
     /**
      * Creates or updates a vertex in the graph data store.
      * <p>
@@ -114,6 +139,33 @@ public abstract class AbstractValidatingChampGraph extends AbstractLoggingChampG
 	 */
 	protected abstract ChampRelationship doReplaceRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampRelationshipNotExistsException, ChampMarshallingException, ChampTransactionException;
 
+	/**
+	 * Updates the supplied properties of an edge in the graph data store.
+     * <p>
+     * If a transaction context is not provided, then a transaction will be automatically
+     * created and committed for this operation only, otherwise, the supplied transaction
+     * will be used and it will be up to the caller to commit the transaction at its
+     * discretion.
+     * <p>
+     * Only the patched properties are known up front, so implementations are responsible
+     * for calling {@link #validateWithoutEndpoints(ChampRelationship)} on the patched edge
+     * before writing it.
+     *
+	 * @param relationship - The edge properties to be updated in the graph data store.
+	 * @param transaction  - Optional transaction context to perform the operation in.
+	 *
+	 * @return - The edge as it was patched, marshaled as a {@link ChampRelationship}
+	 *
+	 * @throws ChampUnmarshallingException         - If the patched edge could not be
+     *                                               unmarshaled into a ChampRelationship
+	 * @throws ChampSchemaViolationException       - If the patched edge violates the schema
+	 * @throws ChampRelationshipNotExistsException - If {@link org.onap.aai.champcore.model.ChampRelationship#getKey}
+     *                                               is not present or the edge cannot be found in the graph
+	 * @throws ChampMarshallingException           - If the {@code relationship} is not able to be
+     *                                               marshaled into the back end representation
+	 */
+	protected abstract ChampRelationship doPatchRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException, ChampSchemaViolationException, ChampRelationshipNotExistsException, ChampMarshallingException, ChampTransactionException;
+
 	/**
 	 * Creates or updates a relationship in the graph data store.
      * <p>
@@ -182,6 +234,19 @@ public abstract class AbstractValidatingChampGraph extends AbstractLoggingChampG
 		return doReplaceObject(object, transaction);
 	}
 
+	@Override
+	public ChampObject executePatchObject(ChampObject object, Optional<ChampTransaction> transaction)
+			throws ChampMarshallingException, ChampUnmarshallingException, ChampSchemaViolationException, ChampObjectNotExistsException, ChampTransactionException {
+
+		if (isShutdown()) {
+		  throw new IllegalStateException(CANNOT_USE_CHAMP_API_AFTER_CALLING_SHUTDOWN);
+		}
+
+		// The patched object is validated by doPatchObject once it has been merged with
+		// the stored object, which avoids a separate read round trip here.
+		return doPatchObject(object, transaction);
+	}
+
 	@Override
 	public ChampRelationship executeStoreRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction)
 			throws ChampUnmarshallingException, ChampMarshallingException, ChampObjectNotExistsException, ChampSchemaViolationException, ChampRelationshipNotExistsException, ChampTransactionException {	
@@ -208,6 +273,19 @@ public abstract class AbstractValidatingChampGraph extends AbstractLoggingChampG
 	  return doReplaceRelationship(relationship, transaction);
 	}
 
+	@Override
+	public ChampRelationship executePatchRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction)
+			throws ChampUnmarshallingException, ChampMarshallingException, ChampSchemaViolationException, ChampRelationshipNotExistsException, ChampTransactionException {
+
+	  if (isShutdown()) {
+	    throw new IllegalStateException(CANNOT_USE_CHAMP_API_AFTER_CALLING_SHUTDOWN);
+	  }
+
+	  // The patched relationship is validated by doPatchRelationship once it has been
+	  // merged with the stored relationship.
+	  return doPatchRelationship(relationship, transaction);
+	}
+
 	@Override
 	public ChampPartition executeStorePartition(ChampPartition partition, Optional<ChampTransaction> transaction) throws ChampSchemaViolationException, ChampRelationshipNotExistsException, ChampMarshallingException, ChampObjectNotExistsException, ChampTransactionException {
 
@@ -227,6 +305,17 @@ public abstract class AbstractValidatingChampGraph extends AbstractLoggingChampG
  			getSchemaEnforcer().validate(object, objectConstraint.get());
 	}
 
+	/**
+	 * Validates a relationship against its own constraint only, for writes which leave its
+	 * source and target as they are stored.  The endpoints need only carry their types.
+	 */
+	protected void validateWithoutEndpoints(ChampRelationship relationship) throws ChampSchemaViolationException {
+		final Optional<ChampRelationshipConstraint> relationshipConstraint = retrieveSchema().getRelationshipConstraint(relationship.getType());
+
+		if (relationshipConstraint.isPresent())
+			getSchemaEnforcer().validate(relationship, relationshipConstraint.get());
+	}
+
 	protected void validate(ChampRelationship relationship) throws ChampSchemaViolationException {
 		final ChampSchema graphSchema = retrieveSchema();
 		final Optional<ChampRelationshipConstraint> relationshipConstraint = graphSchema.getRelationshipConstraint(relationship.getType());
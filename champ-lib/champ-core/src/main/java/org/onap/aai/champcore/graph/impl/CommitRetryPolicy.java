@@ -0,0 +1,204 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.graph.impl;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Decides whether, and after how long, a failed transaction commit or rollback should be
+ * retried.
+ * <p>
+ * Backoffs use decorrelated jitter: each backoff is drawn uniformly between the base
+ * backoff and three times the previous backoff, and is capped.  Retries stop once the
+ * maximum number of attempts has been made, once the next attempt would start after the
+ * overall deadline, or as soon as a failure is not classified as retryable.
+ * <p>
+ * The policy also counts the attempts, retries and abandoned operations it has seen, so
+ * that they can be exported as metrics.
+ */
+public class CommitRetryPolicy {
+
+  public static final String PARAM_MAX_ATTEMPTS = "champcore.transaction.retry.max-attempts";
+  public static final int    DEFAULT_MAX_ATTEMPTS = 3;
+  public static final String PARAM_BASE_BACKOFF_MS = "champcore.transaction.retry.base-backoff-ms";
+  public static final long   DEFAULT_BASE_BACKOFF_MS = 10;
+  public static final String PARAM_MAX_BACKOFF_MS = "champcore.transaction.retry.max-backoff-ms";
+  public static final long   DEFAULT_MAX_BACKOFF_MS = 200;
+  public static final String PARAM_DEADLINE_MS = "champcore.transaction.retry.deadline-ms";
+  public static final long   DEFAULT_DEADLINE_MS = 1000;
+
+  /**
+   * By default a failure is retried unless it, or one of its causes, is an argument error, a
+   * schema violation or a backend failure reported as permanent.  The backend exception
+   * types are matched by name since they are not visible to champ-core.
+   */
+  public static final Predicate<Throwable> DEFAULT_RETRYABLE = e -> {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      final String name = t.getClass().getSimpleName();
+      if (t instanceof IllegalArgumentException
+          || name.endsWith("SchemaViolationException")
+          || name.startsWith("Permanent")) {
+        return false;
+      }
+      if (t.getCause() == t) {
+        break;
+      }
+    }
+    return true;
+  };
+
+  private final int maxAttempts;
+  private final long baseBackoffMs;
+  private final long maxBackoffMs;
+  private final long deadlineMs;
+  private final Predicate<Throwable> retryable;
+
+  private final AtomicLong attempts = new AtomicLong();
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong abandoned = new AtomicLong();
+
+
+  private CommitRetryPolicy(Builder builder) {
+    this.maxAttempts = builder.maxAttempts;
+    this.baseBackoffMs = builder.baseBackoffMs;
+    this.maxBackoffMs = builder.maxBackoffMs;
+    this.deadlineMs = builder.deadlineMs;
+    this.retryable = builder.retryable;
+  }
+
+  /**
+   * Builds a policy from the {@code champcore.transaction.retry.*} graph properties, using the
+   * defaults for any which are not supplied.
+   */
+  public static CommitRetryPolicy fromProperties(Map<String, Object> properties) {
+    return new Builder()
+        .maxAttempts(Integer.parseInt(getProperty(properties, PARAM_MAX_ATTEMPTS, DEFAULT_MAX_ATTEMPTS)))
+        .baseBackoffMs(Long.parseLong(getProperty(properties, PARAM_BASE_BACKOFF_MS, DEFAULT_BASE_BACKOFF_MS)))
+        .maxBackoffMs(Long.parseLong(getProperty(properties, PARAM_MAX_BACKOFF_MS, DEFAULT_MAX_BACKOFF_MS)))
+        .deadlineMs(Long.parseLong(getProperty(properties, PARAM_DEADLINE_MS, DEFAULT_DEADLINE_MS)))
+        .build();
+  }
+
+  private static String getProperty(Map<String, Object> properties, String property, Object defaultValue) {
+    return (properties.containsKey(property) ? properties.get(property) : defaultValue).toString();
+  }
+
+  /**
+   * Records an attempt at the operation.
+   */
+  public void recordAttempt() {
+    attempts.incrementAndGet();
+  }
+
+  /**
+   * Decides whether a failed attempt should be retried.
+   *
+   * @param failure         - The failure of the latest attempt.
+   * @param attempt         - The number of attempts made so far, starting at 1.
+   * @param elapsedMs       - The time since the first attempt started.
+   * @param previousBackoff - The previous backoff, or 0 after the first attempt.  The backoff
+   *                          is drawn at random from between the base backoff and three times
+   *                          the previous backoff, or the base backoff if that is larger.
+   *
+   * @return - The time to wait before retrying, or a negative value if the operation should
+   *           be abandoned.
+   */
+  public long nextBackoff(Throwable failure, int attempt, long elapsedMs, long previousBackoff) {
+    if (attempt >= maxAttempts || !retryable.test(failure)) {
+      abandoned.incrementAndGet();
+      return -1;
+    }
+
+    final long upper = Math.max(baseBackoffMs, previousBackoff) * 3;
+    final long backoff = Math.min(maxBackoffMs, ThreadLocalRandom.current().nextLong(baseBackoffMs, upper + 1));
+
+    if (elapsedMs + backoff > deadlineMs) {
+      abandoned.incrementAndGet();
+      return -1;
+    }
+
+    retries.incrementAndGet();
+    return backoff;
+  }
+
+  /** @return - The number of commit/rollback attempts made under this policy. */
+  public long getAttempts() {
+    return attempts.get();
+  }
+
+  /** @return - The number of attempts which were retried after a failure. */
+  public long getRetries() {
+    return retries.get();
+  }
+
+  /** @return - The number of operations given up on after a failure. */
+  public long getAbandoned() {
+    return abandoned.get();
+  }
+
+
+  public static class Builder {
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long baseBackoffMs = DEFAULT_BASE_BACKOFF_MS;
+    private long maxBackoffMs = DEFAULT_MAX_BACKOFF_MS;
+    private long deadlineMs = DEFAULT_DEADLINE_MS;
+    private Predicate<Throwable> retryable = DEFAULT_RETRYABLE;
+
+    public Builder maxAttempts(int maxAttempts) {
+      if (maxAttempts < 1) {
+        throw new IllegalArgumentException("maxAttempts must be at least 1");
+      }
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    public Builder baseBackoffMs(long baseBackoffMs) {
+      this.baseBackoffMs = baseBackoffMs;
+      return this;
+    }
+
+    public Builder maxBackoffMs(long maxBackoffMs) {
+      this.maxBackoffMs = maxBackoffMs;
+      return this;
+    }
+
+    public Builder deadlineMs(long deadlineMs) {
+      this.deadlineMs = deadlineMs;
+      return this;
+    }
+
+    public Builder retryOn(Predicate<Throwable> retryable) {
+      this.retryable = retryable;
+      return this;
+    }
+
+    public CommitRetryPolicy build() {
+      if (baseBackoffMs < 0 || maxBackoffMs < baseBackoffMs) {
+        throw new IllegalArgumentException("Backoffs must satisfy 0 <= baseBackoffMs <= maxBackoffMs");
+      }
+      return new CommitRetryPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,320 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.graph.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.onap.aai.champcore.ChampCoreMsgs;
+import org.onap.aai.champcore.exceptions.ChampTransactionException;
+import org.onap.aai.cl.api.Logger;
+import org.onap.aai.cl.eelf.LoggerFactory;
+
+/**
+ * Coalesces the transactions which are automatically opened for non-transactional
+ * graph operations into shared backend commits.
+ * <p>
+ * Each caller is handed its own {@link TinkerpopTransaction}, but all of the transactions
+ * handed out within the same window share a single threaded backend transaction.  A window
+ * is closed to new callers once it has been open for {@code windowMs} or has reached
+ * {@code maxSize} callers, and is committed once every caller in it has called
+ * {@link TinkerpopTransaction#commit()} or {@link TinkerpopTransaction#rollback()}.  Each
+ * caller's commit blocks until the shared commit has completed and reports its outcome.
+ * <p>
+ * Since the callers of a window share one backend transaction, a rollback by any one of
+ * them causes the whole window to be rolled back.  Every caller in a window that fails,
+ * whether because of a rollback, a failed backend commit or a caller that never finished,
+ * receives a {@link WindowAbortedException} from its commit.  Their own work was not at
+ * fault, so they are expected to redo it in a transaction of their own.
+ */
+public class GroupCommitCoordinator {
+
+  private static final Logger LOGGER = LoggerFactory.getInstance().getLogger(GroupCommitCoordinator.class);
+
+  private final Graph graph;
+  private final CommitRetryPolicy retryPolicy;
+  private final long windowMs;
+  private final int maxSize;
+  private final long maxWaitMs;
+  private final ScheduledThreadPoolExecutor timer;
+
+  /** The window currently accepting new callers, if any. */
+  private Batch current;
+
+
+  /**
+   * Creates a new group commit coordinator.
+   *
+   * @param graph       - The graph to open the shared transactions against.
+   * @param retryPolicy - Decides whether failed shared commits are retried.
+   * @param windowMs    - How long a window stays open for new callers.
+   * @param maxSize     - The maximum number of callers sharing a window.
+   * @param maxWaitMs   - How long a window may wait for its callers to finish before it is
+   *                      rolled back.
+   */
+  public GroupCommitCoordinator(Graph graph, CommitRetryPolicy retryPolicy, long windowMs, int maxSize, long maxWaitMs) {
+    this.graph = graph;
+    this.retryPolicy = retryPolicy;
+    this.windowMs = windowMs;
+    this.maxSize = maxSize;
+    this.maxWaitMs = maxWaitMs;
+    this.timer = new ScheduledThreadPoolExecutor(1, r -> {
+      Thread t = new Thread(r, "champ-group-commit");
+      t.setDaemon(true);
+      return t;
+    });
+
+    // Windows cancel their timers once they are done with them, so make sure the cancelled
+    // tasks don't keep the finished windows reachable until their delay runs out.
+    this.timer.setRemoveOnCancelPolicy(true);
+    this.timer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+  }
+
+  /**
+   * Enlists the caller in the currently open window, opening a new one if necessary.
+   *
+   * @return - A transaction whose commit will be coalesced with those of the other callers
+   *           in the same window.
+   */
+  public synchronized TinkerpopTransaction join() {
+
+    if (current == null || !current.enlist()) {
+      final Batch batch = new Batch(new TinkerpopTransaction(graph, retryPolicy));
+      batch.setTimers(timer.schedule(batch::close, windowMs, TimeUnit.MILLISECONDS),
+                      timer.schedule(batch::expire, maxWaitMs, TimeUnit.MILLISECONDS));
+      batch.enlist();
+      current = batch;
+    }
+
+    final GroupedTransaction tx = new GroupedTransaction(current);
+    if (current.size() >= maxSize) {
+      current.close();
+      current = null;
+    }
+
+    return tx;
+  }
+
+  /**
+   * Closes the open window, so that its callers are committed as soon as they have all
+   * finished, and stops the window timer.  Windows which are still waiting for their callers
+   * are no longer expired.
+   */
+  public synchronized void shutdown() {
+    if (current != null) {
+      current.close();
+      current = null;
+    }
+    timer.shutdown();
+  }
+
+
+  /**
+   * The callers sharing a single backend transaction.
+   */
+  private static class Batch {
+
+    private final TinkerpopTransaction sharedTransaction;
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    private int size = 0;
+    private int active = 0;
+    private boolean closed = false;
+    private boolean rollbackOnly = false;
+    private boolean completed = false;
+    private ScheduledFuture<?> closeTimer;
+    private ScheduledFuture<?> expireTimer;
+
+    Batch(TinkerpopTransaction sharedTransaction) {
+      this.sharedTransaction = sharedTransaction;
+    }
+
+    /**
+     * Hands the window the timers which close and expire it, so that it can cancel them once
+     * they are no longer needed.
+     */
+    synchronized void setTimers(ScheduledFuture<?> closeTimer, ScheduledFuture<?> expireTimer) {
+      this.closeTimer = closeTimer;
+      this.expireTimer = expireTimer;
+      cancelTimers();
+    }
+
+    /**
+     * Cancels the close timer once the window is closed, and both timers once it has
+     * completed.
+     */
+    private synchronized void cancelTimers() {
+      if (closed && closeTimer != null) {
+        closeTimer.cancel(false);
+      }
+      if (completed && expireTimer != null) {
+        expireTimer.cancel(false);
+      }
+    }
+
+    synchronized boolean enlist() {
+      if (closed) {
+        return false;
+      }
+      size++;
+      active++;
+      return true;
+    }
+
+    synchronized int size() {
+      return size;
+    }
+
+    void close() {
+      synchronized (this) {
+        closed = true;
+        cancelTimers();
+      }
+      completeIfDone();
+    }
+
+    void finish(boolean rollback) {
+      synchronized (this) {
+        active--;
+        rollbackOnly |= rollback;
+      }
+      completeIfDone();
+    }
+
+    /**
+     * Rolls the window back if some of its callers never finished.
+     */
+    void expire() {
+      synchronized (this) {
+        if (completed) {
+          return;
+        }
+        closed = true;
+        completed = true;
+        cancelTimers();
+      }
+
+      LOGGER.warn(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_WARN,
+          "Group commit transaction " + sharedTransaction.id() + " timed out waiting for its participants, rolling back");
+      rollback();
+    }
+
+    private void completeIfDone() {
+      final boolean rollback;
+      synchronized (this) {
+        if (completed || !closed || active > 0) {
+          return;
+        }
+        completed = true;
+        rollback = rollbackOnly;
+        cancelTimers();
+      }
+
+      if (rollback) {
+        rollback();
+      } else {
+        try {
+          sharedTransaction.commit();
+          result.complete(null);
+        } catch (Throwable e) {
+          result.completeExceptionally(new WindowAbortedException(
+              "Group commit transaction " + sharedTransaction.id() + " failed to commit", e));
+        }
+      }
+    }
+
+    private void rollback() {
+      try {
+        sharedTransaction.rollback();
+      } catch (Throwable e) {
+        LOGGER.error(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_ERROR,
+            "Failed to roll back group commit transaction " + sharedTransaction.id() + ": " + e.getMessage());
+      }
+      result.completeExceptionally(new WindowAbortedException(
+          "Group commit transaction " + sharedTransaction.id() + " was rolled back", null));
+    }
+
+    void await() throws ChampTransactionException {
+      try {
+        result.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ChampTransactionException(e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof ChampTransactionException) {
+          throw (ChampTransactionException) e.getCause();
+        }
+        throw new ChampTransactionException(e.getCause());
+      }
+    }
+  }
+
+
+  /**
+   * Thrown by the commit of a caller whose window was rolled back or failed to commit as a
+   * whole.  The caller's own writes were discarded with the rest of the window.
+   */
+  public static class WindowAbortedException extends ChampTransactionException {
+
+    private static final long serialVersionUID = 2931485208760273645L;
+
+    WindowAbortedException(String message, Throwable cause) {
+      super(message, cause);
+    }
+  }
+
+
+  /**
+   * A caller's view of a shared window transaction.
+   */
+  private static class GroupedTransaction extends TinkerpopTransaction {
+
+    private final Batch batch;
+    private boolean finished = false;
+
+    GroupedTransaction(Batch batch) {
+      this.batch = batch;
+      this.threadedTransaction = batch.sharedTransaction.getGraphInstance();
+    }
+
+    @Override
+    public void commit() throws ChampTransactionException {
+      finish(false);
+      batch.await();
+    }
+
+    @Override
+    public void rollback() throws ChampTransactionException {
+      finish(true);
+    }
+
+    private synchronized void finish(boolean rollback) {
+      if (!finished) {
+        finished = true;
+        batch.finish(rollback);
+      }
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.graph.impl;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.onap.aai.champcore.ChampCoreMsgs;
+import org.onap.aai.cl.api.Logger;
+import org.onap.aai.cl.eelf.LoggerFactory;
+
+/**
+ * A transaction used only for reads.
+ * <p>
+ * It is never committed: committing, rolling back or closing it just releases the
+ * underlying threaded transaction, so no backend commit is paid for a pure read.  The
+ * streams returned by read operations close their transaction when they are closed, so a
+ * stream which is abandoned before it is exhausted does not leave its transaction open.
+ */
+public class ReadOnlyTinkerpopTransaction extends TinkerpopTransaction implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getInstance().getLogger(ReadOnlyTinkerpopTransaction.class);
+
+  private final AtomicBoolean released = new AtomicBoolean(false);
+
+
+  /**
+   * Creates a new read-only transaction.
+   *
+   * @param aThreadedTransaction - The threaded transaction to read through.
+   */
+  public ReadOnlyTinkerpopTransaction(Graph aThreadedTransaction) {
+    super();
+    this.threadedTransaction = aThreadedTransaction;
+
+    LOGGER.debug("Open read-only transaction - id: " + id);
+  }
+
+  @Override
+  public void commit() {
+    close();
+  }
+
+  @Override
+  public void rollback() {
+    close();
+  }
+
+  /**
+   * Releases the underlying threaded transaction.  Only the first call has any effect.
+   */
+  @Override
+  public void close() {
+    if (released.compareAndSet(false, true)) {
+      try {
+        threadedTransaction.tx().rollback();
+        LOGGER.debug("Released read-only transaction - id: " + id);
+      } catch (Throwable e) {
+        LOGGER.warn(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_WARN,
+            "Failed to release read-only transaction " + id + ": " + e.getMessage());
+      }
+    }
+  }
+}
@@ -20,8 +20,6 @@
  */
 package org.onap.aai.champcore.graph.impl;
 
-import java.security.SecureRandom;
-
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.onap.aai.champcore.ChampCoreMsgs;
 import org.onap.aai.champcore.ChampTransaction;
@@ -31,11 +29,15 @@ import org.onap.aai.cl.eelf.LoggerFactory;
 
 public class TinkerpopTransaction extends ChampTransaction {
 
-  private static final int COMMIT_RETRY_COUNT = 3;
+  /** Retry policy used by transactions which were not given one. */
+  private static final CommitRetryPolicy DEFAULT_RETRY_POLICY = new CommitRetryPolicy.Builder().build();
 
   /** Threaded Tinkerpop transaction. */
   protected Graph threadedTransaction;
 
+  /** Decides whether failed commits and rollbacks are retried. */
+  protected CommitRetryPolicy retryPolicy = DEFAULT_RETRY_POLICY;
+
 
   private static final Logger LOGGER = LoggerFactory.getInstance().getLogger(TinkerpopTransaction.class);
 
@@ -48,7 +50,18 @@ public class TinkerpopTransaction extends ChampTransaction {
    * @param aGraphInstance - Instance of the graph to request the transaction from.
    */
   public TinkerpopTransaction(Graph aGraphInstance) {
+    this(aGraphInstance, DEFAULT_RETRY_POLICY);
+  }
+
+  /**
+   * Creates a new transaction instance.
+   *
+   * @param aGraphInstance - Instance of the graph to request the transaction from.
+   * @param aRetryPolicy   - Decides whether failed commits and rollbacks are retried.
+   */
+  public TinkerpopTransaction(Graph aGraphInstance, CommitRetryPolicy aRetryPolicy) {
     super();
+    this.retryPolicy = aRetryPolicy;
 
     if(!aGraphInstance.features().graph().supportsTransactions()) {
       throw new UnsupportedOperationException();
@@ -75,97 +88,69 @@ public class TinkerpopTransaction extends ChampTransaction {
 
     LOGGER.debug("Commiting transaction - " + id);
 
-    final long initialBackoff = (int)(new SecureRandom().nextDouble() * 50);
-
-    // If something goes wrong, we will retry a couple of times before
-    // giving up.
-    for (int i = 0; i < COMMIT_RETRY_COUNT; i++) {
+    try {
+      withRetries("commit", () -> threadedTransaction.tx().commit());
+      LOGGER.info(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_INFO,
+          "Committed transaction - id: " + id);
 
+    } catch (ChampTransactionException e) {
       try {
-
-        // Do the commit.
-        threadedTransaction.tx().commit();
-        LOGGER.info(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_INFO,
-            "Committed transaction - id: " + id);
-        return;
-
-      } catch (Throwable e) {
-
-        LOGGER.debug("Transaction " + id + " failed to commit due to: " + e.getMessage());
-
-        // Have we used up all of our retries?
-        if (i == COMMIT_RETRY_COUNT - 1) {
-
-          LOGGER.error(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_ERROR,
-              "Maxed out commit attempt retries, client must handle exception and retry. " + e.getMessage());
-          threadedTransaction.tx().rollback();
-          throw new ChampTransactionException(e);
-        }
-
-        // Calculate how long we will wait before retrying...
-        final long backoff = (long) Math.pow(2, i) * initialBackoff;
-        LOGGER.warn(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_WARN,
-            "Caught exception while retrying transaction commit, retrying in " + backoff + " ms");
-
-        // ...and sleep before trying the commit again.
-        try {
-          Thread.sleep(backoff);
-
-        } catch (InterruptedException ie) {
-
-          LOGGER.info(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_INFO,
-              "Interrupted while backing off on transaction commit");
-          Thread.currentThread().interrupt();
-          return;
-        }
+        threadedTransaction.tx().rollback();
+      } catch (Throwable t) {
+        LOGGER.debug("Transaction " + id + " failed to roll back after failed commit: " + t.getMessage());
       }
+      throw e;
     }
   }
 
   @Override
   public void rollback() throws ChampTransactionException {
 
-    long initialBackoff = (int)(new SecureRandom().nextDouble() * 50);
+    withRetries("roll back", () -> threadedTransaction.tx().rollback());
+    LOGGER.info(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_INFO,
+        "Rolled back transaction - id: " + id);
+  }
+
+  /**
+   * Performs a commit or rollback, retrying it for as long as our retry policy allows.
+   */
+  private void withRetries(String operation, Runnable action) throws ChampTransactionException {
 
+    final long start = System.currentTimeMillis();
+    long backoff = 0;
 
-    // If something goes wrong, we will retry a couple of times before
-    // giving up.
-    for (int i = 0; i < COMMIT_RETRY_COUNT; i++) {
+    for (int attempt = 1; ; attempt++) {
 
       try {
-
-        threadedTransaction.tx().rollback();
-        LOGGER.info(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_INFO,
-            "Rolled back transaction - id: " + id);
+        retryPolicy.recordAttempt();
+        action.run();
         return;
 
       } catch (Throwable e) {
 
-        LOGGER.debug("Transaction " + id + " failed to roll back due to: " + e.getMessage());
-
-        // Have we used up all of our retries?
-        if (i == COMMIT_RETRY_COUNT - 1) {
+        LOGGER.debug("Transaction " + id + " failed to " + operation + " due to: " + e.getMessage());
 
+        // Are we allowed another attempt?
+        backoff = retryPolicy.nextBackoff(e, attempt, System.currentTimeMillis() - start, backoff);
+        if (backoff < 0) {
           LOGGER.error(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_ERROR,
-              "Maxed out rollback attempt retries, client must handle exception and retry. " + e.getMessage());
+              "Giving up on transaction " + operation + " after " + attempt + " attempt(s), client must handle exception and retry. " + e.getMessage());
           throw new ChampTransactionException(e);
         }
 
-        // Calculate how long we will wait before retrying...
-        final long backoff = (long) Math.pow(2, i) * initialBackoff;
         LOGGER.warn(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_WARN,
-            "Caught exception while retrying transaction roll back, retrying in " + backoff + " ms");
+            "Caught exception while attempting transaction " + operation + ", retrying in " + backoff + " ms");
 
-        // ...and sleep before trying the commit again.
+        // ...and sleep before trying again.
         try {
           Thread.sleep(backoff);
 
         } catch (InterruptedException ie) {
 
           LOGGER.info(ChampCoreMsgs.CHAMPCORE_TINKERPOP_TRANSACTION_INFO,
-              "Interrupted while backing off on transaction rollback");
+              "Interrupted while backing off on transaction " + operation);
           Thread.currentThread().interrupt();
-          return;
+          throw new ChampTransactionException(e);
         }
       }
     }
@@ -34,6 +34,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -185,6 +186,13 @@ public class GraphMLImporterExporter implements Importer, Exporter {
 		}
 	}
 
+	private Optional<ChampObject> findImportedObject(ChampGraph graph, Object importAssignedId) throws ChampTransactionException {
+		// Close the stream, since findFirst() leaves it unexhausted.
+		try (Stream<ChampObject> objects = graph.queryObjects(Collections.singletonMap("importAssignedId", importAssignedId), Optional.empty())) {
+			return objects.findFirst();
+		}
+	}
+
 	private void writeEdge(ChampGraph graph, Node edge, Map<String, Map<String, String>> edgePropertyDefinitions, Set<Map<String, String>> edgeDefaults) {
 		final NamedNodeMap edgeAttributes = edge.getAttributes();
 		final NodeList data = edge.getChildNodes();
@@ -194,8 +202,8 @@ public class GraphMLImporterExporter implements Importer, Exporter {
 		ChampObject targetObject=null;
 		
 		try {
-			final Optional<ChampObject> source = graph.queryObjects(Collections.singletonMap("importAssignedId", sourceKey), Optional.empty()).findFirst();
-			final Optional<ChampObject> target = graph.queryObjects(Collections.singletonMap("importAssignedId", targetKey), Optional.empty()).findFirst();
+			final Optional<ChampObject> source = findImportedObject(graph, sourceKey);
+			final Optional<ChampObject> target = findImportedObject(graph, targetKey);
 
 			if (!source.isPresent()) {
 				sourceObject = graph.storeObject(ChampObject.create()
@@ -0,0 +1,134 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A declarative multi-hop traversal of the graph.  The traversal starts at the objects whose
+ * properties match a set of query parameters and then follows a sequence of steps, each of
+ * which crosses relationships of the given types in the given direction and keeps only the
+ * objects matching that step's query parameters.  The objects reached by the final step are
+ * the result of the traversal.
+ */
+public final class ChampTraversal {
+
+	private final Map<String, Object> startQueryParams;
+	private final List<Step> steps;
+	private final long limit;
+
+	private ChampTraversal() {
+		throw new RuntimeException("Cannot call ChampTraversal() constructor");
+	}
+
+	private ChampTraversal(Builder builder) {
+		this.startQueryParams = Collections.unmodifiableMap(new HashMap<>(builder.startQueryParams));
+		this.steps = Collections.unmodifiableList(new ArrayList<>(builder.steps));
+		this.limit = builder.limit;
+	}
+
+	public Map<String, Object> getStartQueryParams() { return startQueryParams; }
+	public List<Step> getSteps() { return steps; }
+	public int getDepth() { return steps.size(); }
+
+	/**
+	 * @return The maximum number of objects returned by the traversal, or a negative value
+	 *         if the number of results is unbounded
+	 */
+	public long getLimit() { return limit; }
+
+	/**
+	 * A single hop of a {@link ChampTraversal}.
+	 */
+	public static final class Step {
+		private final ChampDirection direction;
+		private final Set<String> relationshipTypes;
+		private final Map<String, Object> queryParams;
+
+		private Step(ChampDirection direction, Set<String> relationshipTypes, Map<String, Object> queryParams) {
+			this.direction = direction;
+			this.relationshipTypes = Collections.unmodifiableSet(new HashSet<>(relationshipTypes));
+			this.queryParams = Collections.unmodifiableMap(new HashMap<>(queryParams));
+		}
+
+		public ChampDirection getDirection() { return direction; }
+
+		/**
+		 * @return The relationship types crossed by this step, or an empty set for all types
+		 */
+		public Set<String> getRelationshipTypes() { return relationshipTypes; }
+
+		/**
+		 * @return The key/value pairs which the objects reached by this step must match
+		 */
+		public Map<String, Object> getQueryParams() { return queryParams; }
+
+		@Override
+		public String toString() {
+			return "{direction: " + getDirection()
+				+ ", relationshipTypes: " + getRelationshipTypes()
+				+ ", queryParams: " + getQueryParams() + "}";
+		}
+	}
+
+	public static class Builder {
+		private final Map<String, Object> startQueryParams;
+		private final List<Step> steps = new ArrayList<>();
+		private long limit = -1;
+
+		public Builder(Map<String, Object> startQueryParams) {
+			if (startQueryParams == null) throw new IllegalArgumentException("Start query parameters cannot be null");
+
+			this.startQueryParams = startQueryParams;
+		}
+
+		public Builder step(ChampDirection direction, Set<String> relationshipTypes, Map<String, Object> queryParams) {
+			if (direction == null) throw new IllegalArgumentException("Step direction cannot be null");
+			if (relationshipTypes == null) throw new IllegalArgumentException("Step relationship types cannot be null");
+			if (queryParams == null) throw new IllegalArgumentException("Step query parameters cannot be null");
+
+			steps.add(new Step(direction, relationshipTypes, queryParams));
+			return this;
+		}
+
+		public Builder limit(long limit) {
+			this.limit = limit;
+			return this;
+		}
+
+		public ChampTraversal build() {
+			return new ChampTraversal(this);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "{startQueryParams: " + getStartQueryParams()
+			+ ", steps: " + getSteps()
+			+ ", limit: " + getLimit() + "}";
+	}
+}
@@ -20,7 +20,11 @@
  */
 package org.onap.aai.champcore.transform;
 
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Property;
@@ -30,10 +34,16 @@ import org.onap.aai.champcore.exceptions.ChampUnmarshallingException;
 import org.onap.aai.champcore.model.ChampObject;
 import org.onap.aai.champcore.model.ChampRelationship;
 import org.onap.aai.champcore.model.fluent.object.ObjectBuildOrPropertiesStep;
-import org.onap.aai.champcore.model.fluent.relationship.RelationshipBuildOrPropertiesStep;
 
 public final class TinkerpopChampformer implements Champformer<Vertex, Edge> {
 
+	/**
+	 * Upper bound on the number of endpoints remembered by a memo created with
+	 * {@link #newEndpointMemo()}, so that a scan over a very large edge set cannot
+	 * retain every vertex it has visited.
+	 */
+	private static final int ENDPOINT_MEMO_SIZE = 1000;
+
 	@Override
 	public Vertex marshallObject(ChampObject object) throws ChampUnmarshallingException {
 		throw new UnsupportedOperationException("Cannot marshall object to Tinkerpop Vertex without adding it to a graph");
@@ -46,11 +56,31 @@ public final class TinkerpopChampformer implements Champformer<Vertex, Edge> {
 
 	@Override
 	public ChampObject unmarshallObject(Vertex vertex) throws ChampUnmarshallingException {
+		return unmarshallObject(vertex, vertex.properties());
+	}
+
+	/**
+	 * Unmarshalls a vertex, reading only the named properties from the backend.  An empty
+	 * set of keys produces an object with no properties.
+	 */
+	public ChampObject unmarshallObject(Vertex vertex, Set<String> propertyKeys) throws ChampUnmarshallingException {
+		final Iterator<VertexProperty<Object>> properties;
+
+		// Note that Vertex.properties() with no keys returns every property.
+		if (propertyKeys.isEmpty()) {
+			properties = Collections.emptyIterator();
+		} else {
+			properties = vertex.properties(propertyKeys.toArray(new String[propertyKeys.size()]));
+		}
+
+		return unmarshallObject(vertex, properties);
+	}
+
+	private ChampObject unmarshallObject(Vertex vertex, Iterator<VertexProperty<Object>> properties) {
 		final String type = vertex.label();
 		final ObjectBuildOrPropertiesStep aaiObjBuilder = ChampObject.create()
 															.ofType(type)
 															.withKey(vertex.id());
-		final Iterator<VertexProperty<Object>> properties = vertex.properties();
 
 		while (properties.hasNext()) {
 			final VertexProperty<Object> property = properties.next();
@@ -66,18 +96,74 @@ public final class TinkerpopChampformer implements Champformer<Vertex, Edge> {
 
 	@Override
 	public ChampRelationship unmarshallRelationship(Edge edge) throws ChampUnmarshallingException {
-		final ChampObject source = unmarshallObject(edge.outVertex());
-		final ChampObject target = unmarshallObject(edge.inVertex());
+		return unmarshallRelationship(edge, unmarshallObject(edge.outVertex()), unmarshallObject(edge.inVertex()));
+	}
+
+	/**
+	 * Unmarshalls an edge, reading only the named properties of its source and target
+	 * vertices.  An empty set of keys produces endpoints which carry only their key and type,
+	 * avoiding any endpoint property reads.
+	 */
+	public ChampRelationship unmarshallRelationship(Edge edge, Set<String> endpointPropertyKeys) throws ChampUnmarshallingException {
+		return unmarshallRelationship(edge,
+		                              unmarshallObject(edge.outVertex(), endpointPropertyKeys),
+		                              unmarshallObject(edge.inVertex(), endpointPropertyKeys));
+	}
+
+	/**
+	 * Creates a memo of vertex id to unmarshalled endpoint for use while unmarshalling a
+	 * single stream of edges, so that an endpoint shared by many edges (for example the
+	 * vertex whose relationships are being listed) is only read and built once.  The memo
+	 * is bounded and evicts the least recently used endpoints.
+	 * <p>
+	 * The objects held by the memo are never handed out: every relationship unmarshalled
+	 * with it gets its own copy of each endpoint, so callers may modify them freely.
+	 */
+	public static Map<Object, ChampObject> newEndpointMemo() {
+		return new EndpointMemo();
+	}
+
+	/**
+	 * Unmarshalls an edge, taking its source and target from {@code endpointMemo} when they
+	 * have already been unmarshalled for an earlier edge in the same stream.
+	 */
+	public ChampRelationship unmarshallRelationship(Edge edge, Map<Object, ChampObject> endpointMemo) throws ChampUnmarshallingException {
+		return unmarshallRelationship(edge,
+		                              unmarshallEndpoint(edge.outVertex(), null, endpointMemo),
+		                              unmarshallEndpoint(edge.inVertex(), null, endpointMemo));
+	}
+
+	/**
+	 * Unmarshalls an edge, reading only the named properties of endpoints which are not
+	 * already present in {@code endpointMemo}.  The memo must only ever be used with a
+	 * single set of endpoint property keys.
+	 */
+	public ChampRelationship unmarshallRelationship(Edge edge, Set<String> endpointPropertyKeys, Map<Object, ChampObject> endpointMemo) throws ChampUnmarshallingException {
+		return unmarshallRelationship(edge,
+		                              unmarshallEndpoint(edge.outVertex(), endpointPropertyKeys, endpointMemo),
+		                              unmarshallEndpoint(edge.inVertex(), endpointPropertyKeys, endpointMemo));
+	}
+
+	private ChampObject unmarshallEndpoint(Vertex vertex, Set<String> propertyKeys, Map<Object, ChampObject> endpointMemo) throws ChampUnmarshallingException {
+		ChampObject endpoint = endpointMemo.get(vertex.id());
+
+		if (endpoint == null) {
+			endpoint = (propertyKeys == null) ? unmarshallObject(vertex) : unmarshallObject(vertex, propertyKeys);
+			endpointMemo.put(vertex.id(), endpoint);
+		}
+
+		// Relationships sharing an endpoint must not share a mutable ChampObject.
+		return new ChampObject.Builder(endpoint).build();
+	}
+
+	/**
+	 * Builds the relationship around the given endpoints, which must not be shared with any
+	 * other relationship.
+	 */
+	private ChampRelationship unmarshallRelationship(Edge edge, ChampObject source, ChampObject target) {
 		final String type = edge.label();
-		final RelationshipBuildOrPropertiesStep aaiRelBuilder = ChampRelationship.create()
-																			.ofType(type)
-																			.withKey(edge.id())
-																			.withSource()
-																				.from(source)
-																				.build()
-																			.withTarget()
-																				.from(target)
-																				.build();
+		final ChampRelationship.Builder aaiRelBuilder = new ChampRelationship.Builder(source, target, type)
+																			.key(edge.id());
 		final Iterator<Property<Object>> properties = edge.properties();
 		
 		while (properties.hasNext()) {
@@ -85,9 +171,23 @@ public final class TinkerpopChampformer implements Champformer<Vertex, Edge> {
 			
 			if (ChampRelationship.ReservedPropertyKeys.contains(property.key())) continue;
 
-			aaiRelBuilder.withProperty(property.key(), property.value());
+			aaiRelBuilder.property(property.key(), property.value());
 		}
 		
 		return aaiRelBuilder.build();
 	}
+
+	private static final class EndpointMemo extends LinkedHashMap<Object, ChampObject> {
+
+		private static final long serialVersionUID = 1L;
+
+		private EndpointMemo() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, ChampObject> eldest) {
+			return size() > ENDPOINT_MEMO_SIZE;
+		}
+	}
 }
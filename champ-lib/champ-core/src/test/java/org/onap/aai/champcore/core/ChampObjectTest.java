@@ -20,6 +20,8 @@
  */
 package org.onap.aai.champcore.core;
 
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.junit.Test;
 import org.onap.aai.champcore.ChampAPI;
 import org.onap.aai.champcore.ChampCapabilities;
@@ -32,6 +34,7 @@ import org.onap.aai.champcore.exceptions.ChampSchemaViolationException;
 import org.onap.aai.champcore.exceptions.ChampTransactionException;
 import org.onap.aai.champcore.exceptions.ChampUnmarshallingException;
 import org.onap.aai.champcore.graph.impl.InMemoryChampGraphImpl;
+import org.onap.aai.champcore.graph.impl.TinkerpopTransaction;
 import org.onap.aai.champcore.model.ChampCardinality;
 import org.onap.aai.champcore.model.ChampField;
 import org.onap.aai.champcore.model.ChampObject;
@@ -39,11 +42,17 @@ import org.onap.aai.champcore.model.ChampSchema;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 public class ChampObjectTest extends BaseChampAPITest {
@@ -178,6 +187,11 @@ public class ChampObjectTest extends BaseChampAPITest {
       assertTrue(queryByKey.size() == 1);
       assertTrue(queryByKey.get(0).equals(storedBookooObject));
 
+      final Optional<ChampObject> byProperty = graph.retrieveObjectByProperty("property1", "value1", Optional.empty());
+      assertTrue(byProperty.isPresent());
+      assertTrue(byProperty.get().equals(storedBookooObject));
+      assertTrue(!graph.retrieveObjectByProperty("property1", "no-such-value", Optional.empty()).isPresent());
+
       if (!retrievedBookooObject.isPresent()) {
         throw new AssertionError("Failed to retrieve stored object " + bookooObject);
       }
@@ -312,6 +326,153 @@ public class ChampObjectTest extends BaseChampAPITest {
     }
   }
 
+  @Test
+  public void testPagedObjectQuery() throws Exception {
+    final ChampAPI api = ChampAPI.Factory.newInstance("IN_MEMORY");
+    final ChampGraph graph = api.getGraph("testPagedObjectQuery");
+
+    for (int i = 0; i < 5; i++) {
+      graph.storeObject(ChampObject.create()
+          .ofType("foo")
+          .withoutKey()
+          .withProperty("paged", "yes")
+          .build(), Optional.empty());
+    }
+
+    final Map<String, Object> filter = Collections.singletonMap("paged", "yes");
+    final Set<Object> seen = new HashSet<>();
+
+    final List<ChampObject> firstPage = graph.queryObjects(filter, 0, 2).collect(Collectors.toList());
+    final List<ChampObject> secondPage = graph.queryObjects(filter, 2, 2).collect(Collectors.toList());
+    final List<ChampObject> lastPage = graph.queryObjects(filter, 4, 2).collect(Collectors.toList());
+
+    assertTrue(firstPage.size() == 2);
+    assertTrue(secondPage.size() == 2);
+    assertTrue(lastPage.size() == 1);
+
+    for (ChampObject object : firstPage) seen.add(object.getKey().get());
+    for (ChampObject object : secondPage) seen.add(object.getKey().get());
+    for (ChampObject object : lastPage) seen.add(object.getKey().get());
+    assertTrue(seen.size() == 5);
+
+    assertTrue(graph.queryObjects(filter, 5, 2).count() == 0);
+    assertTrue(graph.queryObjects(filter, 1, -1).count() == 4);
+    assertTrue(graph.countObjects(filter) == 5);
+    assertTrue(graph.countObjects(Collections.singletonMap("paged", "no")) == 0);
+
+    api.shutdown();
+  }
+
+  @Test
+  public void testProjectedObjectQuery() throws Exception {
+    final ChampAPI api = ChampAPI.Factory.newInstance("IN_MEMORY");
+    final ChampGraph graph = api.getGraph("testProjectedObjectQuery");
+
+    graph.storeObject(ChampObject.create()
+        .ofType("foo")
+        .withoutKey()
+        .withProperty("projected", "yes")
+        .withProperty("wanted", "value")
+        .withProperty("unwanted", "value")
+        .build(), Optional.empty());
+
+    final Map<String, Object> filter = Collections.singletonMap("projected", "yes");
+
+    final List<ChampObject> projected = graph.queryObjects(filter, Collections.singleton("wanted"), 0, -1)
+        .collect(Collectors.toList());
+    assertTrue(projected.size() == 1);
+    assertTrue(projected.get(0).getProperties().size() == 1);
+    assertTrue(projected.get(0).getProperty("wanted").get().equals("value"));
+    assertTrue(projected.get(0).getKey().isPresent());
+
+    final List<ChampObject> noProperties = graph.queryObjects(filter, Collections.emptySet(), 0, -1)
+        .collect(Collectors.toList());
+    assertTrue(noProperties.size() == 1);
+    assertTrue(noProperties.get(0).getProperties().isEmpty());
+
+    api.shutdown();
+  }
+
+  @Test
+  public void testReplaceObjectPropertyDiff() throws Exception {
+    final InMemoryChampGraphImpl graph = new InMemoryChampGraphImpl.Builder().build();
+
+    final ChampObject stored = graph.storeObject(ChampObject.create()
+        .ofType("foo")
+        .withoutKey()
+        .withProperty("unchanged", "value")
+        .withProperty("changed", "old")
+        .withProperty("removed", "value")
+        .build(), Optional.empty());
+
+    // Every write of a property creates a new vertex property with a new id.
+    final Graph tinkerGraph = ((TinkerpopTransaction) graph.getOrCreateTransactionInstance(Optional.empty())).getGraphInstance();
+    final Object unchangedId = tinkerGraph.vertices(stored.getKey().get()).next().property("unchanged").id();
+    final Object changedId = tinkerGraph.vertices(stored.getKey().get()).next().property("changed").id();
+
+    final ChampObject replaced = graph.replaceObject(ChampObject.create()
+        .ofType("foo")
+        .withKey(stored.getKey().get())
+        .withProperty("unchanged", "value")
+        .withProperty("changed", "new")
+        .withProperty("added", "value")
+        .build(), Optional.empty());
+
+    final ChampObject retrieved = graph.retrieveObject(replaced.getKey().get(), Optional.empty()).get();
+
+    assertTrue(retrieved.getProperties().size() == 3);
+    assertTrue(retrieved.getProperty("unchanged").get().equals("value"));
+    assertTrue(retrieved.getProperty("changed").get().equals("new"));
+    assertTrue(retrieved.getProperty("added").get().equals("value"));
+    assertFalse(retrieved.getProperty("removed").isPresent());
+
+    // Only the properties which differ are written.
+    final Vertex vertex = tinkerGraph.vertices(stored.getKey().get()).next();
+    assertEquals(unchangedId, vertex.property("unchanged").id());
+    assertNotEquals(changedId, vertex.property("changed").id());
+
+    graph.shutdown();
+  }
+
+  @Test
+  public void testPatchObject() throws Exception {
+    final ChampAPI api = ChampAPI.Factory.newInstance("IN_MEMORY");
+    final ChampGraph graph = api.getGraph("testPatchObject");
+
+    final ChampObject stored = graph.storeObject(ChampObject.create()
+        .ofType("foo")
+        .withoutKey()
+        .withProperty("untouched", "value")
+        .withProperty("patched", "old")
+        .build(), Optional.empty());
+
+    final ChampObject patched = graph.patchObject(ChampObject.create()
+        .ofType("foo")
+        .withKey(stored.getKey().get())
+        .withProperty("patched", "new")
+        .withProperty("added", "value")
+        .build(), Optional.empty());
+
+    assertTrue(patched.getProperties().size() == 3);
+    assertTrue(patched.getProperty("untouched").get().equals("value"));
+    assertTrue(patched.getProperty("patched").get().equals("new"));
+    assertTrue(patched.getProperty("added").get().equals("value"));
+    assertTrue(patched.equals(graph.retrieveObject(stored.getKey().get(), Optional.empty()).get()));
+
+    try {
+      graph.patchObject(ChampObject.create()
+          .ofType("foo")
+          .withoutKey()
+          .withProperty("patched", "new")
+          .build(), Optional.empty());
+      throw new AssertionError("Patching an object without a key should fail");
+    } catch (ChampObjectNotExistsException e) {
+      //Expected
+    }
+
+    api.shutdown();
+  }
+
   @Test
   public void testFluentObjectCreation() {
     final Object value1 = new Object();
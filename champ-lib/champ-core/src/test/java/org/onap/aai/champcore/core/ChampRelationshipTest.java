@@ -20,26 +20,42 @@
  */
 package org.onap.aai.champcore.core;
 
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.junit.Test;
 import org.onap.aai.champcore.ChampAPI;
 import org.onap.aai.champcore.ChampGraph;
 import org.onap.aai.champcore.ChampTransaction;
 import org.onap.aai.champcore.exceptions.*;
+import org.onap.aai.champcore.graph.impl.AbstractTinkerpopChampGraph;
+import org.onap.aai.champcore.graph.impl.InMemoryChampGraphImpl;
+import org.onap.aai.champcore.model.ChampDirection;
+import org.onap.aai.champcore.model.ChampField;
 import org.onap.aai.champcore.model.ChampObject;
 import org.onap.aai.champcore.model.ChampRelationship;
 import org.onap.aai.champcore.model.ChampRelationship.Builder;
 import org.onap.aai.champcore.model.ChampRelationship.ReservedPropertyKeys;
 import org.onap.aai.champcore.model.ChampRelationship.ReservedTypes;
+import org.onap.aai.champcore.model.ChampSchema;
+import org.onap.aai.champcore.model.ChampTraversal;
+import org.onap.aai.champcore.transform.TinkerpopChampformer;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class ChampRelationshipTest extends BaseChampAPITest {
 
@@ -92,6 +108,27 @@ public class ChampRelationshipTest extends BaseChampAPITest {
       assertTrue(retrievedRelationship.get().getProperty("property-1").get().equals("value-1"));
       assertTrue(retrievedRelationship.get().getProperty("property-2").get().equals(3));
 
+      final Optional<ChampRelationship> byProperty = graph.retrieveRelationshipByProperty("property-1", "value-1", Optional.of(tx));
+      assertTrue(byProperty.isPresent());
+      assertTrue(byProperty.get().equals(storedRelationship));
+      assertTrue(graph.countRelationships(Collections.singletonMap("property-1", "value-1"), Optional.of(tx)) == 1);
+
+      final List<ChampRelationship> shallow = graph.retrieveRelationships(storedSource, Collections.emptySet(), Optional.of(tx))
+          .collect(Collectors.toList());
+      assertTrue(shallow.size() == 1);
+      assertTrue(shallow.get(0).getSource().getKey().equals(storedSource.getKey()));
+      assertTrue(shallow.get(0).getSource().getType().equals("foo"));
+      assertTrue(shallow.get(0).getSource().getProperties().isEmpty());
+      assertTrue(shallow.get(0).getProperty("property-1").get().equals("value-1"));
+
+      final Set<String> relationshipType = Collections.singleton("relationship");
+      assertTrue(graph.retrieveRelationships(storedSource, ChampDirection.OUT, relationshipType, Collections.emptyMap(), Optional.of(tx)).count() == 1);
+      assertTrue(graph.retrieveRelationships(storedSource, ChampDirection.IN, relationshipType, Collections.emptyMap(), Optional.of(tx)).count() == 0);
+      assertTrue(graph.retrieveRelationships(storedTarget, ChampDirection.IN, Collections.emptySet(), Collections.emptyMap(), Optional.of(tx)).count() == 1);
+      assertTrue(graph.retrieveRelationships(storedSource, ChampDirection.BOTH, Collections.singleton("other"), Collections.emptyMap(), Optional.of(tx)).count() == 0);
+      assertTrue(graph.retrieveRelationships(storedSource, ChampDirection.OUT, relationshipType, Collections.singletonMap("property-2", 3), Optional.of(tx)).count() == 1);
+      assertTrue(graph.retrieveRelationships(storedSource, ChampDirection.OUT, relationshipType, Collections.singletonMap("property-2", 4), Optional.of(tx)).count() == 0);
+
       if (!graph.retrieveRelationships(storedRelationship.getSource(), Optional.of(tx)).collect(Collectors.toList()).contains(storedRelationship)) {
         throw new AssertionError("Failed to retrieve relationships for source object");
       }
@@ -237,6 +274,195 @@ public class ChampRelationshipTest extends BaseChampAPITest {
 
   }
 
+  @Test
+  public void testPatchRelationship() throws Exception {
+    final ChampAPI api = ChampAPI.Factory.newInstance("IN_MEMORY");
+    final ChampGraph graph = api.getGraph("ChampRelationshipPatchTest");
+
+    final ChampObject source = graph.storeObject(ChampObject.create().ofType("foo").withoutKey().build());
+    final ChampObject target = graph.storeObject(ChampObject.create().ofType("foo").withoutKey().build());
+    final ChampRelationship stored = graph.storeRelationship(new ChampRelationship.Builder(source, target, "relationship")
+        .property("untouched", "value")
+        .property("patched", "old")
+        .build());
+
+    final ChampRelationship patched = graph.patchRelationship(new ChampRelationship.Builder(source, target, "relationship")
+        .key(stored.getKey().get())
+        .property("patched", "new")
+        .build());
+
+    assertEquals(2, patched.getProperties().size());
+    assertEquals("value", patched.getProperty("untouched").get());
+    assertEquals("new", patched.getProperty("patched").get());
+    assertEquals(patched, graph.retrieveRelationship(stored.getKey().get()).get());
+
+    api.shutdown();
+  }
+
+  @Test
+  public void testPatchRelationshipValidatesOnlyTheRelationship() throws Exception {
+    final ChampGraph graph = new InMemoryChampGraphImpl.Builder().build();
+    final ChampObject source = graph.storeObject(ChampObject.create().ofType("foo").withoutKey().withProperty("other", "value").build());
+    final ChampObject target = graph.storeObject(ChampObject.create().ofType("foo").withoutKey().build());
+    final ChampRelationship stored = graph.storeRelationship(new ChampRelationship.Builder(source, target, "relationship").build());
+
+    // The stored endpoints do not satisfy the new schema, but a patch leaves them untouched.
+    graph.storeSchema(ChampSchema.create()
+        .withObjectConstraint()
+          .onType("foo")
+          .withPropertyConstraint()
+            .onField("name")
+            .required()
+            .build()
+          .build()
+        .withRelationshipConstraint()
+          .onType("relationship")
+          .withPropertyConstraint()
+            .onField("weight")
+            .ofType(ChampField.Type.INTEGER)
+            .optional()
+            .build()
+          .build()
+        .build());
+
+    try {
+      graph.patchRelationship(new ChampRelationship.Builder(source, target, "relationship")
+          .key(stored.getKey().get())
+          .property("weight", "heavy")
+          .build());
+      fail("Expected the patched relationship to violate the schema");
+    } catch (ChampSchemaViolationException e) {
+      assertFalse(graph.retrieveRelationship(stored.getKey().get()).get().getProperty("weight").isPresent());
+    }
+
+    final ChampRelationship patched = graph.patchRelationship(new ChampRelationship.Builder(source, target, "relationship")
+        .key(stored.getKey().get())
+        .property("weight", 1)
+        .build());
+    assertEquals(1, patched.getProperty("weight").get());
+    assertEquals("value", patched.getSource().getProperty("other").get());
+    graph.shutdown();
+  }
+
+  @Test
+  public void testStoreRelationshipDoesNotRewriteEndpoints() throws Exception {
+    final ChampGraph graph = new InMemoryChampGraphImpl.Builder().build();
+    final ChampObject source = graph.storeObject(ChampObject.create().ofType("foo").withoutKey().withProperty("name", "stored").build());
+    final ChampObject target = graph.storeObject(ChampObject.create().ofType("foo").withoutKey().build());
+
+    final ChampObject staleSource = ChampObject.create().from(source).withKey(source.getKey().get()).withProperty("name", "stale").build();
+    graph.storeRelationship(new ChampRelationship.Builder(staleSource, target, "relationship").build());
+    assertEquals("stored", graph.retrieveObject(source.getKey().get()).get().getProperty("name").get());
+    graph.shutdown();
+
+    final ChampGraph upsertGraph = new InMemoryChampGraphImpl.Builder()
+        .property(AbstractTinkerpopChampGraph.PARAM_UPSERT_RELATIONSHIP_ENDPOINTS, true)
+        .build();
+    final ChampObject upsertSource = upsertGraph.storeObject(ChampObject.create().ofType("foo").withoutKey().withProperty("name", "stored").build());
+    final ChampObject upsertTarget = upsertGraph.storeObject(ChampObject.create().ofType("foo").withoutKey().build());
+
+    final ChampObject staleUpsertSource = ChampObject.create().from(upsertSource).withKey(upsertSource.getKey().get()).withProperty("name", "stale").build();
+    upsertGraph.storeRelationship(new ChampRelationship.Builder(staleUpsertSource, upsertTarget, "relationship").build());
+    assertEquals("stale", upsertGraph.retrieveObject(upsertSource.getKey().get()).get().getProperty("name").get());
+    upsertGraph.shutdown();
+  }
+
+  @Test
+  public void testEndpointMemoDoesNotShareEndpoints() throws Exception {
+    final TinkerGraph graph = TinkerGraph.open();
+    final Vertex hub = graph.addVertex("foo");
+    hub.property("name", "stored");
+    final Edge first = hub.addEdge("relationship", graph.addVertex("foo"));
+    final Edge second = hub.addEdge("relationship", graph.addVertex("foo"));
+
+    final TinkerpopChampformer champformer = new TinkerpopChampformer();
+    final Map<Object, ChampObject> endpointMemo = TinkerpopChampformer.newEndpointMemo();
+    final ChampRelationship firstRelationship = champformer.unmarshallRelationship(first, endpointMemo);
+
+    // The shared endpoint is taken from the memo rather than read again.
+    hub.property("name", "changed");
+    final ChampRelationship secondRelationship = champformer.unmarshallRelationship(second, endpointMemo);
+    assertEquals(3, endpointMemo.size());
+    assertEquals("stored", secondRelationship.getSource().getProperty("name").get());
+
+    // Each relationship gets its own copy of the shared endpoint.
+    assertNotSame(firstRelationship.getSource(), secondRelationship.getSource());
+    assertNotSame(endpointMemo.get(hub.id()), secondRelationship.getSource());
+    firstRelationship.getSource().dropProperties(new HashSet<>());
+    assertFalse(firstRelationship.getSource().getProperty("name").isPresent());
+    assertEquals("stored", secondRelationship.getSource().getProperty("name").get());
+    assertEquals("stored", endpointMemo.get(hub.id()).getProperty("name").get());
+
+    graph.close();
+  }
+
+  @Test
+  public void testEndpointMemoEvictsLeastRecentlyUsed() {
+    final Map<Object, ChampObject> endpointMemo = TinkerpopChampformer.newEndpointMemo();
+    for (int i = 0; i < 1000; i++) {
+      endpointMemo.put(i, ChampObject.create().ofType("foo").withKey(i).build());
+    }
+
+    // Reading the eldest entry makes it the most recently used, so the next one is evicted.
+    endpointMemo.get(0);
+    endpointMemo.put(1000, ChampObject.create().ofType("foo").withKey(1000).build());
+
+    assertEquals(1000, endpointMemo.size());
+    assertTrue(endpointMemo.containsKey(0));
+    assertFalse(endpointMemo.containsKey(1));
+    assertTrue(endpointMemo.containsKey(1000));
+  }
+
+  @Test
+  public void testMultiHopTraversal() throws Exception {
+    final ChampAPI api = ChampAPI.Factory.newInstance("IN_MEMORY");
+    final ChampGraph graph = api.getGraph("ChampRelationshipTraversalTest");
+
+    final ChampObject server = graph.storeObject(ChampObject.create().ofType("server").withoutKey().withProperty("name", "server").build());
+    final ChampObject vm1 = graph.storeObject(ChampObject.create().ofType("vm").withoutKey().withProperty("name", "vm1").build());
+    final ChampObject vm2 = graph.storeObject(ChampObject.create().ofType("vm").withoutKey().withProperty("name", "vm2").build());
+    final ChampObject app = graph.storeObject(ChampObject.create().ofType("app").withoutKey().withProperty("name", "app").build());
+    final ChampObject site = graph.storeObject(ChampObject.create().ofType("site").withoutKey().withProperty("name", "site").build());
+
+    graph.storeRelationship(new ChampRelationship.Builder(server, vm1, "hosts").build());
+    graph.storeRelationship(new ChampRelationship.Builder(server, vm2, "hosts").build());
+    graph.storeRelationship(new ChampRelationship.Builder(vm1, app, "runs").build());
+    graph.storeRelationship(new ChampRelationship.Builder(vm2, app, "runs").build());
+    graph.storeRelationship(new ChampRelationship.Builder(server, site, "locatedIn").build());
+
+    final ChampTraversal serverToApps = new ChampTraversal.Builder(Collections.singletonMap("name", "server"))
+        .step(ChampDirection.OUT, Collections.singleton("hosts"), Collections.emptyMap())
+        .step(ChampDirection.OUT, Collections.singleton("runs"), Collections.emptyMap())
+        .build();
+
+    final List<ChampObject> apps = graph.traverse(serverToApps).collect(Collectors.toList());
+    assertEquals(1, apps.size());
+    assertEquals(app.getKey(), apps.get(0).getKey());
+
+    final ChampTraversal appToVm1 = new ChampTraversal.Builder(Collections.singletonMap(ChampObject.ReservedPropertyKeys.CHAMP_OBJECT_KEY.toString(), app.getKey().get()))
+        .step(ChampDirection.IN, Collections.emptySet(), Collections.singletonMap("name", "vm1"))
+        .build();
+
+    final List<ChampObject> vms = graph.traverse(appToVm1).collect(Collectors.toList());
+    assertEquals(1, vms.size());
+    assertEquals(vm1.getKey(), vms.get(0).getKey());
+
+    final ChampTraversal serverNeighbours = new ChampTraversal.Builder(Collections.singletonMap("name", "server"))
+        .step(ChampDirection.BOTH, Collections.emptySet(), Collections.emptyMap())
+        .build();
+
+    assertEquals(3, graph.traverse(serverNeighbours).count());
+    assertEquals(2, graph.traverse(new ChampTraversal.Builder(Collections.singletonMap("name", "server"))
+        .step(ChampDirection.BOTH, Collections.emptySet(), Collections.emptyMap())
+        .limit(2)
+        .build()).count());
+    assertEquals(0, graph.traverse(new ChampTraversal.Builder(Collections.singletonMap("name", "server"))
+        .step(ChampDirection.IN, Collections.emptySet(), Collections.emptyMap())
+        .build()).count());
+
+    api.shutdown();
+  }
+
   @Test
   public void testFluentRelationshipCreation() {
     final Object value1 = new Object();
@@ -20,11 +20,17 @@
  */
 package org.onap.aai.champcore.core;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -48,7 +54,11 @@ import org.onap.aai.champcore.NoOpTinkerPopTransaction;
 import org.onap.aai.champcore.exceptions.ChampIndexNotExistsException;
 import org.onap.aai.champcore.exceptions.ChampTransactionException;
 import org.onap.aai.champcore.graph.impl.AbstractTinkerpopChampGraph;
+import org.onap.aai.champcore.graph.impl.CommitRetryPolicy;
+import org.onap.aai.champcore.graph.impl.GroupCommitCoordinator;
+import org.onap.aai.champcore.graph.impl.ReadOnlyTinkerpopTransaction;
 import org.onap.aai.champcore.graph.impl.TinkerpopTransaction;
+import org.onap.aai.champcore.model.ChampObject;
 import org.onap.aai.champcore.model.ChampObjectIndex;
 import org.onap.aai.champcore.model.ChampRelationshipIndex;
 import org.onap.aai.champcore.schema.ChampSchemaEnforcer;
@@ -173,6 +183,179 @@ public class ChampTransactionTest {
     assertTrue("Failed rollback should have produced an exception.", exceptionThrown);
   }
 
+  /**
+   * This test validates that a read-only transaction is released rather than committed,
+   * and only released once.
+   */
+  @Test
+  public void testReadOnlyTransaction() {
+
+    g.setFailCommits(false);
+
+    ReadOnlyTinkerpopTransaction t = new ReadOnlyTinkerpopTransaction(g);
+    t.commit();
+    t.close();
+    t.rollback();
+
+    assertEquals(0, g.commitCount);
+    assertEquals(1, g.rollbackCount);
+  }
+
+  /**
+   * This test validates that failed commits are retried as allowed by the retry policy,
+   * and that failures which the policy classifies as non-retryable are not retried.
+   */
+  @Test
+  public void testCommitRetryPolicy() {
+
+    g.setFailCommits(true);
+
+    CommitRetryPolicy retryAll = new CommitRetryPolicy.Builder()
+        .maxAttempts(4).baseBackoffMs(1).maxBackoffMs(2).deadlineMs(10000).build();
+    try {
+      new TinkerpopTransaction(g, retryAll).commit();
+      fail("Failed commit should have produced an exception.");
+    } catch (ChampTransactionException e) {
+      assertEquals(4, retryAll.getAttempts());
+      assertEquals(3, retryAll.getRetries());
+      assertEquals(1, retryAll.getAbandoned());
+    }
+
+    CommitRetryPolicy retryNone = new CommitRetryPolicy.Builder()
+        .maxAttempts(4).retryOn(e -> false).build();
+    try {
+      new TinkerpopTransaction(g, retryNone).commit();
+      fail("Failed commit should have produced an exception.");
+    } catch (ChampTransactionException e) {
+      assertEquals(1, retryNone.getAttempts());
+      assertEquals(0, retryNone.getRetries());
+    }
+  }
+
+  /**
+   * This test validates that the backoff before the first retry is jittered too, rather than
+   * always being the base backoff.
+   */
+  @Test
+  public void testFirstRetryBackoffJittered() {
+
+    CommitRetryPolicy policy = new CommitRetryPolicy.Builder()
+        .maxAttempts(4).baseBackoffMs(10).maxBackoffMs(1000).deadlineMs(10000).build();
+    Set<Long> backoffs = new HashSet<>();
+    for (int i = 0; i < 20; i++) {
+      long backoff = policy.nextBackoff(new RuntimeException(), 1, 0, 0);
+      assertTrue(backoff >= 10 && backoff <= 30);
+      backoffs.add(backoff);
+    }
+    assertTrue(backoffs.size() > 1);
+  }
+
+  /**
+   * This test validates that transactions handed out by the group commit coordinator
+   * within the same window share a single backend commit, and that every participant
+   * sees the outcome of that commit.
+   */
+  @Test
+  public void testGroupCommit() throws Exception {
+
+    g.setFailCommits(false);
+    GroupCommitCoordinator coordinator = new GroupCommitCoordinator(g, new CommitRetryPolicy.Builder().build(), 60000, 3, 60000);
+    ExecutorService pool = Executors.newFixedThreadPool(3);
+
+    try {
+
+      // Three concurrent commits fill the window, so they should be committed together.
+      for (Future<?> result : commitConcurrently(coordinator, pool, 3)) {
+        result.get(10, TimeUnit.SECONDS);
+      }
+      assertEquals(1, g.commitCount);
+
+      // A failed backend commit should be reported to every participant.
+      g.setFailCommits(true);
+      for (Future<?> result : commitConcurrently(coordinator, pool, 3)) {
+        try {
+          result.get(10, TimeUnit.SECONDS);
+          fail("Failed group commit should have produced an exception.");
+        } catch (ExecutionException e) {
+          assertTrue(e.getCause() instanceof ChampTransactionException);
+        }
+      }
+
+      // A rollback by one participant rolls back the whole window.
+      g.setFailCommits(false);
+      ChampTransaction rolledBack = coordinator.join();
+      List<Future<?>> results = commitConcurrently(coordinator, pool, 2);
+      rolledBack.rollback();
+      for (Future<?> result : results) {
+        try {
+          result.get(10, TimeUnit.SECONDS);
+          fail("Commit of a rolled back window should have produced an exception.");
+        } catch (ExecutionException e) {
+          assertTrue(e.getCause() instanceof GroupCommitCoordinator.WindowAbortedException);
+        }
+      }
+      assertEquals(1, g.commitCount);
+
+    } finally {
+      coordinator.shutdown();
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * This test validates that a write which fails with an unexpected exception does not hold
+   * up the other writes in its group commit window, and that those writes still succeed on
+   * their own once the window has been rolled back.
+   */
+  @Test
+  public void testGroupCommitFailedWrite() throws Exception {
+
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AbstractTinkerpopChampGraph.PARAM_GROUP_COMMIT_ENABLED, true);
+    properties.put(AbstractTinkerpopChampGraph.PARAM_GROUP_COMMIT_WINDOW_MS, 60000L);
+    properties.put(AbstractTinkerpopChampGraph.PARAM_GROUP_COMMIT_MAX_SIZE, 3);
+    properties.put(AbstractTinkerpopChampGraph.PARAM_GROUP_COMMIT_MAX_WAIT_MS, 60000L);
+    TestTinkerpopGraph graph = new TestTinkerpopGraph(properties);
+    ExecutorService pool = Executors.newFixedThreadPool(3);
+
+    try {
+      List<Future<ChampObject>> results = new ArrayList<>();
+      for (String type : Arrays.asList("pserver", TestGraph.FAILING_TYPE, "pserver")) {
+        results.add(pool.submit(() -> graph.doStoreObject(ChampObject.create().ofType(type).withoutKey().build(), Optional.empty())));
+      }
+
+      // The failed write gets its own exception...
+      try {
+        results.get(1).get(10, TimeUnit.SECONDS);
+        fail("Write of a failing vertex should have produced an exception.");
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+
+      // ...while the others are redone and committed on their own.
+      assertTrue(results.get(0).get(10, TimeUnit.SECONDS).getKey().isPresent());
+      assertTrue(results.get(2).get(10, TimeUnit.SECONDS).getKey().isPresent());
+      assertEquals(2, g.commitCount);
+      assertEquals(1, g.rollbackCount);
+
+    } finally {
+      graph.shutdown();
+      pool.shutdownNow();
+    }
+  }
+
+  private List<Future<?>> commitConcurrently(GroupCommitCoordinator coordinator, ExecutorService pool, int count) {
+    List<Future<?>> results = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ChampTransaction t = coordinator.join();
+      results.add(pool.submit(() -> {
+        t.commit();
+        return null;
+      }));
+    }
+    return results;
+  }
+
   @Test
   public void test() throws ChampTransactionException {
     
@@ -247,8 +430,16 @@ public class ChampTransactionTest {
   
   private class TestGraph implements Graph {
 
+    /** Type of vertex which cannot be added to the graph. */
+    static final String FAILING_TYPE = "failing";
+
+    /** Holds the vertices added through this graph. */
+    private final TinkerGraph store = TinkerGraph.open();
+
     private boolean supportsTransactions = true;
     private boolean failCommits = false;
+    private int commitCount = 0;
+    private int rollbackCount = 0;
     
     
     public void setTransactionSupport(boolean supportsTransactions) {
@@ -260,8 +451,10 @@ public class ChampTransactionTest {
     }
     @Override
     public Vertex addVertex(Object... keyValues) {
-      // TODO Auto-generated method stub
-      return null;
+      if (Arrays.asList(keyValues).contains(FAILING_TYPE)) {
+        throw new IllegalStateException("Cannot add a " + FAILING_TYPE + " vertex");
+      }
+      return store.addVertex(keyValues);
     }
 
     @Override
@@ -308,8 +501,7 @@ public class ChampTransactionTest {
 
     @Override
     public Iterator<Vertex> vertices(Object... vertexIds) {
-      // TODO Auto-generated method stub
-      return null;
+      return store.vertices(vertexIds);
     }
     
     /**
@@ -369,6 +561,9 @@ public class ChampTransactionTest {
       if(g.failCommits) {
         throw new UnsupportedOperationException();
       } 
+      synchronized (g) {
+        g.commitCount++;
+      }
     }
 
     @Override
@@ -417,6 +612,9 @@ public class ChampTransactionTest {
       if(g.failCommits) {
         throw new UnsupportedOperationException();
       } 
+      synchronized (g) {
+        g.rollbackCount++;
+      }
     }
 
     @Override
@@ -435,7 +633,7 @@ public class ChampTransactionTest {
 
     @Override
     protected Graph getGraph() {
-      return TinkerGraph.open();
+      return g;
     }
 
     
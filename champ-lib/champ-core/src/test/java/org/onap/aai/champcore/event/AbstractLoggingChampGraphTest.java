@@ -20,21 +20,32 @@
  */
 package org.onap.aai.champcore.event;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.onap.aai.champcore.ChampCapabilities;
 import org.onap.aai.champcore.ChampTransaction;
+import org.onap.aai.champcore.event.ChampEvent.ChampOperation;
+import org.onap.aai.champcore.event.envelope.ChampEventEncoding;
+import org.onap.aai.champcore.event.envelope.ChampEventEnvelope;
 import org.onap.aai.champcore.exceptions.ChampIndexNotExistsException;
 import org.onap.aai.champcore.exceptions.ChampMarshallingException;
 import org.onap.aai.champcore.exceptions.ChampObjectNotExistsException;
@@ -42,6 +53,7 @@ import org.onap.aai.champcore.exceptions.ChampRelationshipNotExistsException;
 import org.onap.aai.champcore.exceptions.ChampSchemaViolationException;
 import org.onap.aai.champcore.exceptions.ChampTransactionException;
 import org.onap.aai.champcore.exceptions.ChampUnmarshallingException;
+import org.onap.aai.champcore.model.ChampDirection;
 import org.onap.aai.champcore.model.ChampObject;
 import org.onap.aai.champcore.model.ChampObjectConstraint;
 import org.onap.aai.champcore.model.ChampObjectIndex;
@@ -50,14 +62,21 @@ import org.onap.aai.champcore.model.ChampRelationship;
 import org.onap.aai.champcore.model.ChampRelationshipConstraint;
 import org.onap.aai.champcore.model.ChampRelationshipIndex;
 import org.onap.aai.champcore.model.ChampSchema;
+import org.onap.aai.champcore.model.ChampTraversal;
 
 import org.onap.aai.event.api.EventPublisher;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 
 public class AbstractLoggingChampGraphTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   /** Event stream producer stub. */
   private InMemoryPublisher producer;
   
@@ -112,6 +131,7 @@ public class AbstractLoggingChampGraphTest {
    */
   @Test
   public void vertexOperationsEmptyTransactionsTest() throws ChampMarshallingException, 
+                                                             ChampUnmarshallingException, 
                                                              ChampSchemaViolationException, 
                                                              ChampObjectNotExistsException, 
                                                              InterruptedException, 
@@ -153,6 +173,17 @@ public class AbstractLoggingChampGraphTest {
     assertTrue("Expected REPLACE event.", loggedEventStr.contains("REPLACE"));
     assertTrue("Entity type for store event was not a vertex.", loggedEventStr.contains("vertex"));
     
+    // Patch a single property of the vertex, which is reported as a replace.
+    testGraph.patchObject(ChampObject.create()
+        .ofType("foo")
+        .withKey("123")
+        .withProperty("p1", "v4")
+        .build(), Optional.empty());
+    
+    loggedEventStr = producer.eventStream.poll(5000, TimeUnit.MILLISECONDS);
+    assertTrue("Expected REPLACE event.", loggedEventStr.contains("REPLACE"));
+    assertTrue("Entity type for patch event was not a vertex.", loggedEventStr.contains("vertex"));
+    
     // Finally, delete the vertex.
     testGraph.deleteObject("123", Optional.empty());
     
@@ -348,6 +379,15 @@ public class AbstractLoggingChampGraphTest {
     assertTrue("Expected REPLACE event.", loggedEventStr.contains("REPLACE"));
     assertTrue("Entity type for store event was not an edge.", loggedEventStr.contains("relationship"));
     
+    // Patch a single property of the edge, which is reported as a replace.
+    testGraph.patchRelationship(new ChampRelationship.Builder(rel2)
+        .property("property-1", "value-4")
+        .build(), Optional.empty());
+
+    loggedEventStr = producer.eventStream.poll(5000, TimeUnit.MILLISECONDS);
+    assertTrue("Expected REPLACE event.", loggedEventStr.contains("REPLACE"));
+    assertTrue("Entity type for patch event was not an edge.", loggedEventStr.contains("relationship"));
+    
     // Finally, delete our edge.
     testGraph.deleteRelationship(rel2, Optional.empty());
     
@@ -781,6 +821,589 @@ public class AbstractLoggingChampGraphTest {
   }
       
   
+  /**
+   * Validates that the events of a transaction are handed off as a single batch once the
+   * transaction has been committed.
+   */
+  @Test
+  public void transactionEventsPublishedOnCommitTest() throws Exception {
+
+    TestTransaction transaction = new TestTransaction();
+    for(int i=0; i<3; i++) {
+      transaction.logEvent(event("tx" + i));
+    }
+    assertNull(producer.eventStream.poll(200, TimeUnit.MILLISECONDS));
+
+    testGraph.commitTransaction(transaction);
+
+    assertTrue(transaction.committed);
+
+    // Several publisher workers are running, so the events may be published in any order.
+    String published = "";
+    for(int i=0; i<3; i++) {
+      published += producer.eventStream.poll(5000, TimeUnit.MILLISECONDS);
+    }
+    for(int i=0; i<3; i++) {
+      assertTrue(published.contains("\"tx" + i + "\""));
+    }
+  }
+
+  /**
+   * Validates that, with the REJECT policy, a transaction whose events do not fit in the
+   * event queue is not committed.
+   */
+  @Test
+  public void queueFullRejectPolicyTest() throws Exception {
+
+    GatedPublisher gatedProducer = new GatedPublisher();
+    TestGraph graph = new TestGraph(queueFullProperties(gatedProducer, "reject"));
+    try {
+      fillQueue(graph, gatedProducer);
+
+      TestTransaction transaction = new TestTransaction();
+      transaction.logEvent(event("tx0"));
+      try {
+        graph.commitTransaction(transaction);
+        fail("Expected commit to be rejected");
+      } catch (ChampTransactionException e) {
+        assertTrue(e.getMessage().contains("event queue is full"));
+      }
+      assertFalse(transaction.committed);
+
+      // A write made outside of a transaction cannot be refused, so its event is handled as
+      // for BLOCK: discarded once the timeout expires.
+      graph.logEvent(event("nt"));
+
+      // Once the queue drains the transaction can be committed.
+      gatedProducer.gate.countDown();
+      for(int i=0; i<3; i++) {
+        assertTrue(gatedProducer.eventStream.poll(5000, TimeUnit.MILLISECONDS).contains("e" + i));
+      }
+      graph.commitTransaction(transaction);
+      assertTrue(transaction.committed);
+      assertTrue(gatedProducer.eventStream.poll(5000, TimeUnit.MILLISECONDS).contains("tx0"));
+    } finally {
+      gatedProducer.gate.countDown();
+      graph.shutdown();
+    }
+  }
+
+  /**
+   * Validates that, with the REJECT policy, room for the events of a transaction is claimed
+   * before it is committed, so that concurrent commits cannot overflow the event queue.
+   */
+  @Test
+  public void queueFullRejectPolicyClaimTest() throws Exception {
+
+    GatedPublisher gatedProducer = new GatedPublisher();
+    TestGraph graph = new TestGraph(queueFullProperties(gatedProducer, "reject"));
+    try {
+      // Block the publisher worker on the first event, leaving the queue empty.
+      graph.logEvent(event("e0"));
+      assertTrue(gatedProducer.entered.await(5000, TimeUnit.MILLISECONDS));
+
+      CountDownLatch committing = new CountDownLatch(1);
+      CountDownLatch finishCommit = new CountDownLatch(1);
+      TestTransaction slowTransaction = new TestTransaction() {
+        @Override
+        public void commit() {
+          committing.countDown();
+          try {
+            finishCommit.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          super.commit();
+        }
+      };
+      slowTransaction.logEvent(event("slow"));
+      Thread committer = new Thread(() -> {
+        try {
+          graph.commitTransaction(slowTransaction);
+        } catch (ChampTransactionException e) {
+          fail(e.getMessage());
+        }
+      });
+      committer.start();
+      assertTrue(committing.await(5000, TimeUnit.MILLISECONDS));
+
+      // The slow transaction holds one of the two slots while it commits.
+      assertEquals(0, graph.eventQueue.size());
+      assertEquals(1, graph.eventQueue.remainingCapacity());
+      TestTransaction transaction = new TestTransaction();
+      transaction.logEvent(event("tx0"));
+      transaction.logEvent(event("tx1"));
+      try {
+        graph.commitTransaction(transaction);
+        fail("Expected commit to be rejected");
+      } catch (ChampTransactionException e) {
+        assertTrue(e.getMessage().contains("event queue is full"));
+      }
+      assertFalse(transaction.committed);
+
+      finishCommit.countDown();
+      committer.join(5000);
+      assertTrue(slowTransaction.committed);
+      assertEquals(1, graph.eventQueue.size());
+
+      gatedProducer.gate.countDown();
+      for(String expected : Arrays.asList("e0", "slow")) {
+        String published = gatedProducer.eventStream.poll(5000, TimeUnit.MILLISECONDS);
+        assertTrue("Expected " + expected + " but got " + published, published.contains("\"" + expected + "\""));
+      }
+    } finally {
+      gatedProducer.gate.countDown();
+      graph.shutdown();
+    }
+  }
+
+  /**
+   * Validates that, with the REJECT policy, the room claimed for a transaction is given back
+   * if its commit fails.
+   */
+  @Test
+  public void queueFullRejectPolicyFailedCommitTest() throws Exception {
+
+    GatedPublisher gatedProducer = new GatedPublisher();
+    TestGraph graph = new TestGraph(queueFullProperties(gatedProducer, "reject"));
+    try {
+      graph.logEvent(event("e0"));
+      assertTrue(gatedProducer.entered.await(5000, TimeUnit.MILLISECONDS));
+
+      ChampTransaction failingTransaction = new ChampTransaction() {
+        @Override
+        public void commit() throws ChampTransactionException {
+          throw new ChampTransactionException("commit failed");
+        }
+
+        @Override
+        public void rollback() {
+        }
+      };
+      failingTransaction.logEvent(event("failed0"));
+      failingTransaction.logEvent(event("failed1"));
+      try {
+        graph.commitTransaction(failingTransaction);
+        fail("Expected commit to fail");
+      } catch (ChampTransactionException e) {
+        assertEquals("commit failed", e.getMessage());
+      }
+      assertEquals(0, graph.eventQueue.size());
+      assertEquals(2, graph.eventQueue.remainingCapacity());
+
+      TestTransaction transaction = new TestTransaction();
+      transaction.logEvent(event("tx0"));
+      transaction.logEvent(event("tx1"));
+      graph.commitTransaction(transaction);
+      assertTrue(transaction.committed);
+
+      gatedProducer.gate.countDown();
+      for(String expected : Arrays.asList("e0", "tx0", "tx1")) {
+        String published = gatedProducer.eventStream.poll(5000, TimeUnit.MILLISECONDS);
+        assertTrue("Expected " + expected + " but got " + published, published.contains("\"" + expected + "\""));
+      }
+    } finally {
+      gatedProducer.gate.countDown();
+      graph.shutdown();
+    }
+  }
+
+  /**
+   * Validates that, with the SPILL policy, events that do not fit in the event queue are
+   * published in order once the queue drains.
+   */
+  @Test
+  public void queueFullSpillPolicyTest() throws Exception {
+
+    GatedPublisher gatedProducer = new GatedPublisher();
+    TestGraph graph = new TestGraph(queueFullProperties(gatedProducer, "spill"));
+    try {
+      fillQueue(graph, gatedProducer);
+
+      TestTransaction transaction = new TestTransaction();
+      for(int i=0; i<3; i++) {
+        transaction.logEvent(event("tx" + i));
+      }
+      graph.commitTransaction(transaction);
+      assertTrue(transaction.committed);
+      assertFalse(graph.spillLog.isEmpty());
+
+      // Later events are spilled behind the earlier ones, even though there is room for them now.
+      graph.logEvent(event("last"));
+
+      gatedProducer.gate.countDown();
+      for(String expected : Arrays.asList("e0", "e1", "e2", "tx0", "tx1", "tx2", "last")) {
+        String published = gatedProducer.eventStream.poll(5000, TimeUnit.MILLISECONDS);
+        assertTrue("Expected " + expected + " but got " + published, published.contains("\"" + expected + "\""));
+      }
+      assertTrue(awaitSpillLogEmpty(graph));
+    } finally {
+      gatedProducer.gate.countDown();
+      graph.shutdown();
+    }
+  }
+
+  /**
+   * Validates that the SPILL policy cannot be used without a spill directory, since spilled
+   * events could not be replayed after a restart.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void queueFullSpillPolicyRequiresDirectoryTest() throws Exception {
+
+    Map<String, Object> graphProperties = queueFullProperties(producer, "spill");
+    graphProperties.remove(AbstractLoggingChampGraph.PARAM_EVENT_SPILL_DIRECTORY);
+    new TestGraph(graphProperties);
+  }
+
+  /**
+   * Validates that a batch is added to the queue as a whole or not at all.
+   */
+  @Test
+  public void eventQueueBatchTest() throws Exception {
+
+    ChampEventQueue queue = new BlockingChampEventQueue(3);
+    assertTrue(queue.offerAll(Arrays.asList(event("a"), event("b"))));
+    assertFalse(queue.offerAll(Arrays.asList(event("c"), event("d"))));
+    assertEquals(2, queue.size());
+    assertFalse(queue.offerAll(Arrays.asList(event("c"), event("d")), 50, TimeUnit.MILLISECONDS));
+
+    List<ChampEvent> drained = new ArrayList<>();
+    assertEquals(2, queue.drainTo(drained, 10));
+    assertEquals("a", drained.get(0).getVertex().getKey().get());
+
+    // A batch larger than the whole queue is accepted once the queue is empty.
+    assertTrue(queue.offerAll(Arrays.asList(event("c"), event("d"), event("e"), event("f"))));
+    assertEquals(4, queue.size());
+    assertEquals(0, queue.remainingCapacity());
+    assertEquals("c", queue.poll(0, TimeUnit.MILLISECONDS).getVertex().getKey().get());
+  }
+
+  /**
+   * Validates that room claimed in the queue counts as used until the claim is used or
+   * released.
+   */
+  @Test
+  public void eventQueueClaimTest() throws Exception {
+
+    ChampEventQueue queue = new BlockingChampEventQueue(3);
+    ChampEventQueue.Claim claim = queue.tryClaim(2);
+    assertEquals(1, queue.remainingCapacity());
+    assertNull(queue.tryClaim(2));
+    assertFalse(queue.offerAll(Arrays.asList(event("a"), event("b"))));
+    assertTrue(queue.offerAll(Arrays.asList(event("a"))));
+
+    claim.release();
+    assertEquals(2, queue.remainingCapacity());
+    claim = queue.tryClaim(2);
+    claim.offerAll(Arrays.asList(event("b"), event("c")));
+    assertEquals(3, queue.size());
+    assertEquals(0, queue.remainingCapacity());
+
+    try {
+      claim.release();
+      fail("Expected a used claim to be refused");
+    } catch (IllegalStateException e) {
+      assertEquals(3, queue.size());
+    }
+  }
+
+  /**
+   * Validates that the publisher workers send the events that are available, up to the
+   * configured batch size, in a single batch.
+   */
+  @Test
+  public void publisherBatchingTest() throws Exception {
+
+    BatchRecordingPublisher batchProducer = new BatchRecordingPublisher();
+    Map<String, Object> graphProperties = new HashMap<String, Object>();
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_STREAM_PRODUCER, batchProducer);
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_STREAM_PUBLISHER_POOL_SIZE, 1);
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_STREAM_PUBLISHER_BATCH_SIZE, 3);
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_STREAM_PUBLISHER_LINGER_MS, 60000L);
+    TestGraph graph = new TestGraph(graphProperties);
+    try {
+      // The first batch fills up before the linger time expires...
+      for(int i=0; i<3; i++) {
+        graph.logEvent(event("b" + i));
+      }
+      for(int i=0; i<3; i++) {
+        assertTrue(batchProducer.eventStream.poll(5000, TimeUnit.MILLISECONDS).contains("\"b" + i + "\""));
+      }
+      assertEquals(Arrays.asList(3), batchProducer.batchSizes);
+
+      // ...and a larger hand-off is split at the batch size.
+      graph.logEvents(Arrays.asList(event("c0"), event("c1"), event("c2"), event("c3"), event("c4"), event("c5")));
+      for(int i=0; i<6; i++) {
+        assertTrue(batchProducer.eventStream.poll(5000, TimeUnit.MILLISECONDS).contains("\"c" + i + "\""));
+      }
+      assertEquals(Arrays.asList(3, 3, 3), batchProducer.batchSizes);
+    } finally {
+      graph.shutdown();
+    }
+  }
+
+  /**
+   * Validates that events are published when the ring buffer event queue is selected.
+   */
+  @Test
+  public void ringBufferEventQueueTest() throws Exception {
+
+    Map<String, Object> graphProperties = new HashMap<String, Object>();
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_STREAM_PRODUCER, producer);
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_QUEUE_TYPE, AbstractLoggingChampGraph.EVENT_QUEUE_TYPE_RING_BUFFER);
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_QUEUE_WAIT_STRATEGY, "yielding");
+    TestGraph graph = new TestGraph(graphProperties);
+    try {
+      assertTrue(graph.eventQueue instanceof RingBufferChampEventQueue);
+
+      TestTransaction transaction = new TestTransaction();
+      for(int i=0; i<3; i++) {
+        transaction.logEvent(event("r" + i));
+      }
+      graph.commitTransaction(transaction);
+
+      String published = "";
+      for(int i=0; i<3; i++) {
+        published += producer.eventStream.poll(5000, TimeUnit.MILLISECONDS);
+      }
+      for(int i=0; i<3; i++) {
+        assertTrue(published.contains("\"r" + i + "\""));
+      }
+    } finally {
+      graph.shutdown();
+    }
+  }
+
+  /**
+   * Validates that events are published as base64 encoded Smile envelopes when the Smile
+   * encoding is configured.
+   */
+  @Test
+  public void smileEventEncodingTest() throws Exception {
+
+    Map<String, Object> graphProperties = new HashMap<String, Object>();
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_STREAM_PRODUCER, producer);
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_STREAM_ENCODING, "smile");
+    TestGraph graph = new TestGraph(graphProperties);
+    try {
+      graph.logEvent(event("e0"));
+
+      String published = producer.eventStream.poll(5000, TimeUnit.MILLISECONDS);
+      assertEquals(ChampEventEncoding.SMILE, ChampEventEncoding.detect(published));
+
+      JsonNode envelope = new ObjectMapper(new SmileFactory()).readTree(Base64.getDecoder().decode(published));
+      assertEquals("smile", envelope.path("header").path("content-encoding").asText());
+      assertEquals("e0", envelope.path("body").path("vertex").path("key").asText());
+    } finally {
+      graph.shutdown();
+    }
+  }
+
+  /**
+   * Validates that events left in the spill log when the graph was shut down are published
+   * when it is started again.
+   */
+  @Test
+  public void spilledEventsReplayedAfterRestartTest() throws Exception {
+
+    GatedPublisher gatedProducer = new GatedPublisher();
+    Map<String, Object> graphProperties = queueFullProperties(gatedProducer, "spill");
+    File spillDirectory = new File(graphProperties.get(AbstractLoggingChampGraph.PARAM_EVENT_SPILL_DIRECTORY).toString());
+    try(ChampEventSpillLog spillLog = new ChampEventSpillLog(spillDirectory, 4096)) {
+      spillLog.append(Arrays.asList(new ChampEventEnvelope(event("s0")).toJson(),
+          new ChampEventEnvelope(event("s1")).toJson()));
+    }
+
+    gatedProducer.gate.countDown();
+    TestGraph graph = new TestGraph(graphProperties);
+    try {
+      assertTrue(gatedProducer.eventStream.poll(5000, TimeUnit.MILLISECONDS).contains("\"s0\""));
+      assertTrue(gatedProducer.eventStream.poll(5000, TimeUnit.MILLISECONDS).contains("\"s1\""));
+    } finally {
+      graph.shutdown();
+    }
+  }
+
+  /**
+   * Validates that a spill log holding many batches is replayed back-to-back, rather than one
+   * batch per poll interval.
+   */
+  @Test
+  public void spilledBatchesReplayedBackToBackTest() throws Exception {
+
+    Map<String, Object> graphProperties = queueFullProperties(producer, "spill");
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_STREAM_PUBLISHER_BATCH_SIZE, 1);
+    File spillDirectory = new File(graphProperties.get(AbstractLoggingChampGraph.PARAM_EVENT_SPILL_DIRECTORY).toString());
+    int batches = 20;
+    try(ChampEventSpillLog spillLog = new ChampEventSpillLog(spillDirectory, 4096)) {
+      for(int i=0; i<batches; i++) {
+        spillLog.append(Arrays.asList(new ChampEventEnvelope(event("b" + i)).toJson()));
+      }
+    }
+
+    long start = System.currentTimeMillis();
+    TestGraph graph = new TestGraph(graphProperties);
+    try {
+      for(int i=0; i<batches; i++) {
+        String published = producer.eventStream.poll(5000, TimeUnit.MILLISECONDS);
+        assertTrue("Expected b" + i + " but got " + published, published.contains("\"b" + i + "\""));
+      }
+      long elapsed = System.currentTimeMillis() - start;
+      assertTrue("Replay took " + elapsed + "ms", elapsed < batches * 100 / 2);
+    } finally {
+      graph.shutdown();
+    }
+  }
+
+  /**
+   * Validates that spilled events which fail to publish stay in the spill log and are
+   * published by a later attempt.
+   */
+  @Test
+  public void failedSpillReplayRetriedTest() throws Exception {
+
+    FailingPublisher failingProducer = new FailingPublisher(1);
+    Map<String, Object> graphProperties = queueFullProperties(failingProducer, "spill");
+    File spillDirectory = new File(graphProperties.get(AbstractLoggingChampGraph.PARAM_EVENT_SPILL_DIRECTORY).toString());
+    try(ChampEventSpillLog spillLog = new ChampEventSpillLog(spillDirectory, 4096)) {
+      spillLog.append(Arrays.asList(new ChampEventEnvelope(event("f0")).toJson(),
+          new ChampEventEnvelope(event("f1")).toJson()));
+    }
+
+    TestGraph graph = new TestGraph(graphProperties);
+    try {
+      assertTrue(failingProducer.eventStream.poll(5000, TimeUnit.MILLISECONDS).contains("\"f0\""));
+      assertTrue(failingProducer.eventStream.poll(5000, TimeUnit.MILLISECONDS).contains("\"f1\""));
+      assertEquals(0, failingProducer.failures.get());
+      assertTrue(awaitSpillLogEmpty(graph));
+    } finally {
+      graph.shutdown();
+    }
+  }
+
+
+  private Map<String, Object> queueFullProperties(EventPublisher publisher, String policy) {
+    Map<String, Object> graphProperties = new HashMap<String, Object>();
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_STREAM_PRODUCER, publisher);
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_QUEUE_CAPACITY, 2);
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_STREAM_PUBLISHER_POOL_SIZE, 1);
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_QUEUE_FULL_POLICY, policy);
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_QUEUE_FULL_TIMEOUT_MS, 100L);
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_SPILL_DIRECTORY, new File(folder.getRoot(), "spill").getPath());
+    graphProperties.put(AbstractLoggingChampGraph.PARAM_EVENT_SPILL_SEGMENT_SIZE, 4096);
+    return graphProperties;
+  }
+
+  /**
+   * Waits for the publisher workers to acknowledge everything in the spill log.
+   */
+  private boolean awaitSpillLogEmpty(TestGraph graph) throws InterruptedException {
+    for(int i=0; i<50 && !graph.spillLog.isEmpty(); i++) {
+      Thread.sleep(100);
+    }
+    return graph.spillLog.isEmpty();
+  }
+
+  /**
+   * Blocks the single publisher worker on the first event and fills the queue behind it.
+   */
+  private void fillQueue(TestGraph graph, GatedPublisher gatedProducer) throws InterruptedException {
+    graph.logEvent(event("e0"));
+    assertTrue(gatedProducer.entered.await(5000, TimeUnit.MILLISECONDS));
+    graph.logEvents(Arrays.asList(event("e1"), event("e2")));
+    assertEquals(0, graph.eventQueue.remainingCapacity());
+  }
+
+  private ChampEvent event(String key) {
+    return ChampEvent.builder()
+        .operation(ChampOperation.STORE)
+        .entity(ChampObject.create().ofType("foo").withKey(key).build())
+        .build();
+  }
+
+  private class TestTransaction extends ChampTransaction {
+
+    private boolean committed = false;
+
+    @Override
+    public void commit() {
+      committed = true;
+    }
+
+    @Override
+    public void rollback() {
+    }
+  }
+
+  /**
+   * Publisher stub that blocks the first publish until the gate is opened.
+   */
+  private class GatedPublisher extends InMemoryPublisher {
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch gate = new CountDownLatch(1);
+
+    @Override
+    public int sendSync(String partitionKey, String message) throws Exception {
+      entered.countDown();
+      gate.await();
+      return super.sendSync(partitionKey, message);
+    }
+  }
+
+
+  /**
+   * Publisher stub whose first sends fail.
+   */
+  private class FailingPublisher extends InMemoryPublisher {
+
+    private final AtomicInteger failures;
+
+    FailingPublisher(int failures) {
+      this.failures = new AtomicInteger(failures);
+    }
+
+    @Override
+    public int sendSync(String partitionKey, String message) throws Exception {
+      failIfRequired();
+      return super.sendSync(partitionKey, message);
+    }
+
+    @Override
+    public int sendSync(String partitionKey, Collection<String> messages) throws Exception {
+      failIfRequired();
+      return super.sendSync(partitionKey, messages);
+    }
+
+    private void failIfRequired() throws Exception {
+      if(failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+        throw new Exception("Event bus unavailable");
+      }
+    }
+  }
+
+
+  /**
+   * Publisher stub that records the size of every batch it is asked to send.
+   */
+  private class BatchRecordingPublisher extends InMemoryPublisher {
+
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+
+    @Override
+    public int sendSync(String partitionKey, String message) throws Exception {
+      batchSizes.add(1);
+      return super.sendSync(partitionKey, message);
+    }
+
+    @Override
+    public int sendSync(String partitionKey, Collection<String> messages) throws Exception {
+      batchSizes.add(messages.size());
+      return super.sendSync(partitionKey, messages);
+    }
+  }
+
+
   /**
    * This is a simple graph stub that extends our {@link AbstractLoggingChampGraph} class which 
    * we can use to validate that log events get generated without worrying about having a real
@@ -834,6 +1457,19 @@ public class AbstractLoggingChampGraphTest {
       }
     }
 
+    @Override
+    public ChampObject executePatchObject(ChampObject object, Optional<ChampTransaction> transaction) 
+        throws ChampMarshallingException,
+               ChampSchemaViolationException, 
+               ChampObjectNotExistsException {
+      
+      if(!returnNulls) {
+        return object;
+      } else {
+        return null;
+      }
+    }
+
     @Override
     public Optional<ChampObject> retrieveObject(Object key) throws ChampUnmarshallingException {
       return retrieveObject(key, Optional.empty());
@@ -852,6 +1488,17 @@ public class AbstractLoggingChampGraphTest {
       }
     }
 
+    @Override
+    public Optional<ChampObject> retrieveObjectByProperty(String propertyName, Object value) throws ChampUnmarshallingException {
+      return retrieveObjectByProperty(propertyName, value, Optional.empty());
+    }
+
+    @Override
+    public Optional<ChampObject> retrieveObjectByProperty(String propertyName, Object value, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException {
+      // Not used by any tests.
+      return null;
+    }
+
     @Override
     public void executeDeleteObject(Object key, Optional<ChampTransaction> transaction) throws ChampObjectNotExistsException {
    
@@ -869,6 +1516,39 @@ public class AbstractLoggingChampGraphTest {
       return null;
     }
 
+    @Override
+    public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, long offset, long limit) {
+      return queryObjects(queryParams, offset, limit, Optional.empty());
+    }
+
+    @Override
+    public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, long offset, long limit, Optional<ChampTransaction> transaction) {
+      // Not used by any tests.
+      return null;
+    }
+
+    @Override
+    public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, Set<String> propertyKeys, long offset, long limit) {
+      return queryObjects(queryParams, propertyKeys, offset, limit, Optional.empty());
+    }
+
+    @Override
+    public Stream<ChampObject> queryObjects(Map<String, Object> queryParams, Set<String> propertyKeys, long offset, long limit, Optional<ChampTransaction> transaction) {
+      // Not used by any tests.
+      return null;
+    }
+
+    @Override
+    public long countObjects(Map<String, Object> queryParams) {
+      return countObjects(queryParams, Optional.empty());
+    }
+
+    @Override
+    public long countObjects(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) {
+      // Not used by any tests.
+      return 0;
+    }
+
     @Override
     public ChampRelationship executeStoreRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction) 
         throws ChampUnmarshallingException, 
@@ -898,6 +1578,20 @@ public class AbstractLoggingChampGraphTest {
       }
     }
 
+    @Override
+    public ChampRelationship executePatchRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction)
+        throws ChampUnmarshallingException, 
+               ChampMarshallingException,
+               ChampSchemaViolationException, 
+               ChampRelationshipNotExistsException {
+
+      if(!returnNulls) {
+        return relationship;
+      } else {
+        return null;
+      }
+    }
+
     @Override
     public Optional<ChampRelationship> retrieveRelationship(Object key) throws ChampUnmarshallingException {
       return retrieveRelationship(key, Optional.empty());
@@ -909,6 +1603,17 @@ public class AbstractLoggingChampGraphTest {
       return null;
     }
 
+    @Override
+    public Optional<ChampRelationship> retrieveRelationshipByProperty(String propertyName, Object value) throws ChampUnmarshallingException {
+      return retrieveRelationshipByProperty(propertyName, value, Optional.empty());
+    }
+
+    @Override
+    public Optional<ChampRelationship> retrieveRelationshipByProperty(String propertyName, Object value, Optional<ChampTransaction> transaction) throws ChampUnmarshallingException {
+      // Not used by any tests.
+      return null;
+    }
+
     @Override
     public void executeDeleteRelationship(ChampRelationship relationship, Optional<ChampTransaction> transaction) throws ChampRelationshipNotExistsException {
       // Not used by any tests.   
@@ -928,6 +1633,32 @@ public class AbstractLoggingChampGraphTest {
       return null;
     }
 
+    @Override
+    public Stream<ChampRelationship> retrieveRelationships(ChampObject object, Set<String> endpointPropertyKeys)
+        throws ChampUnmarshallingException, ChampObjectNotExistsException {
+      return retrieveRelationships(object, endpointPropertyKeys, Optional.empty());
+    }
+
+    @Override
+    public Stream<ChampRelationship> retrieveRelationships(ChampObject object, Set<String> endpointPropertyKeys, Optional<ChampTransaction> transaction)
+        throws ChampUnmarshallingException, ChampObjectNotExistsException {
+      // Not used by any tests.
+      return null;
+    }
+
+    @Override
+    public Stream<ChampRelationship> retrieveRelationships(ChampObject object, ChampDirection direction, Set<String> types, Map<String, Object> queryParams)
+        throws ChampUnmarshallingException, ChampObjectNotExistsException {
+      return retrieveRelationships(object, direction, types, queryParams, Optional.empty());
+    }
+
+    @Override
+    public Stream<ChampRelationship> retrieveRelationships(ChampObject object, ChampDirection direction, Set<String> types, Map<String, Object> queryParams, Optional<ChampTransaction> transaction)
+        throws ChampUnmarshallingException, ChampObjectNotExistsException {
+      // Not used by any tests.
+      return null;
+    }
+
     @Override
     public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams) {
       return queryRelationships(queryParams, Optional.empty());
@@ -940,6 +1671,50 @@ public class AbstractLoggingChampGraphTest {
       return null;
     }
 
+    @Override
+    public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, long offset, long limit) {
+      return queryRelationships(queryParams, offset, limit, Optional.empty());
+    }
+
+    @Override
+    public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, long offset, long limit, Optional<ChampTransaction> transaction) {
+      // Not used by any tests.
+      return null;
+    }
+
+    @Override
+    public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, Set<String> endpointPropertyKeys, long offset, long limit) {
+      return queryRelationships(queryParams, endpointPropertyKeys, offset, limit, Optional.empty());
+    }
+
+    @Override
+    public Stream<ChampRelationship> queryRelationships(Map<String, Object> queryParams, Set<String> endpointPropertyKeys, long offset, long limit, Optional<ChampTransaction> transaction) {
+      // Not used by any tests.
+      return null;
+    }
+
+    @Override
+    public long countRelationships(Map<String, Object> queryParams) {
+      return countRelationships(queryParams, Optional.empty());
+    }
+
+    @Override
+    public long countRelationships(Map<String, Object> queryParams, Optional<ChampTransaction> transaction) {
+      // Not used by any tests.
+      return 0;
+    }
+
+    @Override
+    public Stream<ChampObject> traverse(ChampTraversal traversal) {
+      return traverse(traversal, Optional.empty());
+    }
+
+    @Override
+    public Stream<ChampObject> traverse(ChampTraversal traversal, Optional<ChampTransaction> transaction) {
+      // Not used by any tests.
+      return null;
+    }
+
     @Override
     public ChampPartition executeStorePartition(ChampPartition partition, Optional<ChampTransaction> transaction) 
         throws ChampSchemaViolationException, 
@@ -1062,9 +1837,8 @@ public class AbstractLoggingChampGraphTest {
     }
 
     @Override
-    public void commitTransaction(ChampTransaction transaction) {
-      // Not used by any tests.
-      
+    public void commitTransaction(ChampTransaction transaction) throws ChampTransactionException {
+      super.commitTransaction(transaction);
     }
 
     @Override
@@ -1108,7 +1882,6 @@ public class AbstractLoggingChampGraphTest {
       for(String msg : messages) {
         if(!failMode) {
           eventStream.add(msg);
-          return 0;
         } else {
           failedMsgs.add(msg);
           throw new IOException("nope");
@@ -1134,7 +1907,6 @@ public class AbstractLoggingChampGraphTest {
       for(String msg : messages) {
         if(!failMode) {
           eventStream.add(msg);
-          return 0;
         } else {
           failedMsgs.add(msg);
           throw new IOException("nope");
@@ -0,0 +1,158 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ChampEventSpillLogTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File directory;
+
+  @Before
+  public void setup() throws IOException {
+    directory = new File(folder.getRoot(), "spill");
+  }
+
+  @Test
+  public void messagesAreReadInOrder() throws IOException {
+    try(ChampEventSpillLog log = new ChampEventSpillLog(directory, 1024)) {
+      assertTrue(log.isEmpty());
+      assertTrue(log.read(10).isEmpty());
+
+      log.append(Arrays.asList("one", "two", "three"));
+      log.append(Collections.singletonList("föur"));
+      assertFalse(log.isEmpty());
+
+      assertEquals(Arrays.asList("one", "two"), log.read(2));
+      assertEquals(Arrays.asList("three", "föur"), log.read(10));
+      assertTrue(log.isEmpty());
+
+      log.append(Collections.singletonList("five"));
+      assertEquals(Arrays.asList("five"), log.read(10));
+    }
+  }
+
+  @Test
+  public void consumedSegmentsAreDeleted() throws IOException {
+    try(ChampEventSpillLog log = new ChampEventSpillLog(directory, 32)) {
+      List<String> messages = new ArrayList<>();
+      for(int i=0; i<20; i++) {
+        messages.add("message-" + i);
+      }
+      log.append(messages);
+      assertTrue(segmentCount() > 5);
+
+      // A record larger than a whole segment gets a segment of its own.
+      String large = new String(new char[100]).replace('\0', 'x');
+      log.append(Collections.singletonList(large));
+
+      List<String> read = new ArrayList<>();
+      read.addAll(log.read(7));
+      assertTrue(segmentCount() < 20);
+      read.addAll(log.read(100));
+      assertEquals(21, read.size());
+      assertEquals(messages, read.subList(0, 20));
+      assertEquals(large, read.get(20));
+
+      assertTrue(log.isEmpty());
+      assertEquals(1, segmentCount());
+    }
+  }
+
+  @Test
+  public void unreadMessagesSurviveReopen() throws IOException {
+    try(ChampEventSpillLog log = new ChampEventSpillLog(directory, 48)) {
+      log.append(Arrays.asList("a1", "a2", "a3", "a4", "a5", "a6", "a7", "a8"));
+      assertEquals(Arrays.asList("a1", "a2", "a3"), log.read(3));
+    }
+
+    try(ChampEventSpillLog log = new ChampEventSpillLog(directory, 48)) {
+      assertFalse(log.isEmpty());
+      log.append(Arrays.asList("b1"));
+      assertEquals(Arrays.asList("a4", "a5", "a6", "a7", "a8", "b1"), log.read(100));
+      assertTrue(log.isEmpty());
+    }
+
+    try(ChampEventSpillLog log = new ChampEventSpillLog(directory, 48)) {
+      assertTrue(log.isEmpty());
+    }
+  }
+
+  @Test
+  public void peekedMessagesAreOnlyConsumedOnAcknowledge() throws IOException {
+    try(ChampEventSpillLog log = new ChampEventSpillLog(directory, 32)) {
+      log.append(Arrays.asList("spilled-p1", "spilled-p2", "spilled-p3", "spilled-p4", "spilled-p5"));
+      int segments = segmentCount();
+
+      // A released batch is returned again, and nothing else is handed out while it is outstanding.
+      assertEquals(Arrays.asList("spilled-p1", "spilled-p2", "spilled-p3"), log.peek(3));
+      assertTrue(log.peek(3).isEmpty());
+      log.release();
+      assertEquals(Arrays.asList("spilled-p1", "spilled-p2", "spilled-p3"), log.peek(3));
+      assertEquals(segments, segmentCount());
+
+      log.acknowledge();
+      assertTrue(segmentCount() < segments);
+      assertEquals(Arrays.asList("spilled-p4", "spilled-p5"), log.peek(10));
+    }
+
+    // The unacknowledged batch is replayed after a restart.
+    try(ChampEventSpillLog log = new ChampEventSpillLog(directory, 32)) {
+      assertEquals(Arrays.asList("spilled-p4", "spilled-p5"), log.peek(10));
+      log.acknowledge();
+      assertTrue(log.isEmpty());
+    }
+  }
+
+  @Test
+  public void directoryCanOnlyBeOpenedOnce() throws IOException {
+    try(ChampEventSpillLog log = new ChampEventSpillLog(directory, 1024)) {
+      try {
+        new ChampEventSpillLog(directory, 1024);
+        fail("Expected the spill directory to be locked");
+      } catch (IOException e) {
+        assertTrue(e.getMessage().contains("in use"));
+      }
+    }
+  }
+
+  private int segmentCount() {
+    return directory.list((dir, name) -> name.endsWith(".log")).length;
+  }
+}
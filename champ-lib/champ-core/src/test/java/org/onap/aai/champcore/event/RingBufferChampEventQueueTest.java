@@ -0,0 +1,230 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.aai.champcore.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.onap.aai.champcore.event.ChampEvent.ChampOperation;
+import org.onap.aai.champcore.event.RingBufferChampEventQueue.WaitStrategy;
+import org.onap.aai.champcore.model.ChampObject;
+
+public class RingBufferChampEventQueueTest {
+
+  @Test
+  public void capacityIsRoundedToPowerOfTwo() {
+    assertEquals(1, new RingBufferChampEventQueue(1, WaitStrategy.SLEEPING).capacity());
+    assertEquals(4, new RingBufferChampEventQueue(3, WaitStrategy.SLEEPING).capacity());
+    assertEquals(16384, new RingBufferChampEventQueue(10000, WaitStrategy.SLEEPING).capacity());
+  }
+
+  @Test
+  public void batchesAreAcceptedWholeOrNotAtAll() throws Exception {
+    RingBufferChampEventQueue queue = new RingBufferChampEventQueue(4, WaitStrategy.YIELDING);
+
+    assertTrue(queue.offerAll(Arrays.asList(event("a"), event("b"), event("c"))));
+    assertFalse(queue.offerAll(Arrays.asList(event("d"), event("e"))));
+    assertFalse(queue.offerAll(Arrays.asList(event("d"), event("e")), 20, TimeUnit.MILLISECONDS));
+    assertEquals(3, queue.size());
+    assertEquals(1, queue.remainingCapacity());
+
+    assertEquals("a", key(queue.poll(0, TimeUnit.MILLISECONDS)));
+    assertTrue(queue.offerAll(Arrays.asList(event("d"), event("e"))));
+
+    // Draining wraps around the end of the ring.
+    List<ChampEvent> drained = new ArrayList<>();
+    assertEquals(4, queue.drainTo(drained, 10));
+    assertEquals(Arrays.asList("b", "c", "d", "e"), keys(drained));
+    assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    assertEquals(0, queue.drainTo(drained, 10));
+  }
+
+  @Test
+  public void claimedRoomIsHeldUntilUsedOrReleased() throws Exception {
+    RingBufferChampEventQueue queue = new RingBufferChampEventQueue(4, WaitStrategy.YIELDING);
+
+    ChampEventQueue.Claim released = queue.tryClaim(2);
+    ChampEventQueue.Claim used = queue.tryClaim(1);
+    assertNull(queue.tryClaim(2));
+    assertFalse(queue.offerAll(Arrays.asList(event("a"), event("b"))));
+    assertTrue(queue.offerAll(Arrays.asList(event("a"))));
+    assertEquals(0, queue.remainingCapacity());
+
+    // Outstanding claims don't hold up the consumers.
+    assertEquals("a", key(queue.poll(10, TimeUnit.MILLISECONDS)));
+    assertEquals(1, queue.remainingCapacity());
+
+    released.release();
+    assertEquals(3, queue.remainingCapacity());
+    used.offerAll(Arrays.asList(event("b")));
+
+    List<ChampEvent> drained = new ArrayList<>();
+    assertEquals(1, queue.drainTo(drained, 10));
+    assertEquals(Arrays.asList("b"), keys(drained));
+    assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    assertEquals(4, queue.remainingCapacity());
+  }
+
+  @Test
+  public void oversizedClaimOnlyFitsAnEmptyRing() throws Exception {
+    RingBufferChampEventQueue queue = new RingBufferChampEventQueue(2, WaitStrategy.SLEEPING);
+    assertTrue(queue.offerAll(Arrays.asList(event("a"))));
+    assertNull(queue.tryClaim(3));
+    assertEquals("a", key(queue.poll(0, TimeUnit.MILLISECONDS)));
+
+    ChampEventQueue.Claim claim = queue.tryClaim(3);
+    assertNotNull(claim);
+    assertFalse(queue.offerAll(Arrays.asList(event("x"))));
+    claim.release();
+    assertTrue(queue.offerAll(Arrays.asList(event("x"))));
+  }
+
+  @Test
+  public void oversizedBatchIsPublishedAsConsumersFreeSlots() throws Exception {
+    RingBufferChampEventQueue queue = new RingBufferChampEventQueue(2, WaitStrategy.SLEEPING);
+    assertTrue(queue.offerAll(Arrays.asList(event("a"))));
+    assertFalse(queue.offerAll(Arrays.asList(event("b"), event("c"), event("d"))));
+
+    assertEquals("a", key(queue.poll(0, TimeUnit.MILLISECONDS)));
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Boolean> offered = executor.submit(() ->
+          queue.offerAll(Arrays.asList(event("b"), event("c"), event("d"), event("e"), event("f"))));
+
+      List<String> received = new ArrayList<>();
+      while(received.size() < 5) {
+        ChampEvent event = queue.poll(5, TimeUnit.SECONDS);
+        assertTrue(event != null);
+        received.add(key(event));
+      }
+      assertTrue(offered.get(5, TimeUnit.SECONDS));
+      assertEquals(Arrays.asList("b", "c", "d", "e", "f"), received);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void concurrentProducersAndConsumers() throws Exception {
+    final int producers = 4;
+    final int batches = 2000;
+    final int batchSize = 5;
+    final int total = producers * batches * batchSize;
+
+    RingBufferChampEventQueue queue = new RingBufferChampEventQueue(64, WaitStrategy.YIELDING);
+    ExecutorService executor = Executors.newFixedThreadPool(producers + 2);
+    try {
+      for(int p=0; p<producers; p++) {
+        final int producer = p;
+        executor.submit(() -> {
+          for(int b=0; b<batches; b++) {
+            List<ChampEvent> batch = new ArrayList<>(batchSize);
+            for(int i=0; i<batchSize; i++) {
+              batch.add(event(producer + ":" + (b * batchSize + i)));
+            }
+            queue.offerAll(batch, 1, TimeUnit.MINUTES);
+          }
+          return null;
+        });
+      }
+
+      // Two consumers, one taking single events and one draining batches.
+      AtomicInteger consumed = new AtomicInteger();
+      Map<String, Integer> lastSeen = new HashMap<>();
+      List<Future<List<String>>> consumers = new ArrayList<>();
+      for(int c=0; c<2; c++) {
+        final boolean drain = c == 0;
+        consumers.add(executor.submit(() -> {
+          List<String> received = new ArrayList<>();
+          List<ChampEvent> events = new ArrayList<>();
+          while(consumed.get() < total) {
+            events.clear();
+            if(drain) {
+              queue.drainTo(events, 16);
+            } else {
+              ChampEvent event = queue.poll(10, TimeUnit.MILLISECONDS);
+              if(event != null) {
+                events.add(event);
+              }
+            }
+            for(ChampEvent event : events) {
+              received.add(key(event));
+            }
+            consumed.addAndGet(events.size());
+          }
+          return received;
+        }));
+      }
+
+      // Every event is received exactly once, and each consumer sees the events of a
+      // producer in the order they were offered.
+      int received = 0;
+      for(Future<List<String>> consumer : consumers) {
+        lastSeen.clear();
+        for(String key : consumer.get(1, TimeUnit.MINUTES)) {
+          String[] parts = key.split(":");
+          Integer previous = lastSeen.put(parts[0], Integer.valueOf(parts[1]));
+          assertTrue(previous == null || previous < Integer.parseInt(parts[1]));
+          received++;
+        }
+      }
+      assertEquals(total, received);
+      assertEquals(0, queue.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static ChampEvent event(String key) {
+    return ChampEvent.builder()
+        .operation(ChampOperation.STORE)
+        .entity(ChampObject.create().ofType("foo").withKey(key).build())
+        .build();
+  }
+
+  private static String key(ChampEvent event) {
+    return event.getVertex().getKey().get().toString();
+  }
+
+  private static List<String> keys(List<ChampEvent> events) {
+    List<String> keys = new ArrayList<>();
+    for(ChampEvent event : events) {
+      keys.add(key(event));
+    }
+    return keys;
+  }
+}
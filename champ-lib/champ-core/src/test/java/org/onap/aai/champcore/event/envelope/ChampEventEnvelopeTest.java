@@ -24,6 +24,7 @@ package org.onap.aai.champcore.event.envelope;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.util.Base64;
 import org.junit.Assert;
 import org.junit.Test;
 import org.onap.aai.champcore.event.ChampEvent;
@@ -35,8 +36,11 @@ import org.skyscreamer.jsonassert.JSONAssert;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 import org.skyscreamer.jsonassert.comparator.CustomComparator;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 public class ChampEventEnvelopeTest {
 
@@ -144,4 +148,55 @@ public class ChampEventEnvelopeTest {
       Assert.assertEquals(header1, header2);
       
     }
+
+    @Test
+    public void testSharedWriterMatchesFreshMapper() throws Exception {
+        ChampEvent event = ChampEvent.builder()
+                .operation(ChampEvent.ChampOperation.STORE)
+                .entity(new ChampObject.Builder("pserver").key("1234").property("hostname", "host1").build())
+                .build();
+        ChampEventEnvelope envelope = new ChampEventEnvelope(event);
+
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+        Assert.assertEquals(mapper.writeValueAsString(event), event.toJson());
+        Assert.assertEquals(event.toJson(), event.toString());
+        Assert.assertEquals(mapper.writeValueAsString(envelope), envelope.toJson());
+        Assert.assertEquals(mapper.writeValueAsString(envelope.getHeader()), envelope.getHeader().toJson());
+    }
+
+    @Test
+    public void testSmileEncoding() throws Exception {
+        ChampEvent event = ChampEvent.builder()
+                .operation(ChampEvent.ChampOperation.STORE)
+                .entity(new ChampObject.Builder("pserver").key("1234").property("hostname", "host1").build())
+                .build();
+        ChampEventEnvelope envelope = new ChampEventEnvelope(event);
+
+        String json = envelope.encode(ChampEventEncoding.JSON);
+        Assert.assertEquals(envelope.toJson(), json);
+        Assert.assertEquals(ChampEventEncoding.JSON, ChampEventEncoding.detect(json));
+        Assert.assertNull(envelope.getHeader().getContentEncoding());
+
+        String smile = envelope.encode(ChampEventEncoding.SMILE);
+        Assert.assertEquals(ChampEventEncoding.SMILE, ChampEventEncoding.detect(smile));
+        Assert.assertEquals("smile", envelope.getHeader().getContentEncoding());
+
+        JsonNode decoded = new ObjectMapper(new SmileFactory()).readTree(Base64.getDecoder().decode(smile));
+        Assert.assertEquals(new ObjectMapper().readTree(envelope.toJson()), decoded);
+        Assert.assertEquals("smile", decoded.path("header").path("content-encoding").asText());
+    }
+
+    @Test
+    public void testEncodingFromName() {
+        Assert.assertEquals(ChampEventEncoding.JSON, ChampEventEncoding.fromName(null));
+        Assert.assertEquals(ChampEventEncoding.JSON, ChampEventEncoding.fromName("json"));
+        Assert.assertEquals(ChampEventEncoding.SMILE, ChampEventEncoding.fromName("SMILE"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownEncodingName() {
+        ChampEventEncoding.fromName("xml");
+    }
 }
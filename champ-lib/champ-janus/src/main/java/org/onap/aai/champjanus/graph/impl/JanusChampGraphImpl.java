@@ -30,13 +30,19 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Spliterator;
+import java.util.Set;
 import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutionException;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.janusgraph.core.Cardinality;
 import org.janusgraph.core.EdgeLabel;
@@ -52,10 +58,12 @@ import org.janusgraph.core.schema.JanusGraphManagement.IndexBuilder;
 import org.janusgraph.core.schema.SchemaAction;
 import org.janusgraph.core.schema.SchemaStatus;
 import org.janusgraph.graphdb.database.management.ManagementSystem;
+import org.janusgraph.util.stats.MetricManager;
 import org.onap.aai.champcore.ChampCapabilities;
 import org.onap.aai.champcore.exceptions.ChampIndexNotExistsException;
 import org.onap.aai.champcore.exceptions.ChampSchemaViolationException;
 import org.onap.aai.champcore.graph.impl.AbstractTinkerpopChampGraph;
+import org.onap.aai.champcore.graph.impl.CommitRetryPolicy;
 import org.onap.aai.champcore.model.ChampCardinality;
 import org.onap.aai.champcore.model.ChampField;
 import org.onap.aai.champcore.model.ChampObject;
@@ -79,6 +87,8 @@ public final class JanusChampGraphImpl extends AbstractTinkerpopChampGraph {
   private static final String JANUS_UNIQUE_SUFFIX = "graph.unique-instance-id-suffix";
   private static final ChampSchemaEnforcer SCHEMA_ENFORCER = new DefaultChampSchemaEnforcer();
   private static final int REGISTER_OBJECT_INDEX_TIMEOUT_SECS = 45;
+  private static final String CHAMP_PROPERTY_PREFIX = "champcore.";
+  private static final String COMMIT_RETRY_METRIC_PREFIX = "org.onap.aai.champ.transaction.commit.";
 
   private static final ChampCapabilities CAPABILITIES = new ChampCapabilities() {
 
@@ -93,17 +103,26 @@ public final class JanusChampGraphImpl extends AbstractTinkerpopChampGraph {
     }
   };
 
+  /** Retry policies of the open graphs, by graph name.  Each graph's commit retry metrics
+   *  are the sums of the counters of every open instance of that graph. */
+  private static final Map<String, Set<CommitRetryPolicy>> COMMIT_RETRY_POLICIES = new HashMap<>();
+
   private JanusGraph graph;
   private final JanusGraphFactory.Builder janusGraphBuilder;
+  private final String graphName;
 
   public JanusChampGraphImpl(Builder builder) {
     super(builder.graphConfiguration);
     janusGraphBuilder = JanusGraphFactory.build();
+    graphName = builder.graphName;
 
     for (Map.Entry<String, Object> janusGraphProperty : builder.graphConfiguration.entrySet()) {
-      janusGraphBuilder.set(janusGraphProperty.getKey(), janusGraphProperty.getValue());
+      // Champ's own settings are not understood by Janus.
+      if (!janusGraphProperty.getKey().startsWith(CHAMP_PROPERTY_PREFIX)) {
+        janusGraphBuilder.set(janusGraphProperty.getKey(), janusGraphProperty.getValue());
+      }
     }
-    
+
     janusGraphBuilder.set(JANUS_UNIQUE_SUFFIX, ((short) new SecureRandom().nextInt(Short.MAX_VALUE)+""));
 
     final Object storageBackend = builder.graphConfiguration.get("storage.backend");
@@ -124,6 +143,8 @@ public final class JanusChampGraphImpl extends AbstractTinkerpopChampGraph {
     } else {
       throw new RuntimeException("Unknown storage.backend=" + storageBackend);
     }
+
+    registerCommitRetryMetrics();
     
     try {
       openGraph();
@@ -139,6 +160,54 @@ public final class JanusChampGraphImpl extends AbstractTinkerpopChampGraph {
         "Instantiated data access layer for Janus graph data store with backend: " + storageBackend);
   }
 
+  /**
+   * Exposes the commit retry counters through Janus' metric registry, so that they are
+   * reported alongside the graph's own metrics.  The metrics are named after the graph, and
+   * are registered by its first open instance.
+   */
+  private void registerCommitRetryMetrics() {
+    synchronized (COMMIT_RETRY_POLICIES) {
+      Set<CommitRetryPolicy> policies = COMMIT_RETRY_POLICIES.get(graphName);
+      if (policies == null) {
+        final Set<CommitRetryPolicy> graphPolicies = new CopyOnWriteArraySet<>();
+        final MetricRegistry registry = MetricManager.INSTANCE.getRegistry();
+        registry.register(commitRetryMetric("attempts"), sumOf(graphPolicies, CommitRetryPolicy::getAttempts));
+        registry.register(commitRetryMetric("retries"), sumOf(graphPolicies, CommitRetryPolicy::getRetries));
+        registry.register(commitRetryMetric("abandoned"), sumOf(graphPolicies, CommitRetryPolicy::getAbandoned));
+        policies = graphPolicies;
+        COMMIT_RETRY_POLICIES.put(graphName, policies);
+      }
+      policies.add(getCommitRetryPolicy());
+    }
+  }
+
+  /**
+   * Stops counting this instance in the graph's commit retry metrics, and removes the metrics
+   * once no instance of the graph is left open.
+   */
+  private void unregisterCommitRetryMetrics() {
+    synchronized (COMMIT_RETRY_POLICIES) {
+      Set<CommitRetryPolicy> policies = COMMIT_RETRY_POLICIES.get(graphName);
+      if (policies == null || !policies.remove(getCommitRetryPolicy()) || !policies.isEmpty()) {
+        return;
+      }
+
+      COMMIT_RETRY_POLICIES.remove(graphName);
+      final MetricRegistry registry = MetricManager.INSTANCE.getRegistry();
+      registry.remove(commitRetryMetric("attempts"));
+      registry.remove(commitRetryMetric("retries"));
+      registry.remove(commitRetryMetric("abandoned"));
+    }
+  }
+
+  private String commitRetryMetric(String counter) {
+    return COMMIT_RETRY_METRIC_PREFIX + graphName + "." + counter;
+  }
+
+  private static Gauge<Long> sumOf(Set<CommitRetryPolicy> policies, ToLongFunction<CommitRetryPolicy> counter) {
+    return () -> policies.stream().mapToLong(counter).sum();
+  }
+
   public static class Builder {
     private final String graphName;
 
@@ -187,7 +256,22 @@ public final class JanusChampGraphImpl extends AbstractTinkerpopChampGraph {
     return graph;
   }
 
+  @Override
+  public void shutdown() {
+    super.shutdown();
+    unregisterCommitRetryMetrics();
+  }
+
  
+  /**
+   * Reads go through Janus' read-only transactions, which skip the bookkeeping needed to
+   * track mutations.
+   */
+  @Override
+  protected Graph openReadOnlyGraphInstance() {
+    return getGraph().buildTransaction().readOnly().start();
+  }
+
   @Override
   protected ChampSchemaEnforcer getSchemaEnforcer() {
     return SCHEMA_ENFORCER;
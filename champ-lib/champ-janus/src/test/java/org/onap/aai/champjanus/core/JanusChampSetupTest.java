@@ -20,6 +20,8 @@
  */
 package org.onap.aai.champjanus.core;
 
+import com.codahale.metrics.MetricRegistry;
+import org.janusgraph.util.stats.MetricManager;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -28,6 +30,9 @@ import org.onap.aai.champjanus.graph.impl.JanusChampGraphImpl;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 public class JanusChampSetupTest {
   @Rule
   public final ExpectedException exception = ExpectedException.none();
@@ -70,4 +75,34 @@ public class JanusChampSetupTest {
         .properties(propertiesMap)
         .build();
   }
+
+  @Test
+  public void JanusSetupCommitRetryMetricsPerGraphTest() {
+    MetricRegistry registry = MetricManager.INSTANCE.getRegistry();
+    String firstMetric = "org.onap.aai.champ.transaction.commit.firstGraph.attempts";
+    String secondMetric = "org.onap.aai.champ.transaction.commit.secondGraph.attempts";
+
+    JanusChampGraphImpl first = new JanusChampGraphImpl.Builder("firstGraph")
+        .property("storage.backend", "inmemory")
+        .build();
+    JanusChampGraphImpl firstAgain = new JanusChampGraphImpl.Builder("firstGraph")
+        .property("storage.backend", "inmemory")
+        .build();
+    JanusChampGraphImpl second = new JanusChampGraphImpl.Builder("secondGraph")
+        .property("storage.backend", "inmemory")
+        .build();
+
+    assertTrue(registry.getGauges().containsKey(firstMetric));
+    assertTrue(registry.getGauges().containsKey(secondMetric));
+
+    // The metrics stay until every instance of the graph has been shut down.
+    first.shutdown();
+    assertTrue(registry.getGauges().containsKey(firstMetric));
+    firstAgain.shutdown();
+    assertFalse(registry.getGauges().containsKey(firstMetric));
+    assertTrue(registry.getGauges().containsKey(secondMetric));
+
+    second.shutdown();
+    assertFalse(registry.getGauges().containsKey(secondMetric));
+  }
 }
@@ -22,14 +22,18 @@ package org.onap.champ;
 
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Timer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -46,6 +50,7 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -54,6 +59,7 @@ import org.onap.aai.champcore.exceptions.ChampObjectNotExistsException;
 import org.onap.aai.champcore.exceptions.ChampRelationshipNotExistsException;
 import org.onap.aai.champcore.exceptions.ChampTransactionException;
 import org.onap.aai.champcore.exceptions.ChampUnmarshallingException;
+import org.onap.aai.champcore.model.ChampDirection;
 import org.onap.aai.champcore.model.ChampObject;
 import org.onap.aai.champcore.model.ChampRelationship;
 import org.onap.aai.cl.api.Logger;
@@ -65,6 +71,7 @@ import org.onap.champ.entity.ChampObjectDeserializer;
 import org.onap.champ.entity.ChampObjectSerializer;
 import org.onap.champ.entity.ChampRelationshipDeserializer;
 import org.onap.champ.entity.ChampRelationshipSerializer;
+import org.onap.champ.entity.ChampTraversalRequest;
 import org.onap.champ.exception.ChampServiceException;
 import org.onap.champ.service.ChampDataService;
 import org.onap.champ.service.logging.ChampMsgs;
@@ -73,14 +80,18 @@ import org.onap.champ.util.ChampProperties;
 import org.onap.champ.util.ChampServiceConstants;
 import org.onap.champ.util.HttpHeadersValidator;
 import org.onap.champ.util.etag.EtagGenerator;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
 @Path(value = "/services/champ-service/v1/")
 public class ChampRESTAPI {
 
   private ObjectMapper mapper;
+  private ObjectWriter streamWriter;
 
   private ChampDataService champDataService;
   private EtagGenerator etagGenerator;
@@ -92,6 +103,11 @@ public class ChampRESTAPI {
   Logger auditLogger = LoggerFactory.getInstance().getAuditLogger(ChampRESTAPI.class.getName());
   private static Logger metricsLogger = LoggerFactory.getInstance().getMetricsLogger(ChampRESTAPI.class.getName());
   private static final Pattern QUERY_OBJECT_ID_URL_MATCH = Pattern.compile("_reserved_(.*)");
+  private static final String QUERY_OFFSET = "_reserved_offset";
+  private static final String QUERY_LIMIT = "_reserved_limit";
+  private static final String QUERY_STREAM = "_reserved_stream";
+  private static final String QUERY_DIRECTION = "_reserved_direction";
+  private static final String QUERY_TYPE = "_reserved_type";
 
   public ChampRESTAPI(ChampDataService champDataService, ChampAsyncRequestProcessor champAsyncRequestProcessor) throws NoSuchAlgorithmException {
     this.champDataService = champDataService;
@@ -110,6 +126,7 @@ public class ChampRESTAPI {
     module.addSerializer(ChampRelationship.class, new ChampRelationshipSerializer());
     module.addDeserializer(ChampRelationship.class, new ChampRelationshipDeserializer());
     mapper.registerModule(module);
+    streamWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
 
     etagGenerator = new EtagGenerator();
     httpHeadersValidator = new HttpHeadersValidator();
@@ -277,6 +294,45 @@ public class ChampRESTAPI {
     return response;
   }
 
+  @PATCH
+  @Path("objects/{objectId}")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response patchObject(@PathParam("objectId") String objectId, String champObj,
+      @QueryParam("transactionId") String tId, @Context HttpHeaders headers, @Context UriInfo uriInfo,
+      @Context HttpServletRequest req) {
+    LoggingUtil.initMdcContext(req, headers);
+    long startTimeInMs = System.currentTimeMillis();
+    logger.info(ChampMsgs.INCOMING_REQUEST, tId, objectId + " " + champObj);
+
+    Response response = null;
+    try {
+      httpHeadersValidator.validateRequestHeaders(headers);
+      ChampTransaction transaction = champDataService.getTransaction(tId);
+      if (tId != null && transaction == null) {
+        throw new ChampServiceException("transactionId not found", Status.BAD_REQUEST);
+      }
+
+      ChampObject co = mapper.readValue(champObj, ChampObject.class);
+      ChampObject patched = champDataService.patchObject(co, objectId, Optional.ofNullable(transaction));
+      EntityTag eTag = new EntityTag(etagGenerator.computeHashForChampObject(patched));
+      response = Response.status(Status.OK).entity(mapper.writeValueAsString(patched)).tag(eTag).build();
+    } catch (IOException e) {
+      response = Response.status(Status.BAD_REQUEST).entity("Unable to parse the payload").build();
+    } catch (ChampServiceException ce) {
+      response = Response.status(ce.getHttpStatus()).entity(ce.getMessage()).build();
+    } catch (IllegalArgumentException e) {
+      response = Response.status(Status.BAD_REQUEST).entity(e.getMessage()).build();
+    } catch (Exception e) {
+      response = Response.status(Status.INTERNAL_SERVER_ERROR).entity(e.getMessage()).build();
+      LoggingUtil.logInternalError(logger, e);
+    } finally {
+      LoggingUtil.logRestRequest(logger, auditLogger, req, response);
+      metricsLogger.info(ChampMsgs.PROCESSED_REQUEST, "PATCH", Long.toString(System.currentTimeMillis() - startTimeInMs));
+    }
+    return response;
+  }
+
   @GET
   @Path("objects/relationships/{oId}")
   @Produces(MediaType.APPLICATION_JSON)
@@ -294,7 +350,16 @@ public class ChampRESTAPI {
       if (tId != null && transaction == null) {
         throw new ChampServiceException("No transaction found for transaction ID: " + tId, Status.BAD_REQUEST);
       }
-      retrieved = champDataService.getRelationshipsByObject(oId, Optional.ofNullable(transaction));
+      ChampDirection direction = getDirectionParameter(uriInfo);
+      Set<String> types = getTypeParameter(uriInfo);
+      if (isStreamingRequested(uriInfo)) {
+        response = Response.status(Status.OK).type(MediaType.APPLICATION_JSON)
+            .entity(toStreamingOutput(
+                champDataService.streamRelationshipsByObject(oId, direction, types, Optional.ofNullable(transaction))))
+            .build();
+        return response;
+      }
+      retrieved = champDataService.getRelationshipsByObject(oId, direction, types, Optional.ofNullable(transaction));
       if (retrieved == null) {
         response = Response.status(Status.NOT_FOUND).entity(oId + " not found").build();
         return response;
@@ -324,13 +389,7 @@ public class ChampRESTAPI {
     long startTimeInMs = System.currentTimeMillis();
     String propertiesKey = ChampProperties.get(ChampServiceConstants.CHAMP_COLLECTION_PROPERTIES_KEY);
     List<ChampObject> champObjects;
-    Map<String, Object> filter = new HashMap<>();
-
-    for (Map.Entry<String, List<String>> e : uriInfo.getQueryParameters().entrySet()) {
-      if ((!e.getKey().equals(propertiesKey)) && !reservedKeyMatcher ( QUERY_OBJECT_ID_URL_MATCH, e.getKey () )) {
-        filter.put(e.getKey(), e.getValue().get(0));
-      }
-    }
+    Map<String, Object> filter = queryFilter(uriInfo, propertiesKey);
 
     HashSet<String> properties;
     if (uriInfo.getQueryParameters().containsKey(propertiesKey)) {
@@ -342,7 +401,15 @@ public class ChampRESTAPI {
     Response response = null;
     try {
       httpHeadersValidator.validateRequestHeaders(headers);
-      champObjects = champDataService.queryObjects(filter, properties);
+      if (isStreamingRequested(uriInfo)) {
+        response = Response.status(Status.OK).type(MediaType.APPLICATION_JSON)
+            .entity(toStreamingOutput(champDataService.streamObjects(filter, properties,
+                getPagingParameter(uriInfo, QUERY_OFFSET, 0), getPagingParameter(uriInfo, QUERY_LIMIT, -1))))
+            .build();
+        return response;
+      }
+      champObjects = champDataService.queryObjects(filter, properties, getPagingParameter(uriInfo, QUERY_OFFSET, 0),
+          getPagingParameter(uriInfo, QUERY_LIMIT, -1));
       EntityTag eTag = new EntityTag(etagGenerator.computeHashForChampObjects(champObjects));
       response = Response.status(Status.OK).type(MediaType.APPLICATION_JSON).tag(eTag).entity(mapper.writeValueAsString(champObjects))
           .build();
@@ -360,6 +427,81 @@ public class ChampRESTAPI {
     return response;
   }
 
+  @GET
+  @Path("objects/filter/count")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response countObjects(@Context HttpHeaders headers, @Context UriInfo uriInfo,
+      @Context HttpServletRequest req) {
+    LoggingUtil.initMdcContext(req, headers);
+    long startTimeInMs = System.currentTimeMillis();
+    Map<String, Object> filter = queryFilter(uriInfo,
+        ChampProperties.get(ChampServiceConstants.CHAMP_COLLECTION_PROPERTIES_KEY));
+
+    Response response = null;
+    try {
+      httpHeadersValidator.validateRequestHeaders(headers);
+      long count = champDataService.countObjects(filter);
+      response = Response.status(Status.OK).type(MediaType.APPLICATION_JSON)
+          .entity(new JSONObject().put("count", count).toString()).build();
+    } catch (ChampServiceException e1) {
+      response = Response.status(e1.getHttpStatus()).entity(e1.getMessage()).build();
+    } catch (Exception e) {
+      response = Response.status(Status.INTERNAL_SERVER_ERROR).entity(e.getMessage()).build();
+      LoggingUtil.logInternalError(logger, e);
+    } finally {
+      LoggingUtil.logRestRequest(logger, auditLogger, req, response);
+      metricsLogger.info(ChampMsgs.PROCESSED_REQUEST, "GET", Long.toString(System.currentTimeMillis() - startTimeInMs));
+    }
+    return response;
+  }
+
+  @POST
+  @Path("objects/traverse")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response traverse(String traversal, @QueryParam("transactionId") String tId, @Context HttpHeaders headers,
+      @Context UriInfo uriInfo, @Context HttpServletRequest req) {
+    LoggingUtil.initMdcContext(req, headers);
+    long startTimeInMs = System.currentTimeMillis();
+    logger.info(ChampMsgs.INCOMING_REQUEST, tId, traversal);
+    Response response = null;
+    try {
+      httpHeadersValidator.validateRequestHeaders(headers);
+      ChampTransaction transaction = tId == null ? null : champDataService.getTransaction(tId);
+
+      if (tId != null && transaction == null) {
+        throw new ChampServiceException("No transaction found for transaction ID: " + tId, Status.BAD_REQUEST);
+      }
+      ChampTraversalRequest traversalRequest = ChampTraversalRequest.fromJson(traversal);
+      if (isStreamingRequested(uriInfo)) {
+        response = Response.status(Status.OK).type(MediaType.APPLICATION_JSON)
+            .entity(toStreamingOutput(champDataService.streamTraversal(traversalRequest.toChampTraversal(),
+                Optional.ofNullable(transaction))))
+            .build();
+        return response;
+      }
+      List<ChampObject> champObjects = champDataService.traverse(traversalRequest.toChampTraversal(),
+          Optional.ofNullable(transaction));
+      EntityTag eTag = new EntityTag(etagGenerator.computeHashForChampObjects(champObjects));
+      response = Response.status(Status.OK).type(MediaType.APPLICATION_JSON).tag(eTag)
+          .entity(mapper.writeValueAsString(champObjects)).build();
+    } catch (JsonProcessingException e) {
+      response = Response.status(Status.BAD_REQUEST).entity(e.getMessage()).build();
+    } catch (ChampServiceException ce) {
+      response = Response.status(ce.getHttpStatus()).entity(ce.getMessage()).build();
+    } catch (IllegalArgumentException e) {
+      response = Response.status(Status.BAD_REQUEST).entity(e.getMessage()).build();
+    } catch (Exception e) {
+      response = Response.status(Status.INTERNAL_SERVER_ERROR).entity(e.getMessage()).build();
+      LoggingUtil.logInternalError(logger, e);
+    } finally {
+      LoggingUtil.logRestRequest(logger, auditLogger, req, response);
+      metricsLogger.info(ChampMsgs.PROCESSED_REQUEST, "POST",
+          Long.toString(System.currentTimeMillis() - startTimeInMs));
+    }
+    return response;
+  }
+
   @GET
   @Path("relationships/{rId}")
   @Produces(MediaType.APPLICATION_JSON)
@@ -475,6 +617,44 @@ public class ChampRESTAPI {
     return response;
   }
 
+  @PATCH
+  @Path("relationships/{rId}")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response patchRelationship(@PathParam("rId") String rId, String relationship,
+      @QueryParam("transactionId") String tId, @Context HttpHeaders headers, @Context UriInfo uriInfo,
+      @Context HttpServletRequest req) {
+    LoggingUtil.initMdcContext(req, headers);
+    long startTimeInMs = System.currentTimeMillis();
+    logger.info(ChampMsgs.INCOMING_REQUEST, tId, relationship);
+
+    Response response = null;
+    try {
+      httpHeadersValidator.validateRequestHeaders(headers);
+      ChampTransaction transaction = champDataService.getTransaction(tId);
+      if (tId != null && transaction == null) {
+        throw new ChampServiceException("transactionId not found", Status.BAD_REQUEST);
+      }
+      ChampRelationship r = mapper.readValue(relationship, ChampRelationship.class);
+      ChampRelationship patched = champDataService.patchRelationship(r, rId, Optional.ofNullable(transaction));
+      EntityTag eTag = new EntityTag(etagGenerator.computeHashForChampRelationship(patched));
+      response = Response.status(Status.OK).entity(mapper.writeValueAsString(patched)).tag(eTag).build();
+    } catch (IOException e) {
+      response = Response.status(Status.BAD_REQUEST).entity("Unable to parse the payload").build();
+    } catch (ChampServiceException ce) {
+      response = Response.status(ce.getHttpStatus()).entity(ce.getMessage()).build();
+    } catch (IllegalArgumentException e) {
+      response = Response.status(Status.BAD_REQUEST).entity(e.getMessage()).build();
+    } catch (Exception e) {
+      response = Response.status(Status.INTERNAL_SERVER_ERROR).entity(e.getMessage()).build();
+      LoggingUtil.logInternalError(logger, e);
+    } finally {
+      LoggingUtil.logRestRequest(logger, auditLogger, req, response);
+      metricsLogger.info(ChampMsgs.PROCESSED_REQUEST, "PATCH", Long.toString(System.currentTimeMillis() - startTimeInMs));
+    }
+    return response;
+  }
+
   @DELETE
   @Path("relationships/{relationshipId}")
   public Response deleteRelationship(@PathParam("relationshipId") String relationshipId,
@@ -516,16 +696,19 @@ public class ChampRESTAPI {
     LoggingUtil.initMdcContext(req, headers);
     long startTimeInMs = System.currentTimeMillis();
     List<ChampRelationship> champRelationshipList;
-    Map<String, Object> filter = new HashMap<>();
-    for (Map.Entry<String, List<String>> e : uriInfo.getQueryParameters().entrySet()) {
-      if (!reservedKeyMatcher ( QUERY_OBJECT_ID_URL_MATCH, e.getKey () )) {
-        filter.put ( e.getKey (), e.getValue ().get ( 0 ) );
-      }
-    }
+    Map<String, Object> filter = queryFilter(uriInfo, null);
     Response response = null;
     try {
       httpHeadersValidator.validateRequestHeaders(headers);
-      champRelationshipList = champDataService.queryRelationships(filter);
+      if (isStreamingRequested(uriInfo)) {
+        response = Response.status(Status.OK).type(MediaType.APPLICATION_JSON)
+            .entity(toStreamingOutput(champDataService.streamRelationships(filter,
+                getPagingParameter(uriInfo, QUERY_OFFSET, 0), getPagingParameter(uriInfo, QUERY_LIMIT, -1))))
+            .build();
+        return response;
+      }
+      champRelationshipList = champDataService.queryRelationships(filter, getPagingParameter(uriInfo, QUERY_OFFSET, 0),
+          getPagingParameter(uriInfo, QUERY_LIMIT, -1));
       EntityTag eTag = new EntityTag(etagGenerator.computeHashForChampRelationships(champRelationshipList));
       response = Response.status(Status.OK).type(MediaType.APPLICATION_JSON).tag(eTag).entity(mapper.writeValueAsString(champRelationshipList))
           .build();
@@ -543,6 +726,33 @@ public class ChampRESTAPI {
     return response;
   }
 
+  @GET
+  @Path("relationships/filter/count")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response countRelationships(@Context HttpHeaders headers, @Context UriInfo uriInfo,
+      @Context HttpServletRequest req) {
+    LoggingUtil.initMdcContext(req, headers);
+    long startTimeInMs = System.currentTimeMillis();
+    Map<String, Object> filter = queryFilter(uriInfo, null);
+
+    Response response = null;
+    try {
+      httpHeadersValidator.validateRequestHeaders(headers);
+      long count = champDataService.countRelationships(filter);
+      response = Response.status(Status.OK).type(MediaType.APPLICATION_JSON)
+          .entity(new JSONObject().put("count", count).toString()).build();
+    } catch (ChampServiceException e1) {
+      response = Response.status(e1.getHttpStatus()).entity(e1.getMessage()).build();
+    } catch (Exception e) {
+      response = Response.status(Status.INTERNAL_SERVER_ERROR).entity(e.getMessage()).build();
+      LoggingUtil.logInternalError(logger, e);
+    } finally {
+      LoggingUtil.logRestRequest(logger, auditLogger, req, response);
+      metricsLogger.info(ChampMsgs.PROCESSED_REQUEST, "GET", Long.toString(System.currentTimeMillis() - startTimeInMs));
+    }
+    return response;
+  }
+
   @POST
   @Path("transaction")
   @Produces(MediaType.TEXT_PLAIN)
@@ -673,6 +883,80 @@ public class ChampRESTAPI {
     return response;
   }
   
+  private boolean isStreamingRequested(UriInfo uriInfo) {
+    return Boolean.parseBoolean(uriInfo.getQueryParameters().getFirst(QUERY_STREAM));
+  }
+
+  /**
+   * Writes the elements of the supplied stream as a JSON array, one element at a time, as
+   * they are read from the graph.  No ETag can be computed for a streamed response since
+   * the body is not known until it has been written.
+   */
+  private <T> StreamingOutput toStreamingOutput(Stream<T> elements) {
+    return output -> {
+      try (Stream<T> s = elements; JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        Iterator<T> iter = s.iterator();
+        while (iter.hasNext()) {
+          streamWriter.writeValue(generator, iter.next());
+        }
+        generator.writeEndArray();
+      }
+    };
+  }
+
+  private ChampDirection getDirectionParameter(UriInfo uriInfo) throws ChampServiceException {
+    String value = uriInfo.getQueryParameters().getFirst(QUERY_DIRECTION);
+    if (value == null) {
+      return ChampDirection.BOTH;
+    }
+
+    try {
+      return ChampDirection.valueOf(value.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ChampServiceException("Invalid value for query parameter " + QUERY_DIRECTION + ": " + value,
+          Status.BAD_REQUEST);
+    }
+  }
+
+  private Set<String> getTypeParameter(UriInfo uriInfo) {
+    List<String> types = uriInfo.getQueryParameters().get(QUERY_TYPE);
+    return types == null ? Collections.emptySet() : new HashSet<>(types);
+  }
+
+  private long getPagingParameter(UriInfo uriInfo, String name, long defaultValue) throws ChampServiceException {
+    String value = uriInfo.getQueryParameters().getFirst(name);
+    if (value == null) {
+      return defaultValue;
+    }
+
+    try {
+      long parsed = Long.parseLong(value);
+      if (parsed < 0) {
+        throw new ChampServiceException("Query parameter " + name + " must not be negative", Status.BAD_REQUEST);
+      }
+      return parsed;
+    } catch (NumberFormatException e) {
+      throw new ChampServiceException("Invalid value for query parameter " + name + ": " + value, Status.BAD_REQUEST);
+    }
+  }
+
+  /**
+   * Builds the filter for a query from its query parameters, leaving out the reserved
+   * parameters and the parameter that selects the properties to return, if any.  The filter
+   * and count endpoints share it, so that a count always matches its filter.
+   */
+  private Map<String, Object> queryFilter(UriInfo uriInfo, String propertiesKey) {
+    Map<String, Object> filter = new HashMap<>();
+    for (Map.Entry<String, List<String>> e : uriInfo.getQueryParameters().entrySet()) {
+      if (!e.getKey().equals(propertiesKey) && !reservedKeyMatcher(QUERY_OBJECT_ID_URL_MATCH, e.getKey())) {
+        filter.put(e.getKey(), e.getValue().get(0));
+      }
+    }
+    return filter;
+  }
+
   private boolean reservedKeyMatcher(Pattern p, String key) {
     Matcher m = p.matcher ( key );
     if (m.matches()) {
@@ -0,0 +1,84 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Modifications Copyright (C) 2019 IBM.
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.champ;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.core.PathSegment;
+
+import org.onap.champ.service.ChampTransactionForwarder;
+
+/**
+ * Proxies requests that refer to a transaction owned by another champ-service node to that node.
+ * <p>
+ * The transaction is taken from the <code>transactionId</code> query parameter, or from the path of
+ * the <code>transaction/{tId}</code> resources.  Requests that have already been forwarded once are
+ * always handled locally.
+ */
+@PreMatching
+public class ChampTransactionForwardingFilter implements ContainerRequestFilter {
+
+  private static final String TRANSACTION_ID_PARAM = "transactionId";
+  private static final String TRANSACTION_PATH = "transaction";
+
+  private final ChampTransactionForwarder forwarder;
+
+  public ChampTransactionForwardingFilter(ChampTransactionForwarder forwarder) {
+    this.forwarder = forwarder;
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) throws IOException {
+    if (requestContext.getHeaderString(ChampTransactionForwarder.FORWARDED_BY_HEADER) != null) {
+      return;
+    }
+
+    Optional<URI> owner = forwarder.remoteOwner(getTransactionId(requestContext));
+    if (owner.isPresent()) {
+      requestContext.abortWith(forwarder.forward(owner.get(), requestContext.getMethod(),
+          requestContext.getUriInfo().getRequestUri(), requestContext.getHeaders(), requestContext.getMediaType(),
+          requestContext.hasEntity() ? requestContext.getEntityStream() : null));
+    }
+  }
+
+  private String getTransactionId(ContainerRequestContext requestContext) {
+    String tId = requestContext.getUriInfo().getQueryParameters().getFirst(TRANSACTION_ID_PARAM);
+    if (tId != null) {
+      return tId;
+    }
+
+    List<PathSegment> segments = requestContext.getUriInfo().getPathSegments();
+    for (int i = 0; i < segments.size() - 1; i++) {
+      if (TRANSACTION_PATH.equals(segments.get(i).getPath())) {
+        return segments.get(i + 1).getPath();
+      }
+    }
+    return null;
+  }
+}
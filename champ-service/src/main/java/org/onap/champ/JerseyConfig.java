@@ -20,16 +20,46 @@
  */
 package org.onap.champ;
 
+import javax.annotation.PreDestroy;
+import javax.net.ssl.SSLContext;
+
 import org.glassfish.jersey.server.ResourceConfig;
+import org.onap.champ.service.ChampTransactionForwarder;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 /**
- * Registers Crud Rest interface as JAX-RS endpoints.
+ * Registers Crud Rest interface as JAX-RS endpoints, along with the filter that forwards
+ * requests for transactions owned by other nodes.
  */
 @Component
 public class JerseyConfig extends ResourceConfig {
 
-    public JerseyConfig(ChampRESTAPI champRestApi) {
+    private final ChampTransactionForwarder forwarder;
+
+    public JerseyConfig(ChampRESTAPI champRestApi, Environment env) {
+        forwarder = ChampTransactionForwarder.fromProperties(forwarderSslContext(env));
         register(champRestApi);
+        register(new ChampTransactionForwardingFilter(forwarder));
+    }
+
+    /**
+     * The other nodes require client authentication, so forwarded requests present the
+     * service's own certificate.  Without a separate trust store, the key store is trusted,
+     * as it is for the rest of the service.
+     */
+    private static SSLContext forwarderSslContext(Environment env) {
+        String keyStore = env.getProperty("server.ssl.key-store");
+        if (keyStore == null) {
+            return null;
+        }
+        return ChampTransactionForwarder.createSslContext(keyStore, env.getProperty("server.ssl.key-store-type"),
+                env.getProperty("server.ssl.key-store-password"), env.getProperty("server.ssl.trust-store"),
+                env.getProperty("server.ssl.trust-store-password"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        forwarder.shutdown();
     }
 }
@@ -154,8 +154,11 @@ public class ChampAsyncRequestProcessor extends TimerTask {
                     eventEnvelope = requestProcesserEventQueue.take();
                     event = eventEnvelope.getBody();
 
-                    // Apply Champ Event header
-                    eventEnvelope.setHeader(new GraphEventHeader.Builder().requestId(event.getTransactionId()).build());
+                    // Apply Champ Event header, answering in the encoding the request was sent in
+                    String contentEncoding =
+                            eventEnvelope.getHeader() != null ? eventEnvelope.getHeader().getContentEncoding() : null;
+                    eventEnvelope.setHeader(new GraphEventHeader.Builder().requestId(event.getTransactionId())
+                            .contentEncoding(contentEncoding).build());
 
                     // Parse the event and call champ Dao to process , Create the
                     // response event and put it on response queue
@@ -293,7 +296,7 @@ public class ChampAsyncRequestProcessor extends TimerTask {
     private void processEvents(Iterable<String> events) {
         for (String event : events) {
             try {
-                GraphEventEnvelope requestEnvelope = GraphEventEnvelope.fromJson(event);
+                GraphEventEnvelope requestEnvelope = GraphEventEnvelope.decode(event);
                 GraphEvent requestEvent = requestEnvelope.getBody();
                 auditLogger.info(ChampMsgs.CHAMP_ASYNC_REQUEST_PROCESSOR_INFO,
                         "Event received of type: " + requestEvent.getObjectType() + " with key: "
@@ -124,7 +124,7 @@ public class ChampAsyncResponsePublisher {
                 // Publish the response
                 try {
                     event.setTimestamp(System.currentTimeMillis());
-                    asyncResponsePublisher.sendSync(eventEnvelope.toJson());
+                    asyncResponsePublisher.sendSync(eventEnvelope.encode());
                     if (event.getResult().equals(GraphEventResult.SUCCESS)) {
                         logger.info(ChampMsgs.CHAMP_ASYNC_RESPONSE_PUBLISHER_INFO,
                             "Response published for Event of type: " + event.getObjectType() + " with key: " + event
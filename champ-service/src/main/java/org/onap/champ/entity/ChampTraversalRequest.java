@@ -0,0 +1,161 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.champ.entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.Response.Status;
+
+import org.onap.aai.champcore.model.ChampDirection;
+import org.onap.aai.champcore.model.ChampTraversal;
+import org.onap.champ.exception.ChampServiceException;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * The JSON body of a multi-hop traversal request, for example:
+ *
+ * <pre>
+ * {
+ *   "start": { "aai-node-type": "pserver", "hostname": "host-1" },
+ *   "steps": [
+ *     { "direction": "IN", "types": [ "tosca.relationships.HostedOn" ], "filter": { "aai-node-type": "vserver" } }
+ *   ],
+ *   "limit": 100
+ * }
+ * </pre>
+ */
+public class ChampTraversalRequest {
+  private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+  private Map<String, Object> start = new HashMap<>();
+  private List<Step> steps = new ArrayList<>();
+  private Long limit;
+
+  public static class Step {
+    private String direction;
+    private List<String> types;
+    private Map<String, Object> filter;
+
+    public String getDirection() {
+      return direction;
+    }
+
+    public void setDirection(String direction) {
+      this.direction = direction;
+    }
+
+    public List<String> getTypes() {
+      return types;
+    }
+
+    public void setTypes(List<String> types) {
+      this.types = types;
+    }
+
+    public Map<String, Object> getFilter() {
+      return filter;
+    }
+
+    public void setFilter(Map<String, Object> filter) {
+      this.filter = filter;
+    }
+  }
+
+  public String toJson() {
+    return gson.toJson(this);
+  }
+
+  public static ChampTraversalRequest fromJson(String payload) throws ChampServiceException {
+    ChampTraversalRequest request;
+    try {
+      request = gson.fromJson(payload, ChampTraversalRequest.class);
+    } catch (JsonParseException e) {
+      throw new ChampServiceException("Invalid traversal request: " + e.getMessage(), Status.BAD_REQUEST);
+    }
+
+    if (request == null) {
+      throw new ChampServiceException("Empty traversal request", Status.BAD_REQUEST);
+    }
+    return request;
+  }
+
+  public ChampTraversal toChampTraversal() throws ChampServiceException {
+    if (limit != null && limit < 0) {
+      throw new ChampServiceException("Traversal limit must not be negative", Status.BAD_REQUEST);
+    }
+
+    ChampTraversal.Builder builder = new ChampTraversal.Builder(start == null ? Collections.emptyMap() : start);
+
+    if (steps != null) {
+      for (Step step : steps) {
+        builder.step(toDirection(step.getDirection()),
+            step.getTypes() == null ? Collections.emptySet() : new HashSet<>(step.getTypes()),
+            step.getFilter() == null ? Collections.emptyMap() : step.getFilter());
+      }
+    }
+
+    return builder.limit(limit == null ? -1 : limit).build();
+  }
+
+  private static ChampDirection toDirection(String direction) throws ChampServiceException {
+    if (direction == null) {
+      return ChampDirection.BOTH;
+    }
+
+    try {
+      return ChampDirection.valueOf(direction.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ChampServiceException("Invalid traversal step direction: " + direction, Status.BAD_REQUEST);
+    }
+  }
+
+  public Map<String, Object> getStart() {
+    return start;
+  }
+
+  public void setStart(Map<String, Object> start) {
+    this.start = start;
+  }
+
+  public List<Step> getSteps() {
+    return steps;
+  }
+
+  public void setSteps(List<Step> steps) {
+    this.steps = steps;
+  }
+
+  public Long getLimit() {
+    return limit;
+  }
+
+  public void setLimit(Long limit) {
+    this.limit = limit;
+  }
+}
@@ -21,7 +21,11 @@
  */
 package org.onap.champ.event.envelope;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
 import javax.ws.rs.core.Response.Status;
+import org.onap.aai.champcore.event.envelope.ChampEventEncoding;
 import org.onap.champ.event.GraphEvent;
 import org.onap.champ.exception.ChampServiceException;
 import com.google.gson.Gson;
@@ -35,7 +39,7 @@ public class GraphEventEnvelope {
     /**
      * Serializer/deserializer for converting to/from JSON.
      */
-    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
 
     public GraphEventEnvelope(GraphEvent event) {
         this.header = new GraphEventHeader.Builder().requestId(event.getTransactionId()).build();
@@ -72,6 +76,46 @@ public class GraphEventEnvelope {
         return gson.toJson(this);
     }
 
+    /**
+     * Serializes this envelope for the event bus, using the encoding named in the
+     * content-encoding field of its header.  Envelopes without a supported binary encoding are
+     * sent as JSON.
+     *
+     * @return the encoded envelope.
+     */
+    public String encode() {
+        if (header == null || !ChampEventEncoding.SMILE.getName().equalsIgnoreCase(header.getContentEncoding())) {
+            return toJson();
+        }
+
+        try {
+            return Base64.getEncoder().encodeToString(GraphEventSmileCodec.encode(gson.toJsonTree(this)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deserializes an envelope read from the event bus, which may be either JSON or a base64
+     * encoded Smile document.
+     *
+     * @param message the encoded envelope.
+     * @return an Event Envelope object.
+     * @throws ChampServiceException
+     */
+    public static GraphEventEnvelope decode(String message) throws ChampServiceException {
+        if (ChampEventEncoding.detect(message) != ChampEventEncoding.SMILE) {
+            return fromJson(message);
+        }
+
+        try {
+            return gson.fromJson(GraphEventSmileCodec.decode(Base64.getDecoder().decode(message)),
+                    GraphEventEnvelope.class);
+        } catch (Exception ex) {
+            throw new ChampServiceException("Unable to parse Smile message: ", Status.BAD_REQUEST);
+        }
+    }
+
     /**
      * Deserializes the provided JSON string into a Event Envelope object.
      *
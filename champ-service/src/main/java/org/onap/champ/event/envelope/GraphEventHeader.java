@@ -57,7 +57,10 @@ public class GraphEventHeader {
     @SerializedName("entity-link")
     private String entityLink;
 
-    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+    @SerializedName("content-encoding")
+    private String contentEncoding;
+
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
 
     public static Builder builder() {
         return new Builder();
@@ -69,6 +72,7 @@ public class GraphEventHeader {
         private String validationEntityType;
         private String validationTopEntityType;
         private String entityLink;
+        private String contentEncoding;
 
         public Builder requestId(String val) {
             requestId = val;
@@ -90,6 +94,11 @@ public class GraphEventHeader {
             return this;
         }
 
+        public Builder contentEncoding(String val) {
+            contentEncoding = val;
+            return this;
+        }
+
         public GraphEventHeader build() {
             return new GraphEventHeader(this);
         }
@@ -104,6 +113,7 @@ public class GraphEventHeader {
         validationEntityType = builder.validationEntityType;
         validationTopEntityType = builder.validationTopEntityType;
         entityLink = builder.entityLink;
+        contentEncoding = builder.contentEncoding;
     }
 
     /**
@@ -175,6 +185,14 @@ public class GraphEventHeader {
         this.entityLink = entityLink;
     }
 
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public void setContentEncoding(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // OVERRIDES
     ///////////////////////////////////////////////////////////////////////////
@@ -187,7 +205,7 @@ public class GraphEventHeader {
     @Override
     public int hashCode() {
         return Objects.hash(this.requestId, this.timestamp, this.sourceName, this.eventType, this.validationEntityType,
-                this.validationTopEntityType, this.entityLink);
+                this.validationTopEntityType, this.entityLink, this.contentEncoding);
     }
 
     /*
@@ -212,6 +230,7 @@ public class GraphEventHeader {
                   .append(validationEntityType, rhs.validationEntityType)
                   .append(validationTopEntityType, rhs.validationTopEntityType)
                   .append(entityLink, rhs.entityLink)
+                  .append(contentEncoding, rhs.contentEncoding)
                   .isEquals();
      // @formatter:on
     }
@@ -0,0 +1,145 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ * ECOMP is a trademark and service mark of AT&T Intellectual Property.
+ */
+package org.onap.champ.event.envelope;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Converts the Gson trees that the graph event classes are mapped to into Smile (binary JSON)
+ * documents and back, streaming straight between the two so that no intermediate JSON text is
+ * produced.
+ */
+final class GraphEventSmileCodec {
+
+    /** Factories are thread safe once configured. */
+    private static final SmileFactory smileFactory = new SmileFactory();
+
+    private GraphEventSmileCodec() {
+    }
+
+    static byte[] encode(JsonElement tree) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = smileFactory.createGenerator(out)) {
+            write(tree, generator);
+        }
+        return out.toByteArray();
+    }
+
+    static JsonElement decode(byte[] smile) throws IOException {
+        try (JsonParser parser = smileFactory.createParser(smile)) {
+            if (parser.nextToken() == null) {
+                throw new IOException("Empty Smile document.");
+            }
+            return read(parser);
+        }
+    }
+
+    private static void write(JsonElement element, JsonGenerator generator) throws IOException {
+        if (element.isJsonObject()) {
+            generator.writeStartObject();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                write(entry.getValue(), generator);
+            }
+            generator.writeEndObject();
+        } else if (element.isJsonArray()) {
+            generator.writeStartArray();
+            for (JsonElement item : element.getAsJsonArray()) {
+                write(item, generator);
+            }
+            generator.writeEndArray();
+        } else if (element.isJsonNull()) {
+            generator.writeNull();
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                generator.writeBoolean(primitive.getAsBoolean());
+            } else if (primitive.isNumber()) {
+                writeNumber(primitive.getAsNumber(), generator);
+            } else {
+                generator.writeString(primitive.getAsString());
+            }
+        }
+    }
+
+    private static void writeNumber(Number number, JsonGenerator generator) throws IOException {
+        if (number instanceof Double || number instanceof Float) {
+            generator.writeNumber(number.doubleValue());
+            return;
+        }
+
+        // Numbers parsed by Gson are kept as text until used, so keep integers compact.
+        String text = number.toString();
+        try {
+            generator.writeNumber(Long.parseLong(text));
+        } catch (NumberFormatException e) {
+            generator.writeNumber(new BigDecimal(text));
+        }
+    }
+
+    private static JsonElement read(JsonParser parser) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == null) {
+            throw new IOException("Truncated Smile document.");
+        }
+        switch (token) {
+            case START_OBJECT:
+                JsonObject object = new JsonObject();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+                    object.add(name, read(parser));
+                }
+                return object;
+            case START_ARRAY:
+                JsonArray array = new JsonArray();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.add(read(parser));
+                }
+                return array;
+            case VALUE_STRING:
+                return new JsonPrimitive(parser.getText());
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return new JsonPrimitive(parser.getNumberValue());
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return new JsonPrimitive(parser.getBooleanValue());
+            case VALUE_NULL:
+                return JsonNull.INSTANCE;
+            default:
+                throw new IOException("Unexpected token in Smile document: " + token);
+        }
+    }
+}
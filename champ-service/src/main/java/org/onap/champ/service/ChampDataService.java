@@ -28,11 +28,13 @@ import org.onap.aai.champcore.exceptions.ChampRelationshipNotExistsException;
 import org.onap.aai.champcore.exceptions.ChampSchemaViolationException;
 import org.onap.aai.champcore.exceptions.ChampTransactionException;
 import org.onap.aai.champcore.exceptions.ChampUnmarshallingException;
+import org.onap.aai.champcore.model.ChampDirection;
 import org.onap.aai.champcore.model.ChampElement;
 import org.onap.aai.champcore.model.ChampField;
 import org.onap.aai.champcore.model.ChampObject;
 import org.onap.aai.champcore.model.ChampObjectIndex;
 import org.onap.aai.champcore.model.ChampRelationship;
+import org.onap.aai.champcore.model.ChampTraversal;
 import org.onap.aai.champcore.model.fluent.object.ObjectBuildOrPropertiesStep;
 import org.onap.aai.cl.api.Logger;
 import org.onap.aai.cl.eelf.LoggerFactory;
@@ -49,16 +51,20 @@ import org.onap.champ.util.ChampServiceConstants;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.ws.rs.core.Response.Status;
 
 public class ChampDataService {
+  private static final int DEFAULT_TRAVERSAL_MAX_DEPTH = 10;
+
   private ChampUUIDService champUUIDService;
 
   private ChampGraph graphImpl;
@@ -68,6 +74,8 @@ public class ChampDataService {
   private static final String SOT_NAME = ChampProperties.get(ChampServiceConstants.CHAMP_SOT_NAME);
   private static final String CREATED_TS_NAME = ChampProperties.get(ChampServiceConstants.CHAMP_CREATED_TS_NAME);
   private static final String LAST_MOD_TS_NAME = ChampProperties.get(ChampServiceConstants.CHAMP_LAST_MOD_TS_NAME);
+  private static final int TRAVERSAL_MAX_DEPTH = getConfiguredTraversalMaxDepth();
+  private static final String NODE_ID = ChampProperties.get(ChampServiceConstants.CHAMP_NODE_ID);
   private Logger logger = LoggerFactory.getInstance().getLogger(ChampDataService.class);
 
 
@@ -170,6 +178,45 @@ public class ChampDataService {
     return (ChampObject) champUUIDService.populateUUIDKey(updated);
   }
 
+  /**
+   * Updates only the supplied properties of the object with the given id.  The key, source of
+   * truth and created timestamp are never patched, and the last modified timestamp is set to
+   * the current time.
+   */
+  public ChampObject patchObject(ChampObject object, String objectId, Optional<ChampTransaction> transaction)
+          throws ChampServiceException, ChampUnmarshallingException, ChampTransactionException, ChampMarshallingException,
+          ChampSchemaViolationException, ChampObjectNotExistsException {
+    if (!graphInitialized) {
+      initializeGraph();
+    }
+
+    if (object.getKey().isPresent() && (!object.getKeyValue().equals(objectId))) {
+      throw new ChampServiceException("Object Id in the URI doesn't match the body.", Status.BAD_REQUEST);
+    }
+
+    if (object.getProperty(KEY_NAME).isPresent() && !object.getProperty(KEY_NAME).get().toString().equals(objectId)) {
+      throw new ChampServiceException(KEY_NAME + " can't be updated", Status.BAD_REQUEST);
+    }
+
+    Optional<ChampObject> retrieved = champUUIDService.getObjectbyUUID(objectId, transaction.orElse(null));
+    if (!retrieved.isPresent()) {
+      throw new ChampServiceException(objectId + " not found", Status.NOT_FOUND);
+    }
+
+    checkTimestampsUnchanged(object, retrieved.get());
+
+    Map<String, Object> properties = new HashMap<>(object.getProperties());
+    properties.remove(KEY_NAME);
+    properties.remove(SOT_NAME);
+    properties.remove(CREATED_TS_NAME);
+    properties.put(LAST_MOD_TS_NAME, System.currentTimeMillis());
+
+    ChampObject payload = new ChampObject.Builder(retrieved.get().getType()).key(retrieved.get().getKey().get())
+            .properties(properties).build();
+    ChampObject patched = graphImpl.patchObject(payload, transaction);
+    return (ChampObject) champUUIDService.populateUUIDKey(patched);
+  }
+
   public void deleteObject(String objectId, Optional<ChampTransaction> transaction) throws ChampServiceException,
           ChampObjectNotExistsException, ChampTransactionException, ChampUnmarshallingException {
     if (!graphInitialized) {
@@ -180,13 +227,14 @@ public class ChampDataService {
     if (!retrieved.isPresent()) {
       throw new ChampServiceException(objectId + " not found", Status.NOT_FOUND);
     }
-    Stream<ChampRelationship> relationships = graphImpl.retrieveRelationships(retrieved.get(), transaction);
-
-    if (relationships.count() > 0) {
-      throw new ChampServiceException("Attempt to delete vertex with id " + objectId + " which has incident edges.",
-              Status.BAD_REQUEST);
+    try (Stream<ChampRelationship> relationships = graphImpl.retrieveRelationships(retrieved.get(), transaction)) {
+      if (relationships.findAny().isPresent()) {
+        throw new ChampServiceException("Attempt to delete vertex with id " + objectId + " which has incident edges.",
+                Status.BAD_REQUEST);
+      }
     }
     graphImpl.deleteObject(retrieved.get().getKey().get(), transaction);
+    champUUIDService.invalidateObject(objectId);
 
   }
 
@@ -283,6 +331,54 @@ public class ChampDataService {
     return (ChampRelationship) champUUIDService.populateUUIDKey(updated);
   }
 
+  /**
+   * Updates only the supplied properties of the relationship with the given id.  The source
+   * and target may be omitted from the supplied relationship, but cannot be changed.
+   */
+  public ChampRelationship patchRelationship(ChampRelationship r, String rId, Optional<ChampTransaction> transaction)
+          throws ChampServiceException, ChampUnmarshallingException, ChampTransactionException, ChampMarshallingException,
+          ChampSchemaViolationException, ChampRelationshipNotExistsException {
+    if (!graphInitialized) {
+      initializeGraph();
+    }
+
+    if (r.getKey().isPresent() && (!r.getKeyValue().equals(rId))) {
+      throw new ChampServiceException("Relationship Id in the URI \"" + rId + "\" doesn't match the URI in the body"
+              + " \"" + r.getKeyValue() + "\"", Status.BAD_REQUEST);
+    }
+
+    if (r.getProperty(KEY_NAME).isPresent() && !r.getProperty(KEY_NAME).get().toString().equals(rId)) {
+      throw new ChampServiceException(KEY_NAME + " can't be updated", Status.BAD_REQUEST);
+    }
+
+    Optional<ChampRelationship> retrieved = champUUIDService.getRelationshipbyUUID(rId, transaction.orElse(null));
+    if (!retrieved.isPresent()) {
+      throw new ChampServiceException(rId + " not found", Status.NOT_FOUND);
+    }
+
+    ChampObject source = retrieved.get().getSource();
+    ChampObject target = retrieved.get().getTarget();
+
+    if ((r.getSource() != null && r.getSource().getKey().isPresent()
+            && !source.getProperty(KEY_NAME).get().toString().equals(r.getSource().getKey().get().toString()))
+            || (r.getTarget() != null && r.getTarget().getKey().isPresent()
+            && !target.getProperty(KEY_NAME).get().toString().equals(r.getTarget().getKey().get().toString()))) {
+      throw new ChampServiceException("Source/Target cannot be updated", Status.BAD_REQUEST);
+    }
+
+    checkTimestampsUnchanged(r, retrieved.get());
+
+    Map<String, Object> properties = new HashMap<>(r.getProperties());
+    properties.remove(KEY_NAME);
+    properties.remove(CREATED_TS_NAME);
+    properties.put(LAST_MOD_TS_NAME, System.currentTimeMillis());
+
+    ChampRelationship payload = new ChampRelationship.Builder(source, target, retrieved.get().getType())
+            .key(retrieved.get().getKey().get()).properties(properties).build();
+    ChampRelationship patched = graphImpl.patchRelationship(payload, transaction);
+    return (ChampRelationship) champUUIDService.populateUUIDKey(patched);
+  }
+
   public void deleteRelationship(String relationshipId, Optional<ChampTransaction> transaction)
           throws ChampServiceException, ChampRelationshipNotExistsException, ChampTransactionException,
           ChampUnmarshallingException {
@@ -297,12 +393,35 @@ public class ChampDataService {
     }
 
     graphImpl.deleteRelationship(retrieved.get(), transaction);
+    champUUIDService.invalidateRelationship(relationshipId);
 
   }
 
 
   public List<ChampRelationship> getRelationshipsByObject(String objectId, Optional<ChampTransaction> transaction)
           throws ChampServiceException {
+    return getRelationshipsByObject(objectId, ChampDirection.BOTH, Collections.emptySet(), transaction);
+  }
+
+  public List<ChampRelationship> getRelationshipsByObject(String objectId, ChampDirection direction, Set<String> types,
+          Optional<ChampTransaction> transaction) throws ChampServiceException {
+    try (Stream<ChampRelationship> elements = streamRelationshipsByObject(objectId, direction, types, transaction)) {
+      return elements.collect(Collectors.toList());
+    }
+  }
+
+  public Stream<ChampRelationship> streamRelationshipsByObject(String objectId, Optional<ChampTransaction> transaction)
+          throws ChampServiceException {
+    return streamRelationshipsByObject(objectId, ChampDirection.BOTH, Collections.emptySet(), transaction);
+  }
+
+  /**
+   * Lazily gets the relationships of the given types incident to the object with the given
+   * id in the given direction.  An empty set of types matches all relationship types.  The
+   * caller must consume or close the returned stream.
+   */
+  public Stream<ChampRelationship> streamRelationshipsByObject(String objectId, ChampDirection direction,
+          Set<String> types, Optional<ChampTransaction> transaction) throws ChampServiceException {
     if (!graphInitialized) {
       initializeGraph();
     }
@@ -312,11 +431,10 @@ public class ChampDataService {
       if (!retrievedObject.isPresent()) {
         throw new ChampServiceException(objectId + " not found", Status.NOT_FOUND);
       }
-      List<ChampRelationship> relations = new ArrayList<ChampRelationship>();
 
-      Stream<ChampRelationship> retrieved = graphImpl.retrieveRelationships(retrievedObject.get(), transaction);
-      relations = champUUIDService.populateUUIDKey(retrieved.collect(Collectors.toList()));
-      return relations;
+      return graphImpl.retrieveRelationships(retrievedObject.get(), direction, types, Collections.emptyMap(), transaction)
+          .map(r -> (ChampRelationship) champUUIDService.populateUUIDKey(r))
+          .filter(r -> r != null);
     } catch (ChampObjectNotExistsException e) {
       throw new ChampServiceException(" obj not found", Status.NOT_FOUND);
     } catch (ChampUnmarshallingException | ChampTransactionException e) {
@@ -333,39 +451,154 @@ public class ChampDataService {
    * @throws ChampServiceException
    */
   public List<ChampObject> queryObjects(Map<String, Object> filter, HashSet<String> properties) throws ChampServiceException {
+    return queryObjects(filter, properties, 0, -1);
+  }
+
+  /**
+   * Gets a page of the ChampObjects that pass filter
+   * @param filter key/value pairs that must be present in the returned objects
+   * @param properties properties that will show up in the object
+   * @param offset number of matching objects to skip
+   * @param limit maximum number of objects to return, negative for no limit
+   * @return
+   * @throws ChampServiceException
+   */
+  public List<ChampObject> queryObjects(Map<String, Object> filter, HashSet<String> properties, long offset, long limit)
+          throws ChampServiceException {
+    try (Stream<ChampObject> elements = streamObjects(filter, properties, offset, limit)) {
+      return elements.collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Lazily gets a page of the ChampObjects that pass filter.  Objects are read from the
+   * graph as the returned stream is consumed, so the caller must consume or close it.
+   * @param filter key/value pairs that must be present in the returned objects
+   * @param properties properties that will show up in the object
+   * @param offset number of matching objects to skip
+   * @param limit maximum number of objects to return, negative for no limit
+   * @return
+   * @throws ChampServiceException
+   */
+  public Stream<ChampObject> streamObjects(Map<String, Object> filter, HashSet<String> properties, long offset,
+          long limit) throws ChampServiceException {
     if (!graphInitialized) {
       initializeGraph();
     }
       
     try {
-      Stream<ChampObject> retrieved = graphImpl.queryObjects(filter);
-      List<ChampObject> objects = champUUIDService.populateUUIDKey(retrieved.collect(Collectors.toList()));
-
-      if (!properties.contains("all")) {
-        for (ChampObject champObject : objects) {
-          champObject.dropProperties(properties);
-        }
+      if (properties.contains("all")) {
+        return graphImpl.queryObjects(filter, offset, limit)
+            .map(o -> (ChampObject) champUUIDService.populateUUIDKey(o))
+            .filter(o -> o != null);
       }
 
-      return objects;
+      // Only fetch the requested properties from the graph.  The key property is always
+      // needed to populate the object key, and is dropped again if it was not requested.
+      Set<String> propertyKeys = new HashSet<>(properties);
+      propertyKeys.add(KEY_NAME);
+
+      return graphImpl.queryObjects(filter, propertyKeys, offset, limit)
+          .map(o -> (ChampObject) champUUIDService.populateUUIDKey(o))
+          .filter(o -> o != null)
+          .map(o -> o.dropProperties(properties));
+    } catch (ChampTransactionException e) {
+      throw new ChampServiceException("Internal Error", Status.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Counts the ChampObjects that pass filter, without retrieving them
+   * @param filter key/value pairs that must be present in the counted objects
+   * @return
+   * @throws ChampServiceException
+   */
+  public long countObjects(Map<String, Object> filter) throws ChampServiceException {
+    if (!graphInitialized) {
+      initializeGraph();
+    }
+
+    try {
+      return graphImpl.countObjects(filter);
+    } catch (ChampTransactionException e) {
+      throw new ChampServiceException("Internal Error", Status.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  public long countRelationships(Map<String, Object> filter) throws ChampServiceException {
+    if (!graphInitialized) {
+      initializeGraph();
+    }
+
+    try {
+      return graphImpl.countRelationships(filter);
     } catch (ChampTransactionException e) {
       throw new ChampServiceException("Internal Error", Status.INTERNAL_SERVER_ERROR);
     }
   }
 
   public List<ChampRelationship> queryRelationships(Map<String, Object> filter) throws ChampServiceException {
+    return queryRelationships(filter, 0, -1);
+  }
+
+  public List<ChampRelationship> queryRelationships(Map<String, Object> filter, long offset, long limit)
+          throws ChampServiceException {
+    try (Stream<ChampRelationship> elements = streamRelationships(filter, offset, limit)) {
+      return elements.collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Lazily gets a page of the ChampRelationships that pass filter.  Relationships are read
+   * from the graph as the returned stream is consumed, so the caller must consume or close it.
+   */
+  public Stream<ChampRelationship> streamRelationships(Map<String, Object> filter, long offset, long limit)
+          throws ChampServiceException {
     if (!graphInitialized) {
       initializeGraph();
     }
       
     try {
-      List<ChampRelationship> relations = new ArrayList<ChampRelationship>();
-      Stream<ChampRelationship> retrieved;
+      return graphImpl.queryRelationships(filter, offset, limit)
+          .map(r -> (ChampRelationship) champUUIDService.populateUUIDKey(r))
+          .filter(r -> r != null);
+    } catch (ChampTransactionException e) {
+      throw new ChampServiceException("Internal Error", Status.INTERNAL_SERVER_ERROR);
+    }
+  }
 
-      retrieved = graphImpl.queryRelationships(filter);
+  /**
+   * Gets the ChampObjects reached by the final step of a multi-hop traversal
+   * @param traversal the traversal to execute
+   * @return
+   * @throws ChampServiceException
+   */
+  public List<ChampObject> traverse(ChampTraversal traversal, Optional<ChampTransaction> transaction)
+          throws ChampServiceException {
+    try (Stream<ChampObject> elements = streamTraversal(traversal, transaction)) {
+      return elements.collect(Collectors.toList());
+    }
+  }
 
-      relations = champUUIDService.populateUUIDKey(retrieved.collect(Collectors.toList()));
-      return relations;
+  /**
+   * Lazily gets the ChampObjects reached by the final step of a multi-hop traversal.  The
+   * caller must consume or close the returned stream.
+   */
+  public Stream<ChampObject> streamTraversal(ChampTraversal traversal, Optional<ChampTransaction> transaction)
+          throws ChampServiceException {
+    if (!graphInitialized) {
+      initializeGraph();
+    }
+
+    if (traversal.getDepth() > TRAVERSAL_MAX_DEPTH) {
+      throw new ChampServiceException("Traversal depth " + traversal.getDepth() + " exceeds the maximum of "
+          + TRAVERSAL_MAX_DEPTH, Status.BAD_REQUEST);
+    }
+
+    try {
+      return graphImpl.traverse(traversal, transaction)
+          .map(o -> (ChampObject) champUUIDService.populateUUIDKey(o))
+          .filter(o -> o != null);
     } catch (ChampTransactionException e) {
       throw new ChampServiceException("Internal Error", Status.INTERNAL_SERVER_ERROR);
     }
@@ -390,14 +623,21 @@ public class ChampDataService {
     }
   }
 
-  public String openTransaction() {
+  public String openTransaction() throws ChampServiceException {
     if (!graphInitialized) {
       initializeGraph();
     }
     
     ChampTransaction transaction = graphImpl.openTransaction();
-    String transacId = transaction.id();
-    cache.put(transacId, transaction);
+    String transacId = ChampTransactionForwarder.qualify(NODE_ID, transaction.id());
+    if (!cache.put(transacId, transaction)) {
+      try {
+        graphImpl.rollbackTransaction(transaction);
+      } catch (ChampTransactionException e) {
+        logger.error(ChampMsgs.CHAMP_DATA_SERVICE_ERROR, "Unable to roll back refused transaction: " + e.getMessage());
+      }
+      throw new ChampServiceException("Too many open transactions", Status.SERVICE_UNAVAILABLE);
+    }
     return transacId;
 
   }
@@ -470,6 +710,11 @@ public class ChampDataService {
           addedObjects.put(op.getLabel(), addedObj);
           addedObjectsResp.add(new ChampBulkVertexResponse(op.getLabel(), addedObj));
         }
+        else if (op.getOperation().equals(ChampBulkPayload.PATCH_OP)) {
+          ChampObject addedObj = patchObject(op.toChampObject(), op.getId(), Optional.ofNullable(transaction));
+          addedObjects.put(op.getLabel(), addedObj);
+          addedObjectsResp.add(new ChampBulkVertexResponse(op.getLabel(), addedObj));
+        }
         else {
           ChampObject addedObj = replaceObject(op.toChampObject(), op.getId(), Optional.ofNullable(transaction));
           addedObjects.put(op.getLabel(), addedObj);
@@ -487,6 +732,10 @@ public class ChampDataService {
           ChampRelationship addedRel = storeRelationship(op.toChampRelationship(), Optional.ofNullable(transaction));
           addedEdgesResp.add(new ChampBulkEdgeResponse(op.getLabel(), addedRel));
         }
+        else if (op.getOperation().equals(ChampBulkPayload.PATCH_OP)) {
+          ChampRelationship addedRel = patchRelationship(op.toChampRelationship(), op.getId(), Optional.ofNullable(transaction));
+          addedEdgesResp.add(new ChampBulkEdgeResponse(op.getLabel(), addedRel));
+        }
         else {
           ChampRelationship addedRel = updateRelationship(op.toChampRelationship(), op.getId(), Optional.ofNullable(transaction));
           addedEdgesResp.add(new ChampBulkEdgeResponse(op.getLabel(), addedRel));
@@ -521,6 +770,24 @@ public class ChampDataService {
     return vertexId;
   }
 
+  private static int getConfiguredTraversalMaxDepth() {
+    String maxDepth = ChampProperties.get(ChampServiceConstants.CHAMP_TRAVERSAL_MAX_DEPTH);
+    if (maxDepth == null || maxDepth.isEmpty()) {
+      return DEFAULT_TRAVERSAL_MAX_DEPTH;
+    }
+    return Integer.parseInt(maxDepth);
+  }
+
+  private void checkTimestampsUnchanged(ChampElement e, ChampElement retrieved) throws ChampServiceException {
+    for (String timestamp : new String[] {CREATED_TS_NAME, LAST_MOD_TS_NAME}) {
+      Object supplied = e.getProperties().get(timestamp);
+      Object stored = retrieved.getProperties().get(timestamp);
+      if (supplied != null && stored != null && !stored.toString().equals(supplied.toString())) {
+        throw new ChampServiceException(timestamp + " can't be updated", Status.BAD_REQUEST);
+      }
+    }
+  }
+
   private void addTimestamps(ChampElement e, Long oldCreated) {
     Long timestamp = System.currentTimeMillis();
 
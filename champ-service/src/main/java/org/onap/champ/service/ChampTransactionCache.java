@@ -22,76 +22,223 @@
  */
 package org.onap.champ.service;
 
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.onap.aai.champcore.ChampGraph;
 import org.onap.aai.champcore.ChampTransaction;
 import org.onap.aai.champcore.exceptions.ChampTransactionException;
 import org.onap.champ.service.logging.ChampMsgs;
+import org.onap.champ.util.ChampProperties;
+import org.onap.champ.util.ChampServiceConstants;
 import org.onap.aai.cl.api.Logger;
 import org.onap.aai.cl.eelf.LoggerFactory;
 
+import com.google.common.base.Ticker;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalCause;
-import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
 
 /**
- * Self expiring Cache to hold request transactionIds . Events are expired
- * automatically after configured interval
+ * Self expiring Cache to hold request transactionIds . Transactions are expired
+ * automatically once they have not been used for the configured interval.  Expired
+ * transactions are rolled back by a background cleanup thread, so that abandoned
+ * transactions do not hold on to graph resources until the next lookup.
+ * <p>
+ * Once the cache holds its maximum number of transactions, new ones are refused rather
+ * than rolling back transactions which are still in use.
+ * <p>
+ * The number of open, expired, refused and rolled back transactions is exported as a JMX
+ * MXBean named {@value #MBEAN_NAME}.
  */
-public class ChampTransactionCache {
+public class ChampTransactionCache implements ChampTransactionCacheMXBean {
   private static Logger logger = LoggerFactory.getInstance().getLogger(ChampTransactionCache
       .class.getName());
 
+  public static final String MBEAN_NAME = "org.onap.champ:type=ChampTransactionCache";
+  private static final long DEFAULT_MAX_SIZE = 10000;
+  private static final long DEFAULT_CLEANUP_INTERVAL_IN_SEC = 10;
+
   
   private ChampGraph graphImpl;
   private Cache<String, ChampTransaction> cache;
+  private final long maxSize;
+  private final ScheduledExecutorService cleanupExecutor;
+  private boolean mbeanRegistered = false;
+
+  private final AtomicLong expiredCount = new AtomicLong();
+  private final AtomicLong rejectedCount = new AtomicLong();
+  private final AtomicLong rolledBackCount = new AtomicLong();
+  private final AtomicLong rollbackFailedCount = new AtomicLong();
 
 
 
   public ChampTransactionCache(long txTimeOutInSec,ChampGraph graphImpl) {
-    CacheBuilder builder = CacheBuilder.newBuilder().expireAfterWrite(txTimeOutInSec, TimeUnit.SECONDS)
-        .removalListener(new RemovalListener() {
-
-          public void onRemoval(RemovalNotification notification) {
-            if(notification.getCause()==RemovalCause.EXPIRED){
-            logger.info(ChampMsgs.CHAMP_TX_CACHE, "Following transaction: "+notification.getKey()+" is being evicted from cache due to timeout of " + txTimeOutInSec+" seconds");
-            try {
-              graphImpl.rollbackTransaction((ChampTransaction) notification.getValue());
-              logger.info(ChampMsgs.CHAMP_TX_CACHE, "Transaction rolledback successfully :" + notification.getKey());
-            } catch (ChampTransactionException e) {
-              logger.error(ChampMsgs.CHAMP_DATA_SERVICE_ERROR, e, "Transaction rolledback failed :");
-            }
-            }
-          }
-        });
-    cache = builder.build();
+    this(txTimeOutInSec, getConfiguredLong(ChampServiceConstants.CHAMP_TX_CACHE_MAX_SIZE, DEFAULT_MAX_SIZE),
+        getConfiguredLong(ChampServiceConstants.CHAMP_TX_CACHE_CLEANUP_INTERVAL, DEFAULT_CLEANUP_INTERVAL_IN_SEC),
+        graphImpl);
+  }
+
+  public ChampTransactionCache(long txTimeOutInSec, long maxSize, long cleanupIntervalInSec, ChampGraph graphImpl) {
+    this(txTimeOutInSec, maxSize, graphImpl, Ticker.systemTicker());
 
+    cleanupExecutor.scheduleWithFixedDelay(this::cleanUp, cleanupIntervalInSec, cleanupIntervalInSec, TimeUnit.SECONDS);
+    registerMBean();
+  }
+
+  /**
+   * Creates a cache without a cleanup thread or MBean, driven by the supplied ticker.
+   */
+  ChampTransactionCache(long txTimeOutInSec, long maxSize, ChampGraph graphImpl, Ticker ticker) {
     this.graphImpl = graphImpl;
-    
+    this.maxSize = maxSize;
+    this.cache = CacheBuilder.newBuilder()
+        .expireAfterAccess(txTimeOutInSec, TimeUnit.SECONDS)
+        .ticker(ticker)
+        .removalListener((RemovalNotification<String, ChampTransaction> notification) -> onRemoval(notification, txTimeOutInSec))
+        .build();
+    this.cleanupExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "champ-tx-cache-cleanup");
+      t.setDaemon(true);
+      return t;
+    });
   }
 
-  public  void put(String txId, ChampTransaction tx) {
-    cache.put(txId, tx);
+  private static long getConfiguredLong(String property, long defaultValue) {
+    String value = ChampProperties.get(property);
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+    return Long.parseLong(value);
+  }
 
+  private void onRemoval(RemovalNotification<String, ChampTransaction> notification, long txTimeOutInSec) {
+    if (notification.getCause() != RemovalCause.EXPIRED) {
+      return;
+    }
+
+    expiredCount.incrementAndGet();
+    logger.info(ChampMsgs.CHAMP_TX_CACHE, "Following transaction: " + notification.getKey()
+        + " is being evicted from cache due to timeout of " + txTimeOutInSec + " seconds");
+
+    try {
+      graphImpl.rollbackTransaction(notification.getValue());
+      rolledBackCount.incrementAndGet();
+      logger.info(ChampMsgs.CHAMP_TX_CACHE, "Transaction rolledback successfully :" + notification.getKey());
+    } catch (ChampTransactionException e) {
+      rollbackFailedCount.incrementAndGet();
+      logger.error(ChampMsgs.CHAMP_DATA_SERVICE_ERROR, e, "Transaction rolledback failed :");
+    }
+  }
+
+  private void registerMBean() {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(MBEAN_NAME);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(this, name);
+      mbeanRegistered = true;
+    } catch (Exception e) {
+      logger.error(ChampMsgs.CHAMP_DATA_SERVICE_ERROR, e, "Failed to register transaction cache MBean :");
+    }
+  }
+
+  private void unregisterMBean() {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(MBEAN_NAME);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    } catch (Exception e) {
+      logger.error(ChampMsgs.CHAMP_DATA_SERVICE_ERROR, e, "Failed to unregister transaction cache MBean :");
+    }
+  }
+
+  /**
+   * Adds a transaction to the cache, unless the cache already holds its maximum number of
+   * transactions.  Expired transactions are rolled back first to make room.
+   *
+   * @return false if the cache is full, in which case the caller still owns the transaction
+   */
+  public synchronized boolean put(String txId, ChampTransaction tx) {
+    if (cache.size() >= maxSize) {
+      cleanUp();
+      if (cache.size() >= maxSize) {
+        rejectedCount.incrementAndGet();
+        logger.info(ChampMsgs.CHAMP_TX_CACHE, "Transaction cache is full, refusing transaction: " + txId);
+        return false;
+      }
+    }
+    cache.put(txId, tx);
+    return true;
   }
 
   public  ChampTransaction get(String txId) {
     if (txId==null)
       return null;
-    if(cache.getIfPresent(txId)==null){
-      //cleanup cache so that removalListener is called
-      cache.cleanUp();
-    }
     return cache.getIfPresent(txId);
   }
 
   public  void invalidate(String txId) {
     cache.invalidate(txId);
   }
-  
 
+  /**
+   * Rolls back any transactions which have expired since the last cleanup.
+   */
+  public void cleanUp() {
+    try {
+      cache.cleanUp();
+    } catch (RuntimeException e) {
+      logger.error(ChampMsgs.CHAMP_DATA_SERVICE_ERROR, e, "Transaction cache cleanup failed :");
+    }
+  }
+
+  /**
+   * Stops the background cleanup thread and unregisters the MBean.
+   */
+  @PreDestroy
+  public void shutdown() {
+    cleanupExecutor.shutdownNow();
+    if (mbeanRegistered) {
+      unregisterMBean();
+      mbeanRegistered = false;
+    }
+  }
+
+  @Override
+  public long getOpenTransactions() {
+    return cache.size();
+  }
+
+  @Override
+  public long getExpiredTransactions() {
+    return expiredCount.get();
+  }
+
+  @Override
+  public long getRejectedTransactions() {
+    return rejectedCount.get();
+  }
 
+  @Override
+  public long getRolledBackTransactions() {
+    return rolledBackCount.get();
+  }
+
+  @Override
+  public long getFailedRollbacks() {
+    return rollbackFailedCount.get();
+  }
 }
@@ -0,0 +1,44 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Modifications Copyright (C) 2019 IBM.
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.champ.service;
+
+/**
+ * Gauges exported over JMX by the {@link ChampTransactionCache}.
+ */
+public interface ChampTransactionCacheMXBean {
+
+  /** @return the number of transactions currently held open by the cache */
+  long getOpenTransactions();
+
+  /** @return the number of transactions removed because they were idle for too long */
+  long getExpiredTransactions();
+
+  /** @return the number of new transactions refused because the cache was full */
+  long getRejectedTransactions();
+
+  /** @return the number of expired transactions which were rolled back */
+  long getRolledBackTransactions();
+
+  /** @return the number of expired transactions which failed to roll back */
+  long getFailedRollbacks();
+}
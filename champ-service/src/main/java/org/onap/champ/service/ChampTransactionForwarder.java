@@ -0,0 +1,354 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Modifications Copyright (C) 2019 IBM.
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.champ.service;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriBuilder;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.HttpUrlConnectorProvider;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.onap.aai.cl.api.Logger;
+import org.onap.aai.cl.eelf.LoggerFactory;
+import org.onap.champ.service.logging.ChampMsgs;
+import org.onap.champ.util.ChampProperties;
+import org.onap.champ.util.ChampServiceConstants;
+
+/**
+ * Routes requests for transactions to the champ-service node that owns them.
+ * <p>
+ * Open transactions only live in the {@link ChampTransactionCache} of the node that opened
+ * them.  When a node id is configured, transaction ids are prefixed with the id of the owning
+ * node (<code>nodeId.localId</code>), so that any node receiving a request for a transaction
+ * can tell where it lives.  With forwarding enabled, requests for transactions owned by another
+ * configured node are proxied to that node and its response is returned unchanged.  This allows
+ * a cluster to be scaled out behind a load balancer without sticky sessions.
+ * <p>
+ * Request and response bodies are streamed through rather than read into memory, so that
+ * large and streamed (<code>_reserved_stream=true</code>) responses can be forwarded.
+ */
+public class ChampTransactionForwarder {
+  private static Logger logger = LoggerFactory.getInstance().getLogger(ChampTransactionForwarder.class.getName());
+
+  public static final String NODE_SEPARATOR = ".";
+
+  /** Set on forwarded requests, so that they are never forwarded a second time. */
+  public static final String FORWARDED_BY_HEADER = "X-Champ-Forwarded-By";
+
+  private static final long DEFAULT_TIMEOUT_IN_MS = 30000;
+
+  private static final Set<String> HOP_BY_HOP_HEADERS = new HashSet<>(Arrays.asList(
+      "host", "connection", "keep-alive", "content-length", "transfer-encoding", "te", "trailer", "upgrade",
+      "proxy-authorization", "proxy-authenticate"));
+
+  private final String localNodeId;
+  private final Map<String, URI> nodes;
+  private final Client client;
+
+  /**
+   * Creates a forwarder from the champ-service properties.  Forwarding is disabled unless
+   * {@value ChampServiceConstants#CHAMP_TX_FORWARDING_ENABLED} is set to true.
+   *
+   * @param sslContext - presents this node's certificate to the other nodes, which require
+   *        client authentication; null to use the JVM defaults
+   */
+  public static ChampTransactionForwarder fromProperties(SSLContext sslContext) {
+    String nodeId = ChampProperties.get(ChampServiceConstants.CHAMP_NODE_ID);
+    boolean enabled = Boolean.parseBoolean(ChampProperties.get(ChampServiceConstants.CHAMP_TX_FORWARDING_ENABLED));
+    Map<String, String> nodes = enabled ? parseNodes(ChampProperties.get(ChampServiceConstants.CHAMP_TX_NODES))
+        : Collections.emptyMap();
+
+    String timeout = ChampProperties.get(ChampServiceConstants.CHAMP_TX_FORWARDING_TIMEOUT);
+    long timeoutInMs = (timeout == null || timeout.isEmpty()) ? DEFAULT_TIMEOUT_IN_MS : Long.parseLong(timeout);
+
+    return new ChampTransactionForwarder(nodeId, nodes, timeoutInMs, sslContext);
+  }
+
+  public ChampTransactionForwarder(String localNodeId, Map<String, String> nodes, long timeoutInMs) {
+    this(localNodeId, nodes, timeoutInMs, null);
+  }
+
+  /**
+   * @param localNodeId - the id of this node, or null if transaction ids are not node qualified
+   * @param nodes - the base URI (scheme, host and port) of every node in the cluster, keyed by node id
+   * @param timeoutInMs - connect and read timeout for forwarded requests
+   * @param sslContext - used for forwarded https requests, or null to use the JVM defaults
+   */
+  public ChampTransactionForwarder(String localNodeId, Map<String, String> nodes, long timeoutInMs,
+      SSLContext sslContext) {
+    this.localNodeId = (localNodeId == null || localNodeId.isEmpty()) ? null : localNodeId;
+    this.nodes = new HashMap<>();
+    nodes.forEach((id, uri) -> this.nodes.put(id, URI.create(uri)));
+
+    ClientBuilder builder = ClientBuilder.newBuilder();
+    if (sslContext != null) {
+      builder.sslContext(sslContext);
+    }
+    this.client = builder.build()
+        .property(ClientProperties.CONNECT_TIMEOUT, (int) timeoutInMs)
+        .property(ClientProperties.READ_TIMEOUT, (int) timeoutInMs)
+        .property(ClientProperties.FOLLOW_REDIRECTS, false)
+        .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED)
+        .property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true);
+  }
+
+  /**
+   * Creates an SSL context that presents the certificate in the key store and trusts the
+   * certificates in the trust store.
+   *
+   * @param keyStore - path of the key store
+   * @param keyStoreType - type of the key store, or null for the JVM default
+   * @param keyStorePassword - password of the key store and of the key in it
+   * @param trustStore - path of the trust store, or null to trust the certificates in the key store
+   * @param trustStorePassword - password of the trust store
+   */
+  public static SSLContext createSslContext(String keyStore, String keyStoreType, String keyStorePassword,
+      String trustStore, String trustStorePassword) {
+    try {
+      KeyStore keys = loadKeyStore(keyStore, keyStoreType, keyStorePassword);
+      KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+      keyManagers.init(keys, keyStorePassword == null ? null : keyStorePassword.toCharArray());
+
+      KeyStore trusted = trustStore == null ? keys : loadKeyStore(trustStore, keyStoreType, trustStorePassword);
+      TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+      trustManagers.init(trusted);
+
+      SSLContext sslContext = SSLContext.getInstance("TLS");
+      sslContext.init(keyManagers.getKeyManagers(), trustManagers.getTrustManagers(), null);
+      return sslContext;
+    } catch (GeneralSecurityException | IOException e) {
+      throw new IllegalArgumentException("Unable to load key store " + keyStore + " or trust store " + trustStore
+          + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static KeyStore loadKeyStore(String path, String type, String password)
+      throws GeneralSecurityException, IOException {
+    KeyStore keyStore = KeyStore.getInstance(type == null ? KeyStore.getDefaultType() : type);
+    try (InputStream in = new FileInputStream(path)) {
+      keyStore.load(in, password == null ? null : password.toCharArray());
+    }
+    return keyStore;
+  }
+
+  /**
+   * Parses a node list of the form <code>node1=https://host1:9522,node2=https://host2:9522</code>.
+   */
+  static Map<String, String> parseNodes(String value) {
+    Map<String, String> nodes = new HashMap<>();
+    if (value == null || value.trim().isEmpty()) {
+      return nodes;
+    }
+
+    for (String node : value.split(",")) {
+      String[] parts = node.split("=", 2);
+      if (parts.length != 2 || parts[0].trim().isEmpty() || parts[1].trim().isEmpty()) {
+        throw new IllegalArgumentException("Invalid entry in " + ChampServiceConstants.CHAMP_TX_NODES + ": " + node);
+      }
+      nodes.put(parts[0].trim(), parts[1].trim());
+    }
+    return nodes;
+  }
+
+  /**
+   * Qualifies a transaction id with the id of the node that owns it.
+   *
+   * @param nodeId - the owning node, or null/empty to leave the id unqualified
+   * @param transactionId - the id of the transaction in the owning node's graph
+   */
+  public static String qualify(String nodeId, String transactionId) {
+    if (nodeId == null || nodeId.isEmpty()) {
+      return transactionId;
+    }
+    return nodeId + NODE_SEPARATOR + transactionId;
+  }
+
+  /**
+   * Returns the node that owns the transaction, if the id is node qualified.
+   */
+  public static Optional<String> ownerOf(String transactionId) {
+    if (transactionId == null) {
+      return Optional.empty();
+    }
+
+    int separator = transactionId.lastIndexOf(NODE_SEPARATOR);
+    if (separator <= 0) {
+      return Optional.empty();
+    }
+    return Optional.of(transactionId.substring(0, separator));
+  }
+
+  public String getLocalNodeId() {
+    return localNodeId;
+  }
+
+  /**
+   * Returns the base URI of the node that owns the transaction, if it is a different known node.
+   */
+  public Optional<URI> remoteOwner(String transactionId) {
+    if (nodes.isEmpty()) {
+      return Optional.empty();
+    }
+
+    return ownerOf(transactionId)
+        .filter(owner -> !owner.equals(localNodeId))
+        .map(nodes::get);
+  }
+
+  /**
+   * Proxies a request to another node and returns that node's response.  The response body is
+   * streamed from the other node as it is written out, and the connection is closed once it has
+   * been written.
+   *
+   * @param owner - base URI of the node to forward to
+   * @param method - the HTTP method of the original request
+   * @param requestUri - the absolute URI of the original request; only its path and query are kept
+   * @param headers - the headers of the original request
+   * @param mediaType - the media type of the request body, if any
+   * @param body - the request body, if any
+   */
+  public Response forward(URI owner, String method, URI requestUri, MultivaluedMap<String, String> headers,
+      MediaType mediaType, InputStream body) {
+    URI target = UriBuilder.fromUri(requestUri)
+        .scheme(owner.getScheme())
+        .host(owner.getHost())
+        .port(owner.getPort())
+        .build();
+
+    logger.info(ChampMsgs.CHAMP_TX_FORWARDER_INFO, "Forwarding " + method + " " + requestUri.getRawPath()
+        + " to " + owner);
+
+    try {
+      Invocation.Builder request = client.target(target).request();
+      for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+        if (!HOP_BY_HOP_HEADERS.contains(header.getKey().toLowerCase())
+            && !header.getKey().equalsIgnoreCase("Content-Type")) {
+          for (String value : header.getValue()) {
+            request.header(header.getKey(), value);
+          }
+        }
+      }
+      request.header(FORWARDED_BY_HEADER, localNodeId == null ? "unknown" : localNodeId);
+
+      Optional<InputStream> content = nonEmpty(body);
+      Response response = !content.isPresent() ? request.method(method)
+          : request.method(method, Entity.entity(content.get(),
+              mediaType == null ? MediaType.APPLICATION_OCTET_STREAM_TYPE : mediaType));
+
+      boolean streaming = false;
+      try {
+        Response.ResponseBuilder forwarded = Response.status(response.getStatus());
+        for (Map.Entry<String, List<Object>> header : response.getHeaders().entrySet()) {
+          if (!HOP_BY_HOP_HEADERS.contains(header.getKey().toLowerCase())) {
+            for (Object value : header.getValue()) {
+              forwarded.header(header.getKey(), value);
+            }
+          }
+        }
+        if (response.hasEntity()) {
+          forwarded.entity(streamOf(response));
+          streaming = true;
+        }
+        return forwarded.build();
+      } finally {
+        if (!streaming) {
+          response.close();
+        }
+      }
+    } catch (ProcessingException | IOException e) {
+      logger.error(ChampMsgs.CHAMP_TX_FORWARDER_ERROR, "Unable to forward request to " + owner + ": "
+          + e.getMessage());
+      return Response.status(Status.BAD_GATEWAY).entity("Unable to reach transaction owner " + owner)
+          .type(MediaType.TEXT_PLAIN).build();
+    }
+  }
+
+  /**
+   * Returns the request body, unless it is missing or empty.
+   */
+  private static Optional<InputStream> nonEmpty(InputStream body) throws IOException {
+    if (body == null) {
+      return Optional.empty();
+    }
+
+    PushbackInputStream in = new PushbackInputStream(body);
+    int first = in.read();
+    if (first == -1) {
+      return Optional.empty();
+    }
+    in.unread(first);
+    return Optional.of(in);
+  }
+
+  /**
+   * Copies the body of the other node's response to our own, closing the response once it has
+   * been copied.
+   */
+  private static StreamingOutput streamOf(Response response) {
+    InputStream in = response.readEntity(InputStream.class);
+    return out -> {
+      try (InputStream entity = in) {
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = entity.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+          out.flush();
+        }
+      } finally {
+        response.close();
+      }
+    };
+  }
+
+  public void shutdown() {
+    client.close();
+  }
+}
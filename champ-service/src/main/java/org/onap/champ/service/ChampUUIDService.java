@@ -36,19 +36,43 @@ import org.onap.champ.util.ChampProperties;
 import org.onap.champ.util.ChampServiceConstants;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 public class ChampUUIDService {
+  private static final long DEFAULT_UUID_CACHE_SIZE = 10000;
+
   private ChampGraph graphImpl;
   private static final String KEY_NAME = ChampProperties.get(ChampServiceConstants.CHAMP_KEY_NAME);
   private Logger logger = LoggerFactory.getInstance().getLogger(ChampUUIDService.class);
 
+  /**
+   * Bounded caches of aai-uuid to backend element id.  Entries are only ever populated and
+   * consulted outside of a transaction, and are validated against the retrieved element on
+   * every hit, so a stale entry costs at most one extra fetch.
+   */
+  private final Cache<String, Object> objectKeyCache;
+  private final Cache<String, Object> relationshipKeyCache;
+
   public ChampUUIDService(ChampGraph graphImpl) {
+    this(graphImpl, getConfiguredCacheSize());
+  }
+
+  public ChampUUIDService(ChampGraph graphImpl, long cacheSize) {
     this.graphImpl = graphImpl;
+    this.objectKeyCache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+    this.relationshipKeyCache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+  }
+
+  private static long getConfiguredCacheSize() {
+    String cacheSize = ChampProperties.get(ChampServiceConstants.CHAMP_UUID_CACHE_SIZE);
+    if (cacheSize == null || cacheSize.isEmpty()) {
+      return DEFAULT_UUID_CACHE_SIZE;
+    }
+    return Long.parseLong(cacheSize);
   }
 
   public List populateUUIDKey(List<ChampElement> elements) {
@@ -102,40 +126,57 @@ public class ChampUUIDService {
 
   public Optional<ChampObject> getObjectbyUUID(String uuid, ChampTransaction transaction)
       throws ChampUnmarshallingException, ChampTransactionException, ChampServiceException {
-    Optional<ChampObject> response = Optional.empty();
-
-    Stream<ChampObject> s;
-    Map<String, Object> filter = new HashMap<>();
-    filter.put(KEY_NAME, uuid);
+    // Transaction scoped lookups must see uncommitted state, so they bypass the cache.
+    if (transaction == null) {
+      Object cachedKey = objectKeyCache.getIfPresent(uuid);
+      if (cachedKey != null) {
+        Optional<ChampObject> cached = graphImpl.retrieveObject(cachedKey, Optional.empty());
+        if (cached.isPresent() && hasUUID(cached.get(), uuid)) {
+          return cached;
+        }
+        objectKeyCache.invalidate(uuid);
+      }
+    }
 
-    s = graphImpl.queryObjects(filter, Optional.ofNullable(transaction));
-    Object[] objs = s.toArray();
-    if (objs.length == 0) {
-      return response;
+    Optional<ChampObject> response = graphImpl.retrieveObjectByProperty(KEY_NAME, uuid, Optional.ofNullable(transaction));
+    if (response.isPresent() && transaction == null) {
+      objectKeyCache.put(uuid, response.get().getKey().get());
     }
-    response = graphImpl.retrieveObject(((ChampObject) objs[0]).getKey().get(), Optional.ofNullable(transaction));
     return response;
   }
 
   public Optional<ChampRelationship> getRelationshipbyUUID(String uuid, ChampTransaction transaction)
       throws ChampUnmarshallingException, ChampTransactionException, ChampServiceException {
-    Optional<ChampRelationship> response = Optional.empty();
-
-    Stream<ChampRelationship> s;
-    Map<String, Object> filter = new HashMap<>();
-    filter.put(KEY_NAME, uuid);
+    if (transaction == null) {
+      Object cachedKey = relationshipKeyCache.getIfPresent(uuid);
+      if (cachedKey != null) {
+        Optional<ChampRelationship> cached = graphImpl.retrieveRelationship(cachedKey, Optional.empty());
+        if (cached.isPresent() && hasUUID(cached.get(), uuid)) {
+          return cached;
+        }
+        relationshipKeyCache.invalidate(uuid);
+      }
+    }
 
-    s = graphImpl.queryRelationships(filter, Optional.ofNullable(transaction));
-    
-    Object[] objs = s.toArray();
-    if (objs.length == 0) {
-      return response;
+    Optional<ChampRelationship> response = graphImpl.retrieveRelationshipByProperty(KEY_NAME, uuid, Optional.ofNullable(transaction));
+    if (response.isPresent() && transaction == null) {
+      relationshipKeyCache.put(uuid, response.get().getKey().get());
     }
     
-    response = graphImpl.retrieveRelationship(((ChampRelationship) objs[0]).getKey().get(),
-        Optional.ofNullable(transaction));
-    
     return response;
   }
 
+  public void invalidateObject(String uuid) {
+    objectKeyCache.invalidate(uuid);
+  }
+
+  public void invalidateRelationship(String uuid) {
+    relationshipKeyCache.invalidate(uuid);
+  }
+
+  private boolean hasUUID(ChampElement e, String uuid) {
+    Object value = e.getProperties().get(KEY_NAME);
+    return value != null && value.toString().equals(uuid);
+  }
+
 }
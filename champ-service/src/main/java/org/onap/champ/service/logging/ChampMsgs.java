@@ -70,6 +70,14 @@ public enum ChampMsgs implements LogMessageEnum {
    * Arguments: {0} = Info
    */
   CHAMP_TX_CACHE,
+  /**
+   * Arguments: {0} = Info
+   */
+  CHAMP_TX_FORWARDER_INFO,
+  /**
+   * Arguments: {0} = Error
+   */
+  CHAMP_TX_FORWARDER_ERROR,
   
   /**
    * Any info log related to CHAMP_ASYNC_REQUEST_PROCESSOR_INFO
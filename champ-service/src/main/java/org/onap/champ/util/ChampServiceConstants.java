@@ -31,4 +31,12 @@ public class ChampServiceConstants {
   public static final String CHAMP_CREATED_TS_NAME = "createdTsName";
   public static final String CHAMP_LAST_MOD_TS_NAME = "lastModTsName";
   public static final String CHAMP_COLLECTION_PROPERTIES_KEY = "collectionPropertiesKey";
+  public static final String CHAMP_UUID_CACHE_SIZE = "uuidCacheSize";
+  public static final String CHAMP_TRAVERSAL_MAX_DEPTH = "traversalMaxDepth";
+  public static final String CHAMP_TX_CACHE_MAX_SIZE = "transactionCacheMaxSize";
+  public static final String CHAMP_TX_CACHE_CLEANUP_INTERVAL = "transactionCacheCleanupIntervalInSec";
+  public static final String CHAMP_NODE_ID = "nodeId";
+  public static final String CHAMP_TX_NODES = "transactionNodes";
+  public static final String CHAMP_TX_FORWARDING_ENABLED = "transactionForwardingEnabled";
+  public static final String CHAMP_TX_FORWARDING_TIMEOUT = "transactionForwardingTimeoutInMs";
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.champ;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.onap.aai.champcore.model.ChampObject;
+import org.onap.champ.service.ChampDataService;
+import org.onap.champ.util.ChampProperties;
+import org.onap.champ.util.ChampServiceConstants;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.powermock.api.mockito.PowerMockito.*;
+
+
+@RunWith(PowerMockRunner.class)
+@SuppressStaticInitializationFor("org.onap.champ.util.ChampProperties")
+@PrepareForTest(ChampProperties.class)
+public class ChampRESTAPITest {
+
+    private final List<ChampObject> stored = Arrays.asList(
+        ChampObject.create().ofType("foo").withKey("1").withProperty("kind", "pserver").withProperty("name", "a").build(),
+        ChampObject.create().ofType("foo").withKey("2").withProperty("kind", "pserver").withProperty("name", "b").build(),
+        ChampObject.create().ofType("foo").withKey("3").withProperty("kind", "vserver").withProperty("name", "c").build());
+
+    private ChampRESTAPI champRestApi;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        mockStatic(ChampProperties.class);
+        when(ChampProperties.get(anyString())).thenReturn("");
+        when(ChampProperties.get(ChampServiceConstants.CHAMP_COLLECTION_PROPERTIES_KEY)).thenReturn("properties");
+
+        // Stands in for the graph: an object matches when it has every property in the filter.
+        ChampDataService champDataService = mock(ChampDataService.class);
+        when(champDataService.queryObjects(anyMap(), any(HashSet.class), anyLong(), anyLong())).thenAnswer(
+            i -> matching((Map<String, Object>) i.getArguments()[0]));
+        when(champDataService.countObjects(anyMap())).thenAnswer(
+            i -> (long) matching((Map<String, Object>) i.getArguments()[0]).size());
+
+        champRestApi = new ChampRESTAPI(champDataService, null);
+    }
+
+    @Test
+    public void countObjectsMatchesFilterObjects() throws Exception {
+        MultivaluedMap<String, String> query = new MultivaluedHashMap<>();
+        query.add("kind", "pserver");
+        query.add("properties", "name");
+        query.add("_reserved_limit", "10");
+
+        Response filtered = champRestApi.filterObject(headers(), uriInfo(query), request());
+        Response counted = champRestApi.countObjects(headers(), uriInfo(query), request());
+
+        assertEquals(200, filtered.getStatus());
+        assertEquals(200, counted.getStatus());
+        assertEquals(2, new JSONArray((String) filtered.getEntity()).length());
+        assertEquals(2, new JSONObject((String) counted.getEntity()).getLong("count"));
+    }
+
+    private List<ChampObject> matching(Map<String, Object> filter) {
+        return stored.stream()
+            .filter(object -> filter.entrySet().stream()
+                .allMatch(e -> e.getValue().equals(object.getProperties().get(e.getKey()))))
+            .collect(Collectors.toList());
+    }
+
+    private static HttpHeaders headers() {
+        MultivaluedMap<String, String> requestHeaders = new MultivaluedHashMap<>();
+        requestHeaders.add("X-FromAppId", "test-app");
+        requestHeaders.add("X-TransactionId", "req-1");
+        HttpHeaders headers = mock(HttpHeaders.class);
+        when(headers.getRequestHeaders()).thenReturn(requestHeaders);
+        return headers;
+    }
+
+    private static UriInfo uriInfo(MultivaluedMap<String, String> query) {
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getQueryParameters()).thenReturn(query);
+        return uriInfo;
+    }
+
+    private static HttpServletRequest request() {
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.getMethod()).thenReturn("GET");
+        when(req.getRequestURL()).thenReturn(new StringBuffer("https://localhost:9522/services/champ-service/v1/objects/filter"));
+        return req;
+    }
+}
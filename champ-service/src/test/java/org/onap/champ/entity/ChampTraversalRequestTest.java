@@ -0,0 +1,62 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2019 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2019 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.champ.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import javax.ws.rs.core.Response.Status;
+
+import org.junit.Test;
+import org.onap.aai.champcore.model.ChampDirection;
+import org.onap.aai.champcore.model.ChampTraversal;
+import org.onap.champ.exception.ChampServiceException;
+
+public class ChampTraversalRequestTest {
+
+    @Test
+    public void testToChampTraversal() throws Exception {
+        String payload = "{\"start\":{\"aai-node-type\":\"pserver\"},"
+            + "\"steps\":[{\"direction\":\"in\",\"types\":[\"HostedOn\"],\"filter\":{\"aai-node-type\":\"vserver\"}},{}],"
+            + "\"limit\":5}";
+
+        ChampTraversal traversal = ChampTraversalRequest.fromJson(payload).toChampTraversal();
+
+        assertEquals("pserver", traversal.getStartQueryParams().get("aai-node-type"));
+        assertEquals(2, traversal.getDepth());
+        assertEquals(ChampDirection.IN, traversal.getSteps().get(0).getDirection());
+        assertTrue(traversal.getSteps().get(0).getRelationshipTypes().contains("HostedOn"));
+        assertEquals("vserver", traversal.getSteps().get(0).getQueryParams().get("aai-node-type"));
+        assertEquals(ChampDirection.BOTH, traversal.getSteps().get(1).getDirection());
+        assertTrue(traversal.getSteps().get(1).getRelationshipTypes().isEmpty());
+        assertEquals(5, traversal.getLimit());
+    }
+
+    @Test
+    public void testInvalidDirection() {
+        try {
+            ChampTraversalRequest.fromJson("{\"steps\":[{\"direction\":\"sideways\"}]}").toChampTraversal();
+            throw new AssertionError("Expected an invalid direction to be rejected");
+        } catch (ChampServiceException e) {
+            assertEquals(Status.BAD_REQUEST, e.getHttpStatus());
+        }
+    }
+}
@@ -22,10 +22,13 @@ package org.onap.champ.event;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertFalse;
 import org.junit.Test;
+import org.onap.aai.champcore.event.envelope.ChampEventEncoding;
 import org.onap.aai.champcore.model.ChampObject;
 import org.onap.champ.event.GraphEvent.GraphEventOperation;
 import org.onap.champ.event.envelope.GraphEventEnvelope;
+import org.onap.champ.event.envelope.GraphEventHeader;
 import org.onap.champ.util.TestUtil;
 import org.skyscreamer.jsonassert.Customization;
 import org.skyscreamer.jsonassert.JSONAssert;
@@ -59,4 +62,32 @@ public class GraphEventEnvelopeTest {
 
         assertThat(envelope.getHeader().getRequestId(), is(envelope.getBody().getTransactionId()));
     }
+
+    @Test
+    public void testEnvelopeIsCompact() throws Exception {
+        GraphEvent body = GraphEvent.builder(GraphEventOperation.CREATE)
+                .vertex(GraphEventVertex.fromChampObject(new ChampObject.Builder("pserver").build(), "v13")).build();
+
+        GraphEventEnvelope envelope = new GraphEventEnvelope(body);
+
+        assertFalse(envelope.toJson().contains("\n"));
+        assertThat(envelope.encode(), is(envelope.toJson()));
+        assertThat(GraphEventEnvelope.decode(envelope.encode()).toJson(), is(envelope.toJson()));
+    }
+
+    @Test
+    public void testSmileRoundTrip() throws Exception {
+        String request = TestUtil.getFileAsString("event/event-envelope.json");
+        GraphEventEnvelope envelope = GraphEventEnvelope.decode(request);
+        envelope.setHeader(new GraphEventHeader.Builder().requestId(envelope.getBody().getTransactionId())
+                .contentEncoding(ChampEventEncoding.SMILE.getName()).build());
+
+        String smile = envelope.encode();
+        assertThat(ChampEventEncoding.detect(smile), is(ChampEventEncoding.SMILE));
+        assertFalse(smile.contains("{"));
+
+        GraphEventEnvelope decoded = GraphEventEnvelope.decode(smile);
+        assertThat(decoded.getHeader(), is(envelope.getHeader()));
+        assertThat(decoded.toJson(), is(envelope.toJson()));
+    }
 }
@@ -22,6 +22,7 @@ package org.onap.champ.service;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.onap.aai.champcore.ChampGraph;
 import org.onap.aai.champcore.ChampTransaction;
 import org.onap.aai.champcore.exceptions.ChampTransactionException;
@@ -34,11 +35,27 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.ws.rs.core.Response.Status;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anySet;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.*;
 
 
@@ -72,4 +89,57 @@ public class ChampDataServiceTest {
         when(champUUIDService.populateUUIDKey(retrieved.get())).thenReturn(element);
         assertEquals(element, champDataService.getObject("testId", Optional.of(transaction)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void openTransactionIsRefusedWhenCacheIsFull() throws Exception {
+        ChampTransaction transaction = mock(ChampTransaction.class);
+        when(transaction.id()).thenReturn("tx1");
+        when(graphImpl.openTransaction()).thenReturn(transaction);
+        when(cache.put(anyString(), eq(transaction))).thenReturn(false);
+
+        try {
+            champDataService.openTransaction();
+            fail("Opening a transaction with a full cache should have failed.");
+        } catch (ChampServiceException e) {
+            assertEquals(Status.SERVICE_UNAVAILABLE, e.getHttpStatus());
+        }
+        verify(graphImpl).rollbackTransaction(transaction);
+    }
+
+    @Test
+    public void streamObjectsDropsUnrequestedProperties() throws Exception {
+        ChampObject stored = ChampObject.create().ofType("pserver").withKey("k1")
+            .withProperty("keep", "yes").withProperty("drop", "no").build();
+
+        when(graphImpl.queryObjects(anyMap(), anySet(), eq(0L), eq(10L))).thenReturn(Stream.of(stored));
+        when(champUUIDService.populateUUIDKey(any(ChampElement.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        List<ChampObject> streamed = champDataService
+            .streamObjects(new HashMap<>(), new HashSet<>(Collections.singleton("keep")), 0, 10)
+            .collect(Collectors.toList());
+
+        assertEquals(1, streamed.size());
+        assertTrue(streamed.get(0).getProperty("keep").isPresent());
+        assertFalse(streamed.get(0).getProperty("drop").isPresent());
+        verify(graphImpl).queryObjects(anyMap(), eq(new HashSet<>(Arrays.asList("keep", ""))), eq(0L), eq(10L));
+    }
+
+    @Test
+    public void patchObjectOnlyWritesSuppliedProperties() throws Exception {
+        ChampObject stored = ChampObject.create().ofType("pserver").withKey("k1")
+            .withProperty("untouched", "yes").withProperty("patched", "old").build();
+
+        when(champUUIDService.getObjectbyUUID(eq("testId"), any())).thenReturn(Optional.of(stored));
+        when(graphImpl.patchObject(any(ChampObject.class), any())).thenAnswer(i -> i.getArguments()[0]);
+        when(champUUIDService.populateUUIDKey(any(ChampElement.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        champDataService.patchObject(ChampObject.create().ofType("pserver").withoutKey()
+            .withProperty("patched", "new").build(), "testId", Optional.empty());
+
+        ArgumentCaptor<ChampObject> payload = ArgumentCaptor.forClass(ChampObject.class);
+        verify(graphImpl).patchObject(payload.capture(), eq(Optional.empty()));
+        assertEquals("k1", payload.getValue().getKey().get());
+        assertEquals("new", payload.getValue().getProperty("patched").get());
+        assertFalse(payload.getValue().getProperty("untouched").isPresent());
+    }
+}
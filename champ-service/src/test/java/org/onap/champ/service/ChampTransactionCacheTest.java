@@ -0,0 +1,143 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.champ.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.champcore.ChampGraph;
+import org.onap.aai.champcore.ChampTransaction;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ObjectName;
+
+import com.google.common.base.Ticker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+
+public class ChampTransactionCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+
+    ChampGraph graphImpl;
+    ChampTransactionCache cache;
+
+    @Before
+    public void setUp() {
+        graphImpl = mock(ChampGraph.class);
+        cache = new ChampTransactionCache(10, 2, graphImpl, ticker);
+    }
+
+    @Test
+    public void accessKeepsTransactionOpen() throws Exception {
+        ChampTransaction tx = mock(ChampTransaction.class);
+        cache.put("tx1", tx);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(8));
+        assertSame(tx, cache.get("tx1"));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(8));
+        assertSame(tx, cache.get("tx1"));
+
+        cache.cleanUp();
+        verify(graphImpl, never()).rollbackTransaction(tx);
+        assertEquals(1, cache.getOpenTransactions());
+    }
+
+    @Test
+    public void idleTransactionIsRolledBackByCleanup() throws Exception {
+        ChampTransaction tx = mock(ChampTransaction.class);
+        cache.put("tx1", tx);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        cache.cleanUp();
+
+        verify(graphImpl).rollbackTransaction(tx);
+        assertNull(cache.get("tx1"));
+        assertEquals(0, cache.getOpenTransactions());
+        assertEquals(1, cache.getExpiredTransactions());
+        assertEquals(1, cache.getRolledBackTransactions());
+    }
+
+    @Test
+    public void newTransactionIsRefusedWhenFull() throws Exception {
+        ChampTransaction tx1 = mock(ChampTransaction.class);
+        ChampTransaction tx2 = mock(ChampTransaction.class);
+        ChampTransaction tx3 = mock(ChampTransaction.class);
+        assertTrue(cache.put("tx1", tx1));
+        assertTrue(cache.put("tx2", tx2));
+        assertFalse(cache.put("tx3", tx3));
+
+        // Open transactions are left alone.
+        verify(graphImpl, never()).rollbackTransaction(any(ChampTransaction.class));
+        assertSame(tx1, cache.get("tx1"));
+        assertSame(tx2, cache.get("tx2"));
+        assertNull(cache.get("tx3"));
+        assertEquals(1, cache.getRejectedTransactions());
+
+        // Room is made once a transaction has finished...
+        cache.invalidate("tx1");
+        assertTrue(cache.put("tx3", tx3));
+
+        // ...or expired.
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        assertTrue(cache.put("tx4", mock(ChampTransaction.class)));
+        verify(graphImpl).rollbackTransaction(tx2);
+        verify(graphImpl).rollbackTransaction(tx3);
+    }
+
+    @Test
+    public void shutdownUnregistersMBean() throws Exception {
+        ChampTransactionCache registered = new ChampTransactionCache(10, 2, 10, graphImpl);
+        ObjectName name = new ObjectName(ChampTransactionCache.MBEAN_NAME);
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+
+        registered.shutdown();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    public void invalidatedTransactionIsNotRolledBack() throws Exception {
+        ChampTransaction tx = mock(ChampTransaction.class);
+        cache.put("tx1", tx);
+        cache.invalidate("tx1");
+        cache.cleanUp();
+
+        verify(graphImpl, never()).rollbackTransaction(tx);
+        assertEquals(0, cache.getRolledBackTransactions());
+    }
+}
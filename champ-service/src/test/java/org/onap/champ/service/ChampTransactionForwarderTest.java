@@ -0,0 +1,355 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.champ.service;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.champ.ChampTransactionForwardingFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.PathSegment;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriInfo;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsParameters;
+import com.sun.net.httpserver.HttpsServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+public class ChampTransactionForwarderTest {
+
+    private static final String REMOTE_TX = "node-b.5b2a7c0e-3e4b-4a8f-9c61-2f1d6a0f9e11";
+
+    /**
+     * Stands in for the champ-service instance that owns the transaction.
+     */
+    private HttpServer owner;
+    private final AtomicReference<HttpExchange> received = new AtomicReference<>();
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+
+    private ChampTransactionForwarder forwarder;
+
+    @Before
+    public void setUp() throws IOException {
+        owner = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        owner.createContext("/", exchange -> {
+            received.set(exchange);
+            receivedBody.set(new String(readAll(exchange.getRequestBody()), StandardCharsets.UTF_8));
+
+            byte[] response = ("{\"handledBy\":\"node-b\",\"method\":\"" + exchange.getRequestMethod() + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", MediaType.APPLICATION_JSON);
+            exchange.getResponseHeaders().add("etag", "\"abc\"");
+            exchange.sendResponseHeaders(201, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        owner.start();
+
+        Map<String, String> nodes = new HashMap<>();
+        nodes.put("node-a", "http://localhost:1");
+        nodes.put("node-b", "http://localhost:" + owner.getAddress().getPort());
+        forwarder = new ChampTransactionForwarder("node-a", nodes, 5000);
+    }
+
+    @After
+    public void tearDown() {
+        forwarder.shutdown();
+        owner.stop(0);
+    }
+
+    @Test
+    public void transactionIdsAreQualifiedWithTheOwningNode() {
+        assertEquals("node-a.1234", ChampTransactionForwarder.qualify("node-a", "1234"));
+        assertEquals("1234", ChampTransactionForwarder.qualify(null, "1234"));
+        assertEquals("1234", ChampTransactionForwarder.qualify("", "1234"));
+
+        assertEquals(Optional.of("node-b"), ChampTransactionForwarder.ownerOf(REMOTE_TX));
+        assertEquals(Optional.of("champ.example.com"), ChampTransactionForwarder.ownerOf("champ.example.com.1234"));
+        assertFalse(ChampTransactionForwarder.ownerOf("5b2a7c0e-3e4b-4a8f-9c61-2f1d6a0f9e11").isPresent());
+        assertFalse(ChampTransactionForwarder.ownerOf(null).isPresent());
+    }
+
+    @Test
+    public void onlyTransactionsOfOtherKnownNodesAreRemote() {
+        assertEquals(Optional.of(URI.create("http://localhost:" + owner.getAddress().getPort())),
+            forwarder.remoteOwner(REMOTE_TX));
+        assertFalse(forwarder.remoteOwner("node-a.1234").isPresent());
+        assertFalse(forwarder.remoteOwner("node-c.1234").isPresent());
+        assertFalse(forwarder.remoteOwner("1234").isPresent());
+        assertFalse(forwarder.remoteOwner(null).isPresent());
+
+        ChampTransactionForwarder disabled = new ChampTransactionForwarder("node-a", Collections.emptyMap(), 5000);
+        assertFalse(disabled.remoteOwner(REMOTE_TX).isPresent());
+        disabled.shutdown();
+    }
+
+    @Test
+    public void parseNodes() {
+        Map<String, String> nodes = ChampTransactionForwarder.parseNodes("a=https://a:9522, b = https://b:9522");
+        assertEquals(2, nodes.size());
+        assertEquals("https://b:9522", nodes.get("b"));
+        assertTrue(ChampTransactionForwarder.parseNodes("").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseNodesRejectsInvalidEntries() {
+        ChampTransactionForwarder.parseNodes("a=https://a:9522,b");
+    }
+
+    @Test
+    public void requestIsProxiedToOwner() throws IOException {
+        MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+        headers.add("X-FromAppId", "test-app");
+        headers.add("X-TransactionId", "req-1");
+        headers.add("Host", "node-a:9522");
+
+        URI requestUri = URI.create("https://node-a:9522/services/champ-service/v1/objects?transactionId=" + REMOTE_TX);
+        Response response = forwarder.forward(forwarder.remoteOwner(REMOTE_TX).get(), "POST", requestUri, headers,
+            MediaType.APPLICATION_JSON_TYPE, stream("{\"type\":\"pserver\"}"));
+
+        assertEquals(201, response.getStatus());
+        assertEquals("\"abc\"", response.getHeaderString("etag"));
+        assertEquals("{\"handledBy\":\"node-b\",\"method\":\"POST\"}",
+            entity(response));
+
+        HttpExchange exchange = received.get();
+        assertEquals("/services/champ-service/v1/objects", exchange.getRequestURI().getPath());
+        assertEquals("transactionId=" + REMOTE_TX, exchange.getRequestURI().getQuery());
+        assertEquals("test-app", exchange.getRequestHeaders().getFirst("X-FromAppId"));
+        assertEquals("req-1", exchange.getRequestHeaders().getFirst("X-TransactionId"));
+        assertEquals("node-a", exchange.getRequestHeaders().getFirst(ChampTransactionForwarder.FORWARDED_BY_HEADER));
+        assertTrue(exchange.getRequestHeaders().getFirst("Content-Type").startsWith(MediaType.APPLICATION_JSON));
+        assertEquals("{\"type\":\"pserver\"}", receivedBody.get());
+    }
+
+    @Test
+    public void patchIsProxiedToOwner() {
+        URI requestUri = URI.create("https://node-a:9522/services/champ-service/v1/objects/1?transactionId=" + REMOTE_TX);
+        Response response = forwarder.forward(forwarder.remoteOwner(REMOTE_TX).get(), "PATCH", requestUri,
+            new MultivaluedHashMap<>(), MediaType.APPLICATION_JSON_TYPE, stream("{}"));
+
+        assertEquals(201, response.getStatus());
+        assertEquals("PATCH", received.get().getRequestMethod());
+        assertEquals("{}", receivedBody.get());
+    }
+
+    @Test
+    public void responseIsStreamedFromOwner() throws Exception {
+        CountDownLatch firstPartSent = new CountDownLatch(1);
+        CountDownLatch sendRest = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean(false);
+        owner.createContext("/services/champ-service/v1/objects/filter", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("[{\"key\":\"1\"}".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                firstPartSent.countDown();
+                sendRest.await(5, TimeUnit.SECONDS);
+                out.write(",{\"key\":\"2\"}]".getBytes(StandardCharsets.UTF_8));
+                finished.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        URI requestUri = URI.create("https://node-a:9522/services/champ-service/v1/objects/filter?_reserved_stream=true"
+            + "&transactionId=" + REMOTE_TX);
+        Response response = forwarder.forward(forwarder.remoteOwner(REMOTE_TX).get(), "GET", requestUri,
+            new MultivaluedHashMap<>(), null, null);
+
+        // The response is handed back before the owner has finished writing it.
+        assertEquals(200, response.getStatus());
+        assertTrue(firstPartSent.await(5, TimeUnit.SECONDS));
+        assertFalse(finished.get());
+        assertTrue(response.getEntity() instanceof StreamingOutput);
+
+        sendRest.countDown();
+        assertEquals("[{\"key\":\"1\"},{\"key\":\"2\"}]", entity(response));
+    }
+
+    @Test
+    public void unreachableOwnerIsBadGateway() {
+        owner.stop(0);
+
+        URI requestUri = URI.create("https://node-a:9522/services/champ-service/v1/transaction/" + REMOTE_TX);
+        Response response = forwarder.forward(forwarder.remoteOwner(REMOTE_TX).get(), "GET", requestUri,
+            new MultivaluedHashMap<>(), null, null);
+
+        assertEquals(Response.Status.BAD_GATEWAY.getStatusCode(), response.getStatus());
+    }
+
+    @Test
+    public void requestIsProxiedToOwnerRequiringClientAuth() throws IOException {
+        String keyStore = getClass().getClassLoader().getResource("keystore/champ-test.jks").getPath();
+        SSLContext sslContext = ChampTransactionForwarder.createSslContext(keyStore, "JKS", "champtest", null, null);
+
+        HttpsServer httpsOwner = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpsOwner.setHttpsConfigurator(new HttpsConfigurator(sslContext) {
+            @Override
+            public void configure(HttpsParameters params) {
+                SSLParameters sslParameters = getSSLContext().getDefaultSSLParameters();
+                sslParameters.setNeedClientAuth(true);
+                params.setSSLParameters(sslParameters);
+            }
+        });
+        httpsOwner.createContext("/", exchange -> {
+            byte[] response = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        httpsOwner.start();
+
+        URI ownerUri = URI.create("https://localhost:" + httpsOwner.getAddress().getPort());
+        URI requestUri = URI.create("https://node-a:9522/services/champ-service/v1/transaction/" + REMOTE_TX);
+        ChampTransactionForwarder secureForwarder = new ChampTransactionForwarder("node-a",
+            Collections.singletonMap("node-b", ownerUri.toString()), 5000, sslContext);
+        try {
+            // Without the service certificate the owner refuses the connection.
+            assertEquals(Response.Status.BAD_GATEWAY.getStatusCode(), forwarder.forward(ownerUri, "GET", requestUri,
+                new MultivaluedHashMap<>(), null, null).getStatus());
+
+            assertEquals(200, secureForwarder.forward(ownerUri, "GET", requestUri, new MultivaluedHashMap<>(), null,
+                null).getStatus());
+        } finally {
+            secureForwarder.shutdown();
+            httpsOwner.stop(0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingKeyStoreIsRejected() {
+        ChampTransactionForwarder.createSslContext("does-not-exist.jks", "JKS", "champtest", null, null);
+    }
+
+    @Test
+    public void filterForwardsForeignTransactionPath() throws IOException {
+        ContainerRequestContext context = request("GET",
+            "https://node-a:9522/services/champ-service/v1/transaction/" + REMOTE_TX, new MultivaluedHashMap<>());
+
+        new ChampTransactionForwardingFilter(forwarder).filter(context);
+
+        verify(context).abortWith(any(Response.class));
+        assertEquals("/services/champ-service/v1/transaction/" + REMOTE_TX, received.get().getRequestURI().getPath());
+    }
+
+    @Test
+    public void filterHandlesLocalAndForwardedRequestsLocally() throws IOException {
+        ChampTransactionForwardingFilter filter = new ChampTransactionForwardingFilter(forwarder);
+
+        MultivaluedMap<String, String> query = new MultivaluedHashMap<>();
+        query.add("transactionId", "node-a.1234");
+        ContainerRequestContext local = request("GET", "https://node-a:9522/services/champ-service/v1/objects/1", query);
+        filter.filter(local);
+        verify(local, never()).abortWith(any(Response.class));
+
+        query = new MultivaluedHashMap<>();
+        query.add("transactionId", REMOTE_TX);
+        ContainerRequestContext forwarded = request("GET", "https://node-a:9522/services/champ-service/v1/objects/1",
+            query);
+        when(forwarded.getHeaderString(ChampTransactionForwarder.FORWARDED_BY_HEADER)).thenReturn("node-c");
+        filter.filter(forwarded);
+        verify(forwarded, never()).abortWith(any(Response.class));
+
+        assertEquals(null, received.get());
+    }
+
+    private ContainerRequestContext request(String method, String uri, MultivaluedMap<String, String> query) {
+        URI requestUri = URI.create(uri);
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getRequestUri()).thenReturn(requestUri);
+        when(uriInfo.getQueryParameters()).thenReturn(query);
+
+        List<PathSegment> segments = new ArrayList<>();
+        for (String segment : requestUri.getPath().substring(1).split("/")) {
+            PathSegment pathSegment = mock(PathSegment.class);
+            when(pathSegment.getPath()).thenReturn(segment);
+            segments.add(pathSegment);
+        }
+        when(uriInfo.getPathSegments()).thenReturn(segments);
+
+        ContainerRequestContext context = mock(ContainerRequestContext.class);
+        when(context.getMethod()).thenReturn(method);
+        when(context.getUriInfo()).thenReturn(uriInfo);
+        when(context.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        return context;
+    }
+
+    private static String entity(Response response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
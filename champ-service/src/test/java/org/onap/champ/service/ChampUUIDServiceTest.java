@@ -0,0 +1,110 @@
+/**
+ * ============LICENSE_START==========================================
+ * org.onap.aai
+ * ===================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ===================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END============================================
+ */
+package org.onap.champ.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.onap.aai.champcore.ChampGraph;
+import org.onap.aai.champcore.ChampTransaction;
+import org.onap.aai.champcore.model.ChampObject;
+import org.onap.champ.util.ChampProperties;
+import org.onap.champ.util.ChampServiceConstants;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.*;
+
+
+@RunWith(PowerMockRunner.class)
+@SuppressStaticInitializationFor("org.onap.champ.util.ChampProperties")
+@PrepareForTest({ChampProperties.class})
+public class ChampUUIDServiceTest {
+
+    private static final String UUID = "uuid-1";
+    private static final Long VERTEX_ID = 42L;
+
+    ChampUUIDService champUUIDService;
+    ChampGraph graphImpl;
+    ChampObject stored;
+
+    @Before
+    public void setUp() throws Exception {
+        mockStatic(ChampProperties.class);
+        when(ChampProperties.get(anyString())).thenReturn("");
+        when(ChampProperties.get(ChampServiceConstants.CHAMP_KEY_NAME)).thenReturn("aai-uuid");
+        graphImpl = mock(ChampGraph.class);
+        champUUIDService = new ChampUUIDService(graphImpl, 10);
+
+        stored = ChampObject.create().ofType("pserver").withKey(VERTEX_ID).withProperty("aai-uuid", UUID).build();
+        when(graphImpl.retrieveObjectByProperty(eq("aai-uuid"), eq(UUID), any(Optional.class))).thenReturn(Optional.of(stored));
+        when(graphImpl.retrieveObject(eq(VERTEX_ID), any(Optional.class))).thenReturn(Optional.of(stored));
+    }
+
+    @Test
+    public void repeatedLookupUsesCachedKey() throws Exception {
+        assertEquals(stored, champUUIDService.getObjectbyUUID(UUID, null).get());
+        assertEquals(stored, champUUIDService.getObjectbyUUID(UUID, null).get());
+
+        verify(graphImpl, times(1)).retrieveObjectByProperty(eq("aai-uuid"), eq(UUID), any(Optional.class));
+        verify(graphImpl, times(1)).retrieveObject(eq(VERTEX_ID), any(Optional.class));
+    }
+
+    @Test
+    public void invalidateForcesQuery() throws Exception {
+        champUUIDService.getObjectbyUUID(UUID, null);
+        champUUIDService.invalidateObject(UUID);
+        champUUIDService.getObjectbyUUID(UUID, null);
+
+        verify(graphImpl, times(2)).retrieveObjectByProperty(eq("aai-uuid"), eq(UUID), any(Optional.class));
+    }
+
+    @Test
+    public void staleEntryFallsBackToQuery() throws Exception {
+        champUUIDService.getObjectbyUUID(UUID, null);
+        when(graphImpl.retrieveObject(eq(VERTEX_ID), any(Optional.class)))
+            .thenReturn(Optional.empty());
+
+        assertTrue(champUUIDService.getObjectbyUUID(UUID, null).isPresent());
+        verify(graphImpl, times(2)).retrieveObjectByProperty(eq("aai-uuid"), eq(UUID), any(Optional.class));
+    }
+
+    @Test
+    public void transactionLookupBypassesCache() throws Exception {
+        ChampTransaction transaction = mock(ChampTransaction.class);
+
+        champUUIDService.getObjectbyUUID(UUID, transaction);
+        champUUIDService.getObjectbyUUID(UUID, transaction);
+        champUUIDService.getObjectbyUUID(UUID, null);
+
+        verify(graphImpl, times(3)).retrieveObjectByProperty(eq("aai-uuid"), eq(UUID), any(Optional.class));
+    }
+}